@@ -0,0 +1,36 @@
+/*
+ *
+ */
+package ru.ildev.curve.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Запускает все замеры модуля вместе с профилировщиком сборщика мусора, который добавляет к результатам скорость
+ * выделения памяти ({@code gc.alloc.rate.norm} - байт на вызов).
+ * <p>
+ * Первым аргументом можно передать регулярное выражение для выбора замеров, например {@code CurvePath}.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ *
+ */
+package ru.ildev.curve.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.ildev.curve.ArcCurve2D;
+import ru.ildev.curve.CubicBezierCurve;
+import ru.ildev.curve.Curve;
+import ru.ildev.curve.LineCurve;
+import ru.ildev.curve.QuadraticBezierCurve;
+import ru.ildev.geom.Vector2;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замеры вычисления точек, касательных, ломаных и длин отдельных кривых на плоскости.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurveBenchmark {
+
+    /**
+     * Вид кривой.
+     */
+    @Param({"cubic", "quadratic", "line", "arc"})
+    public String type;
+
+    /**
+     * Количество отрезков ломаной.
+     */
+    @Param({"64"})
+    public int divisions;
+
+    private Curve.D2 curve;
+    private float[] ts;
+    private float[] coordinates;
+    private Vector2 out;
+    private int index;
+
+    @Setup
+    public void setup() {
+        this.curve = create(this.type);
+        this.ts = Samples.parameters(1024);
+        this.coordinates = new float[2 * (this.divisions + 1)];
+        this.out = new Vector2();
+    }
+
+    private float nextT() {
+        this.index = (this.index + 1) & (this.ts.length - 1);
+        return this.ts[this.index];
+    }
+
+    @Benchmark
+    public Vector2 getPointAt() {
+        return this.curve.getPointAt(this.nextT());
+    }
+
+    @Benchmark
+    public Vector2 getPointAtOut() {
+        return this.curve.getPointAt(this.nextT(), this.out);
+    }
+
+    @Benchmark
+    public Vector2 getTangentAt() {
+        return this.curve.getTangentAt(this.nextT());
+    }
+
+    @Benchmark
+    public Vector2 getTangentAtOut() {
+        return this.curve.getTangentAt(this.nextT(), this.out);
+    }
+
+    @Benchmark
+    public Vector2[] getPoints() {
+        return this.curve.getPoints(this.divisions);
+    }
+
+    @Benchmark
+    public float[] getPointsPrimitive() {
+        this.curve.getPoints(this.divisions, this.coordinates, 0);
+        return this.coordinates;
+    }
+
+    /**
+     * Таблица длин кешируется в кривой, поэтому для каждого замера создается новая кривая.
+     */
+    @Benchmark
+    public float[] getLengths() {
+        return create(this.type).getLengths();
+    }
+
+    @Benchmark
+    public float getLength() {
+        return create(this.type).getLength();
+    }
+
+    static Curve.D2 create(String type) {
+        switch (type) {
+            case "cubic":
+                return new CubicBezierCurve.D2(new Vector2(0.0f, 0.0f), new Vector2(10.0f, 40.0f),
+                        new Vector2(60.0f, -20.0f), new Vector2(100.0f, 30.0f));
+            case "quadratic":
+                return new QuadraticBezierCurve.D2(new Vector2(0.0f, 0.0f), new Vector2(50.0f, 80.0f),
+                        new Vector2(100.0f, 30.0f));
+            case "line":
+                return new LineCurve.D2(new Vector2(0.0f, 0.0f), new Vector2(100.0f, 30.0f));
+            case "arc":
+                return new ArcCurve2D(0.0f, 0.0f, 50.0f, 0.0f, 2.5f, true);
+            default:
+                throw new IllegalArgumentException("type == " + type);
+        }
+    }
+
+}
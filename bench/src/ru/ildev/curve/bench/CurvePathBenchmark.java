@@ -0,0 +1,93 @@
+/*
+ *
+ */
+package ru.ildev.curve.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.ildev.curve.CubicBezierCurve;
+import ru.ildev.curve.CurvePath;
+import ru.ildev.curve.LineCurve;
+import ru.ildev.geom.Vector2;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замеры поиска точки на составной кривой при растущем количестве кривых.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurvePathBenchmark {
+
+    /**
+     * Количество кривых пути.
+     */
+    @Param({"10", "100", "1000", "5000"})
+    public int segments;
+
+    private CurvePath.D2 path;
+    private float[] ts;
+    private Vector2 out;
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42L);
+        this.path = new CurvePath.D2();
+
+        Vector2 start = new Vector2(0.0f, 0.0f);
+        for (int i = 0; i < this.segments; i++) {
+            Vector2 end = new Vector2(start.x + 10.0f, random.nextFloat() * 100.0f);
+            if ((i & 1) == 0) {
+                this.path.add(new CubicBezierCurve.D2(start, new Vector2(start.x + 3.0f, random.nextFloat() * 100.0f),
+                        new Vector2(start.x + 7.0f, random.nextFloat() * 100.0f), end));
+            } else {
+                this.path.add(new LineCurve.D2(start, end));
+            }
+            start = end;
+        }
+
+        // Таблицы длин строятся один раз и в замер не входят.
+        this.path.getLength();
+        this.ts = Samples.parameters(1024);
+        this.out = new Vector2();
+    }
+
+    private float nextT() {
+        this.index = (this.index + 1) & (this.ts.length - 1);
+        return this.ts[this.index];
+    }
+
+    @Benchmark
+    public Vector2 getPointAt() {
+        return this.path.getPointAt(this.nextT());
+    }
+
+    @Benchmark
+    public Vector2 getPointAtOut() {
+        return this.path.getPointAt(this.nextT(), this.out);
+    }
+
+    @Benchmark
+    public float getLength() {
+        return this.path.getLength();
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ *
+ */
+package ru.ildev.curve.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.ildev.curve.Path;
+import ru.ildev.geom.Vector2;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замеры интерполяции по точкам для всех видов интерполяции {@link Path}.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathBenchmark {
+
+    /**
+     * Вид интерполяции: {@link Path#LINEAR}, {@link Path#COSINE}, {@link Path#CUBIC}, {@link Path#HERMITE},
+     * {@link Path#SPLINE}.
+     */
+    @Param({"0", "1", "2", "3", "4"})
+    public int interpolation;
+
+    /**
+     * Количество точек.
+     */
+    @Param({"1000"})
+    public int size;
+
+    private Path.D1 path1;
+    private Path.D2 path2;
+    private float[] ts;
+    private float[] coordinates;
+    private Vector2 out;
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42L);
+        Vector2[] points = new Vector2[this.size];
+        this.path1 = new Path.D1(new float[0]);
+        for (int i = 0; i < this.size; i++) {
+            points[i] = new Vector2(i, random.nextFloat() * 100.0f);
+            this.path1.addPoint(points[i].y);
+        }
+        this.path1.setInterpolation(this.interpolation);
+        this.path2 = new Path.D2(points, this.interpolation);
+
+        this.ts = Samples.parameters(1024);
+        this.coordinates = new float[2 * this.ts.length];
+        this.out = new Vector2();
+    }
+
+    private float nextT() {
+        this.index = (this.index + 1) & (this.ts.length - 1);
+        return this.ts[this.index];
+    }
+
+    @Benchmark
+    public float getPointAt1() {
+        return this.path1.getPointAt(this.nextT());
+    }
+
+    @Benchmark
+    public Vector2 getPointAt2() {
+        return this.path2.getPointAt(this.nextT());
+    }
+
+    @Benchmark
+    public Vector2 getPointAt2Out() {
+        return this.path2.getPointAt(this.nextT(), this.out);
+    }
+
+    /**
+     * Вычисление сразу 1024 точек.
+     */
+    @Benchmark
+    public float[] evaluate2() {
+        this.path2.evaluate(this.ts, this.coordinates);
+        return this.coordinates;
+    }
+
+}
@@ -0,0 +1,35 @@
+/*
+ *
+ */
+package ru.ildev.curve.bench;
+
+import java.util.Random;
+
+/**
+ * Общие входные данные для замеров.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+final class Samples {
+
+    private Samples() {
+    }
+
+    /**
+     * Получает массив случайных значений параметра от 0 до 1. Генератор инициализируется постоянным числом, чтобы
+     * запуски были сравнимы.
+     *
+     * @param count количество значений, степень двойки.
+     * @return массив значений.
+     */
+    static float[] parameters(int count) {
+        Random random = new Random(42L);
+        float[] ts = new float[count];
+        for (int i = 0; i < count; i++) {
+            ts[i] = random.nextFloat();
+        }
+        return ts;
+    }
+
+}
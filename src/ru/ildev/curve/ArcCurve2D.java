@@ -54,13 +54,192 @@ public class ArcCurve2D extends Curve.D2 {
     }
 
     @Override
-    public Vector2 getPointAt(float t) {
+    public Vector2 getPointAt(float t, Vector2 out) {
         if (!this.clockwise) t = 1.0f - t;
         float deltaAngle = this.endAngle - this.startAngle;
         float angle = this.startAngle + t * deltaAngle;
-        float tx = this.x + this.radius * MoreMath.cos(angle);
-        float ty = this.y + this.radius * MoreMath.sin(angle);
-        return new Vector2(tx, ty);
+        out.x = this.x + this.radius * MoreMath.cos(angle);
+        out.y = this.y + this.radius * MoreMath.sin(angle);
+        return out;
+    }
+
+    /**
+     * Касательная вычисляется по производной окружности, без численного дифференцирования.
+     *
+     * @param t   значение от 0 до 1.
+     * @param out вектор для записи результата.
+     * @return вектор {@code out}.
+     */
+    @Override
+    public Vector2 getTangentAt(float t, Vector2 out) {
+        float deltaAngle = this.endAngle - this.startAngle;
+        if (!this.clockwise) {
+            t = 1.0f - t;
+            deltaAngle = -deltaAngle;
+        }
+        float angle = this.startAngle + t * (this.endAngle - this.startAngle);
+        float sign = Math.signum(this.radius * deltaAngle);
+        out.x = -sign * MoreMath.sin(angle);
+        out.y = sign * MoreMath.cos(angle);
+        return out;
+    }
+
+    /**
+     * Получает длину дуги, равную произведению радиуса на центральный угол.
+     *
+     * @return длину дуги.
+     */
+    @Override
+    public float getLength() {
+        return MoreMath.abs(this.radius * (this.endAngle - this.startAngle));
+    }
+
+    /**
+     * Длина дуги растет линейно по параметру, поэтому таблица длин строится без вычисления точек.
+     *
+     * @param divisions количество отрезков.
+     * @return массив накопленных длин размером {@code divisions + 1}.
+     */
+    @Override
+    protected float[] computeLengths(int divisions) {
+        float[] cache = new float[divisions + 1];
+        float length = this.getLength();
+        for (int p = 1; p <= divisions; p++) {
+            cache[p] = length * p / divisions;
+        }
+
+        return cache;
+    }
+
+    /**
+     * Параметр дуги пропорционален длине, поэтому преобразование не требуется.
+     *
+     * @param u доля длины дуги от 0 до 1.
+     * @return значение {@code u}.
+     */
+    @Override
+    public float getUtoTmapping(float u) {
+        return u;
+    }
+
+    @Override
+    public Vector2 getPointAtDistance(float distance, Vector2 out) {
+        float length = this.getLength();
+        return this.getPointAt(length > 0.0f ? MoreMath.clamp(distance / length, 0.0f, 1.0f) : 0.0f, out);
+    }
+
+    @Override
+    public void evaluate(float[] ts, int offset, int count, float[] outXY, int outOffset) {
+        float deltaAngle = this.endAngle - this.startAngle;
+
+        for (int i = 0; i < count; i++) {
+            float t = ts[offset + i];
+            if (!this.clockwise) t = 1.0f - t;
+            float angle = this.startAngle + t * deltaAngle;
+            int j = outOffset + 2 * i;
+            outXY[j] = this.x + this.radius * MoreMath.cos(angle);
+            outXY[j + 1] = this.y + this.radius * MoreMath.sin(angle);
+        }
+    }
+
+    @Override
+    public void evaluate(float[] ts, int offset, int count, float[] outX, float[] outY, int outOffset) {
+        float deltaAngle = this.endAngle - this.startAngle;
+
+        for (int i = 0; i < count; i++) {
+            float t = ts[offset + i];
+            if (!this.clockwise) t = 1.0f - t;
+            float angle = this.startAngle + t * deltaAngle;
+            outX[outOffset + i] = this.x + this.radius * MoreMath.cos(angle);
+            outY[outOffset + i] = this.y + this.radius * MoreMath.sin(angle);
+        }
+    }
+
+    /**
+     * Количество отрезков вычисляется по стреле прогиба: хорда с центральным углом {@code a} отклоняется от дуги на
+     * {@code radius * (1 - cos(a / 2))}.
+     *
+     * @param tolerance допустимое отклонение ломаной от кривой.
+     * @return количество отрезков, не меньше 1.
+     */
+    @Override
+    public int getDivisions(float tolerance) {
+        if (tolerance <= 0.0f) throw new IllegalArgumentException("tolerance <= 0");
+
+        float sweep = MoreMath.abs(this.endAngle - this.startAngle);
+        float radius = MoreMath.abs(this.radius);
+        if (tolerance >= radius) return Math.max(1, (int) Math.ceil(sweep / MoreMath.PI));
+
+        double step = 2.0 * Math.acos(1.0 - tolerance / radius);
+        return Math.max(1, (int) Math.ceil(sweep / step));
+    }
+
+    /**
+     * Точный ограничивающий прямоугольник: кроме концов дуги учитываются точки, в которых дуга пересекает
+     * горизонтальный и вертикальный диаметры окружности.
+     *
+     * @return ограничивающий прямоугольник.
+     */
+    @Override
+    protected Bounds.D2 computeBounds() {
+        float fromAngle = Math.min(this.startAngle, this.endAngle);
+        float toAngle = Math.max(this.startAngle, this.endAngle);
+
+        float x0 = this.x + this.radius * MoreMath.cos(fromAngle);
+        float y0 = this.y + this.radius * MoreMath.sin(fromAngle);
+        float x1 = this.x + this.radius * MoreMath.cos(toAngle);
+        float y1 = this.y + this.radius * MoreMath.sin(toAngle);
+        float minX = Math.min(x0, x1), maxX = Math.max(x0, x1);
+        float minY = Math.min(y0, y1), maxY = Math.max(y0, y1);
+
+        // Углы, кратные PI / 2, внутри дуги; больше четырех подряд не дают новых точек.
+        double quarter = 0.5 * Math.PI;
+        long first = (long) Math.ceil(fromAngle / quarter);
+        long last = Math.min((long) Math.floor(toAngle / quarter), first + 3);
+        for (long k = first; k <= last; k++) {
+            int quadrant = (int) (k & 3);
+            float px = this.x + (quadrant == 0 ? this.radius : quadrant == 2 ? -this.radius : 0.0f);
+            float py = this.y + (quadrant == 1 ? this.radius : quadrant == 3 ? -this.radius : 0.0f);
+            minX = Math.min(minX, px);
+            maxX = Math.max(maxX, px);
+            minY = Math.min(minY, py);
+            maxY = Math.max(maxY, py);
+        }
+
+        return new Bounds.D2(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Ближайшая точка дуги лежит на луче из центра окружности через заданную точку, если этот луч попадает в дугу,
+     * иначе на одном из концов дуги.
+     *
+     * @param x x-координата точки.
+     * @param y y-координата точки.
+     * @return значение от 0 до 1.
+     */
+    @Override
+    public float getClosestT(float x, float y) {
+        float deltaAngle = this.endAngle - this.startAngle;
+        float dx = x - this.x, dy = y - this.y;
+        if (deltaAngle == 0.0f || this.radius == 0.0f || (dx == 0.0f && dy == 0.0f)) return 0.0f;
+
+        // При отрицательном радиусе точки дуги лежат на противоположном луче.
+        double angle = Math.atan2(dy, dx) + (this.radius < 0.0f ? Math.PI : 0.0);
+        double turn = 2.0 * Math.PI;
+        double offset = angle - this.startAngle;
+        offset -= turn * Math.floor(offset / turn);
+        if (deltaAngle < 0.0f && offset > 0.0) offset -= turn;
+
+        float s = (float) (offset / deltaAngle);
+        if (s > 1.0f) {
+            // Луч не попадает в дугу: выбирается ближайший конец.
+            float sx = this.radius * MoreMath.cos(this.startAngle) - dx;
+            float sy = this.radius * MoreMath.sin(this.startAngle) - dy;
+            float ex = this.radius * MoreMath.cos(this.endAngle) - dx;
+            float ey = this.radius * MoreMath.sin(this.endAngle) - dy;
+            s = sx * sx + sy * sy <= ex * ex + ey * ey ? 0.0f : 1.0f;
+        }
+        return this.clockwise ? s : 1.0f - s;
     }
 
     /**
@@ -0,0 +1,164 @@
+/*
+ *
+ */
+package ru.ildev.curve;
+
+/**
+ * Вспомогательные методы для работы с массивами накопленных длин кривой.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+final class ArcLength {
+
+    private ArcLength() {
+    }
+
+    /**
+     * Находит индекс последнего элемента массива, не превышающего заданное значение. Массив должен быть
+     * отсортирован по неубыванию.
+     *
+     * @param lengths массив накопленных длин.
+     * @param from    начальный индекс поиска (включительно).
+     * @param to      конечный индекс поиска (включительно).
+     * @param value   искомое значение.
+     * @return индекс от {@code from} до {@code to}.
+     */
+    static int search(float[] lengths, int from, int to, float value) {
+        int low = from;
+        int high = to;
+
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (lengths[middle] <= value) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Находит индекс первого элемента массива, который не меньше заданного значения. Массив должен быть
+     * отсортирован по неубыванию.
+     *
+     * @param lengths массив накопленных длин.
+     * @param from    начальный индекс поиска (включительно).
+     * @param to      конечный индекс поиска (включительно).
+     * @param value   искомое значение.
+     * @return индекс от {@code from} до {@code to}; {@code to}, если все элементы меньше значения.
+     */
+    static int searchUpper(float[] lengths, int from, int to, float value) {
+        int low = from;
+        int high = to;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (lengths[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Строит таблицу накопленных длин по модулю производной кривой в {@code divisions + 1} равноотстоящих узлах,
+     * общих для соседних отрезков, поэтому производная вычисляется один раз на отрезок. Длина каждого отрезка
+     * интегрируется по кубическому многочлену, проходящему через четыре ближайших узла; у концов кривой берутся
+     * четыре крайних узла. Формула точна для многочленов третьей степени. Длины отрезков не бывают отрицательными,
+     * поэтому таблица не убывает.
+     *
+     * @param speeds модуль производной кривой в узлах {@code t = i / divisions}, не меньше двух значений.
+     * @return массив накопленных длин размером {@code speeds.length}.
+     */
+    static float[] accumulate(float[] speeds) {
+        int divisions = speeds.length - 1;
+        float[] lengths = new float[divisions + 1];
+        double h = 1.0 / divisions;
+        double length = 0.0;
+
+        for (int i = 0; i < divisions; i++) {
+            double piece;
+            if (divisions == 1) {
+                piece = 0.5 * (speeds[0] + speeds[1]);
+            } else if (divisions == 2) {
+                piece = i == 0
+                        ? (5.0 * speeds[0] + 8.0 * speeds[1] - speeds[2]) / 12.0
+                        : (-speeds[0] + 8.0 * speeds[1] + 5.0 * speeds[2]) / 12.0;
+            } else if (i == 0) {
+                piece = (9.0 * speeds[0] + 19.0 * speeds[1] - 5.0 * speeds[2] + speeds[3]) / 24.0;
+            } else if (i == divisions - 1) {
+                piece = (speeds[i - 2] - 5.0 * speeds[i - 1] + 19.0 * speeds[i] + 9.0 * speeds[i + 1]) / 24.0;
+            } else {
+                piece = (-speeds[i - 1] + 13.0 * speeds[i] + 13.0 * speeds[i + 1] - speeds[i + 2]) / 24.0;
+            }
+            length += Math.max(piece, 0.0) * h;
+            lengths[i + 1] = (float) length;
+        }
+
+        return lengths;
+    }
+
+    /**
+     * Переводит расстояние вдоль кривой в параметр {@code t}, используя таблицу длин, построенную по равномерно
+     * распределенным значениям {@code t}.
+     *
+     * @param lengths  массив накопленных длин размером {@code divisions + 1}.
+     * @param distance расстояние от начала кривой.
+     * @return значение от 0 до 1.
+     */
+    static float toT(float[] lengths, float distance) {
+        int last = lengths.length - 1;
+        if (last <= 0) return 0.0f;
+        if (distance <= 0.0f) return 0.0f;
+        if (distance >= lengths[last]) return 1.0f;
+
+        int i = search(lengths, 0, last, distance);
+        if (i == last) return 1.0f;
+
+        float segmentLength = lengths[i + 1] - lengths[i];
+        float fraction = segmentLength > 0.0f ? (distance - lengths[i]) / segmentLength : 0.0f;
+        return (i + fraction) / last;
+    }
+
+    /**
+     * Вычисляет интеграл модуля линейной функции {@code |a * t + b|} по отрезку [t0, t1]. Векторы {@code a} и
+     * {@code b} задаются скалярными произведениями, поэтому метод подходит для любой размерности. Используется для
+     * точной длины квадратичной кривой Безье, производная которой линейна.
+     *
+     * @param aa скалярный квадрат {@code a}.
+     * @param ab скалярное произведение {@code a} и {@code b}.
+     * @param bb скалярный квадрат {@code b}.
+     * @param t0 начало отрезка.
+     * @param t1 конец отрезка.
+     * @return значение интеграла.
+     */
+    static float linearSpeedIntegral(double aa, double ab, double bb, float t0, float t1) {
+        if (aa <= 1.0e-12 * bb || aa == 0.0) return (float) (Math.sqrt(bb) * (t1 - t0));
+
+        // |a * t + b| = sqrt(aa * u * u + k), где u = t + ab / aa.
+        double k = Math.max(0.0, bb - ab * ab / aa);
+        double shift = ab / aa;
+        return (float) (primitive(aa, k, t1 + shift) - primitive(aa, k, t0 + shift));
+    }
+
+    /**
+     * Первообразная {@code sqrt(aa * u * u + k)}, равная нулю в нуле. Функция нечетная, поэтому для отрицательных
+     * {@code u} значение вычисляется через {@code |u|}, что исключает вычитание близких чисел под логарифмом.
+     */
+    private static double primitive(double aa, double k, double u) {
+        double v = Math.abs(u);
+        double sqrtA = Math.sqrt(aa);
+        double root = Math.sqrt(aa * v * v + k);
+
+        double value = 0.5 * v * root;
+        if (k > 0.0) value += 0.5 * k / sqrtA * Math.log((sqrtA * v + root) / Math.sqrt(k));
+        return u < 0.0 ? -value : value;
+    }
+
+}
@@ -0,0 +1,297 @@
+/*
+ *
+ */
+package ru.ildev.curve;
+
+/**
+ * Пакетное вычисление точек кривых Безье. Данные хранятся в виде структуры массивов: каждая координата каждой
+ * контрольной точки лежит в своем массиве, поэтому циклы ниже не содержат ветвлений, вызовов и обращаются к памяти
+ * последовательно. Такие циклы JIT-компилятор разворачивает и векторизует сам, используя доступные на процессоре
+ * SIMD-инструкции; на платформах без них выполняется обычный скалярный код.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+public final class BezierBatch {
+
+    private BezierBatch() {
+    }
+
+    /**
+     * Вычисляет одну координату {@code count} кубических кривых при одном и том же значении {@code t}.
+     *
+     * @param p0    координаты начальных точек.
+     * @param p1    координаты первых контрольных точек.
+     * @param p2    координаты вторых контрольных точек.
+     * @param p3    координаты конечных точек.
+     * @param count количество кривых.
+     * @param t     значение от 0 до 1.
+     * @param out   массив для записи координат.
+     */
+    public static void cubic(float[] p0, float[] p1, float[] p2, float[] p3, int count, float t, float[] out) {
+        float s = 1.0f - t;
+        float b0 = s * s * s;
+        float b1 = 3.0f * s * s * t;
+        float b2 = 3.0f * s * t * t;
+        float b3 = t * t * t;
+
+        for (int i = 0; i < count; i++) {
+            out[i] = b0 * p0[i] + b1 * p1[i] + b2 * p2[i] + b3 * p3[i];
+        }
+    }
+
+    /**
+     * Вычисляет одну координату {@code count} кубических кривых, для каждой кривой со своим значением {@code t}.
+     *
+     * @param p0    координаты начальных точек.
+     * @param p1    координаты первых контрольных точек.
+     * @param p2    координаты вторых контрольных точек.
+     * @param p3    координаты конечных точек.
+     * @param count количество кривых.
+     * @param ts    значения от 0 до 1 для каждой кривой.
+     * @param out   массив для записи координат.
+     */
+    public static void cubic(float[] p0, float[] p1, float[] p2, float[] p3, int count, float[] ts, float[] out) {
+        for (int i = 0; i < count; i++) {
+            float t = ts[i];
+            float s = 1.0f - t;
+            out[i] = s * s * s * p0[i] + 3.0f * s * s * t * p1[i] + 3.0f * s * t * t * p2[i] + t * t * t * p3[i];
+        }
+    }
+
+    /**
+     * Вычисляет одну координату {@code count} квадратичных кривых при одном и том же значении {@code t}.
+     *
+     * @param p0    координаты начальных точек.
+     * @param p1    координаты контрольных точек.
+     * @param p2    координаты конечных точек.
+     * @param count количество кривых.
+     * @param t     значение от 0 до 1.
+     * @param out   массив для записи координат.
+     */
+    public static void quadratic(float[] p0, float[] p1, float[] p2, int count, float t, float[] out) {
+        float s = 1.0f - t;
+        float b0 = s * s;
+        float b1 = 2.0f * s * t;
+        float b2 = t * t;
+
+        for (int i = 0; i < count; i++) {
+            out[i] = b0 * p0[i] + b1 * p1[i] + b2 * p2[i];
+        }
+    }
+
+    /**
+     * Вычисляет одну координату {@code count} квадратичных кривых, для каждой кривой со своим значением {@code t}.
+     *
+     * @param p0    координаты начальных точек.
+     * @param p1    координаты контрольных точек.
+     * @param p2    координаты конечных точек.
+     * @param count количество кривых.
+     * @param ts    значения от 0 до 1 для каждой кривой.
+     * @param out   массив для записи координат.
+     */
+    public static void quadratic(float[] p0, float[] p1, float[] p2, int count, float[] ts, float[] out) {
+        for (int i = 0; i < count; i++) {
+            float t = ts[i];
+            float s = 1.0f - t;
+            out[i] = s * s * p0[i] + 2.0f * s * t * p1[i] + t * t * p2[i];
+        }
+    }
+
+    /**
+     * Упакованный набор кубических кривых на плоскости. Кривые хранятся в степенном базисе
+     * {@code P(t) = ((a * t + b) * t + c) * t + d}, поэтому точка вычисляется схемой Горнера.
+     */
+    public static final class Cubic2D {
+
+        /**
+         * Коэффициенты степенного базиса по осям.
+         */
+        private final float[] ax, bx, cx, dx, ay, by, cy, dy;
+        /**
+         * Количество кривых.
+         */
+        private final int size;
+
+        /**
+         * Стандартный конструктор.
+         *
+         * @param curves массив кривых.
+         */
+        public Cubic2D(CubicBezierCurve.D2[] curves) {
+            if (curves == null) throw new NullPointerException("curves == null");
+
+            this.size = curves.length;
+            this.ax = new float[this.size];
+            this.bx = new float[this.size];
+            this.cx = new float[this.size];
+            this.dx = new float[this.size];
+            this.ay = new float[this.size];
+            this.by = new float[this.size];
+            this.cy = new float[this.size];
+            this.dy = new float[this.size];
+
+            for (int i = 0; i < this.size; i++) {
+                CubicBezierCurve.D2 curve = curves[i];
+                if (curve == null) throw new NullPointerException("curves[" + i + "] == null");
+
+                float x0 = curve.getStart().x, x1 = curve.getControl1().x;
+                float x2 = curve.getControl2().x, x3 = curve.getEnd().x;
+                float y0 = curve.getStart().y, y1 = curve.getControl1().y;
+                float y2 = curve.getControl2().y, y3 = curve.getEnd().y;
+
+                this.ax[i] = -x0 + 3.0f * x1 - 3.0f * x2 + x3;
+                this.bx[i] = 3.0f * x0 - 6.0f * x1 + 3.0f * x2;
+                this.cx[i] = 3.0f * (x1 - x0);
+                this.dx[i] = x0;
+                this.ay[i] = -y0 + 3.0f * y1 - 3.0f * y2 + y3;
+                this.by[i] = 3.0f * y0 - 6.0f * y1 + 3.0f * y2;
+                this.cy[i] = 3.0f * (y1 - y0);
+                this.dy[i] = y0;
+            }
+        }
+
+        /**
+         * Получает количество кривых.
+         *
+         * @return количество кривых.
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Вычисляет точки всех кривых при одном и том же значении {@code t}.
+         *
+         * @param t    значение от 0 до 1.
+         * @param outX массив для записи x-координат размером не меньше {@link #size()}.
+         * @param outY массив для записи y-координат размером не меньше {@link #size()}.
+         */
+        public void evaluate(float t, float[] outX, float[] outY) {
+            float[] ax = this.ax, bx = this.bx, cx = this.cx, dx = this.dx;
+            float[] ay = this.ay, by = this.by, cy = this.cy, dy = this.dy;
+            int size = this.size;
+
+            for (int i = 0; i < size; i++) {
+                outX[i] = ((ax[i] * t + bx[i]) * t + cx[i]) * t + dx[i];
+                outY[i] = ((ay[i] * t + by[i]) * t + cy[i]) * t + dy[i];
+            }
+        }
+
+        /**
+         * Вычисляет точки всех кривых, для каждой кривой со своим значением {@code t}.
+         *
+         * @param ts   значения от 0 до 1 для каждой кривой.
+         * @param outX массив для записи x-координат размером не меньше {@link #size()}.
+         * @param outY массив для записи y-координат размером не меньше {@link #size()}.
+         */
+        public void evaluate(float[] ts, float[] outX, float[] outY) {
+            float[] ax = this.ax, bx = this.bx, cx = this.cx, dx = this.dx;
+            float[] ay = this.ay, by = this.by, cy = this.cy, dy = this.dy;
+            int size = this.size;
+
+            for (int i = 0; i < size; i++) {
+                float t = ts[i];
+                outX[i] = ((ax[i] * t + bx[i]) * t + cx[i]) * t + dx[i];
+                outY[i] = ((ay[i] * t + by[i]) * t + cy[i]) * t + dy[i];
+            }
+        }
+
+    }
+
+    /**
+     * Упакованный набор квадратичных кривых на плоскости. Кривые хранятся в степенном базисе
+     * {@code P(t) = (a * t + b) * t + c}.
+     */
+    public static final class Quadratic2D {
+
+        /**
+         * Коэффициенты степенного базиса по осям.
+         */
+        private final float[] ax, bx, cx, ay, by, cy;
+        /**
+         * Количество кривых.
+         */
+        private final int size;
+
+        /**
+         * Стандартный конструктор.
+         *
+         * @param curves массив кривых.
+         */
+        public Quadratic2D(QuadraticBezierCurve.D2[] curves) {
+            if (curves == null) throw new NullPointerException("curves == null");
+
+            this.size = curves.length;
+            this.ax = new float[this.size];
+            this.bx = new float[this.size];
+            this.cx = new float[this.size];
+            this.ay = new float[this.size];
+            this.by = new float[this.size];
+            this.cy = new float[this.size];
+
+            for (int i = 0; i < this.size; i++) {
+                QuadraticBezierCurve.D2 curve = curves[i];
+                if (curve == null) throw new NullPointerException("curves[" + i + "] == null");
+
+                float x0 = curve.getStart().x, x1 = curve.getControl().x, x2 = curve.getEnd().x;
+                float y0 = curve.getStart().y, y1 = curve.getControl().y, y2 = curve.getEnd().y;
+
+                this.ax[i] = x0 - 2.0f * x1 + x2;
+                this.bx[i] = 2.0f * (x1 - x0);
+                this.cx[i] = x0;
+                this.ay[i] = y0 - 2.0f * y1 + y2;
+                this.by[i] = 2.0f * (y1 - y0);
+                this.cy[i] = y0;
+            }
+        }
+
+        /**
+         * Получает количество кривых.
+         *
+         * @return количество кривых.
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Вычисляет точки всех кривых при одном и том же значении {@code t}.
+         *
+         * @param t    значение от 0 до 1.
+         * @param outX массив для записи x-координат размером не меньше {@link #size()}.
+         * @param outY массив для записи y-координат размером не меньше {@link #size()}.
+         */
+        public void evaluate(float t, float[] outX, float[] outY) {
+            float[] ax = this.ax, bx = this.bx, cx = this.cx;
+            float[] ay = this.ay, by = this.by, cy = this.cy;
+            int size = this.size;
+
+            for (int i = 0; i < size; i++) {
+                outX[i] = (ax[i] * t + bx[i]) * t + cx[i];
+                outY[i] = (ay[i] * t + by[i]) * t + cy[i];
+            }
+        }
+
+        /**
+         * Вычисляет точки всех кривых, для каждой кривой со своим значением {@code t}.
+         *
+         * @param ts   значения от 0 до 1 для каждой кривой.
+         * @param outX массив для записи x-координат размером не меньше {@link #size()}.
+         * @param outY массив для записи y-координат размером не меньше {@link #size()}.
+         */
+        public void evaluate(float[] ts, float[] outX, float[] outY) {
+            float[] ax = this.ax, bx = this.bx, cx = this.cx;
+            float[] ay = this.ay, by = this.by, cy = this.cy;
+            int size = this.size;
+
+            for (int i = 0; i < size; i++) {
+                float t = ts[i];
+                outX[i] = (ax[i] * t + bx[i]) * t + cx[i];
+                outY[i] = (ay[i] * t + by[i]) * t + cy[i];
+            }
+        }
+
+    }
+
+}
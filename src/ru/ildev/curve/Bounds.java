@@ -0,0 +1,325 @@
+/*
+ *
+ */
+package ru.ildev.curve;
+
+/**
+ * Общий интерфейс ограничивающих прямоугольников и параллелепипедов со сторонами, параллельными осям координат.
+ * Объекты неизменяемы, поэтому их можно передавать между потоками без синхронизации.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+public interface Bounds {
+
+    /**
+     * Получает размерность пространства.
+     *
+     * @return размерность пространства.
+     */
+    int getDimension();
+
+    /**
+     * Ограничивающий прямоугольник на плоскости.
+     *
+     * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+     */
+    final class D2 implements Bounds {
+
+        /**
+         * Наименьшие координаты.
+         */
+        private final float minX, minY;
+        /**
+         * Наибольшие координаты.
+         */
+        private final float maxX, maxY;
+
+        /**
+         * Стандартный конструктор.
+         *
+         * @param minX наименьшая x-координата.
+         * @param minY наименьшая y-координата.
+         * @param maxX наибольшая x-координата.
+         * @param maxY наибольшая y-координата.
+         */
+        public D2(float minX, float minY, float maxX, float maxY) {
+            if (minX > maxX) throw new IllegalArgumentException("minX > maxX");
+            if (minY > maxY) throw new IllegalArgumentException("minY > maxY");
+
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        @Override
+        public int getDimension() {
+            return 2;
+        }
+
+        /**
+         * @return наименьшую x-координату.
+         */
+        public float getMinX() {
+            return this.minX;
+        }
+
+        /**
+         * @return наименьшую y-координату.
+         */
+        public float getMinY() {
+            return this.minY;
+        }
+
+        /**
+         * @return наибольшую x-координату.
+         */
+        public float getMaxX() {
+            return this.maxX;
+        }
+
+        /**
+         * @return наибольшую y-координату.
+         */
+        public float getMaxY() {
+            return this.maxY;
+        }
+
+        /**
+         * @return ширину прямоугольника.
+         */
+        public float getWidth() {
+            return this.maxX - this.minX;
+        }
+
+        /**
+         * @return высоту прямоугольника.
+         */
+        public float getHeight() {
+            return this.maxY - this.minY;
+        }
+
+        /**
+         * Проверяет, лежит ли точка внутри прямоугольника или на его границе.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @return {@code true}, если точка лежит в прямоугольнике.
+         */
+        public boolean contains(float x, float y) {
+            return x >= this.minX && x <= this.maxX && y >= this.minY && y <= this.maxY;
+        }
+
+        /**
+         * Проверяет, пересекается ли прямоугольник с заданным.
+         *
+         * @param minX наименьшая x-координата.
+         * @param minY наименьшая y-координата.
+         * @param maxX наибольшая x-координата.
+         * @param maxY наибольшая y-координата.
+         * @return {@code true}, если прямоугольники имеют общие точки.
+         */
+        public boolean intersects(float minX, float minY, float maxX, float maxY) {
+            return this.minX <= maxX && minX <= this.maxX && this.minY <= maxY && minY <= this.maxY;
+        }
+
+        /**
+         * Проверяет, пересекается ли прямоугольник с заданным.
+         *
+         * @param bounds прямоугольник.
+         * @return {@code true}, если прямоугольники имеют общие точки.
+         */
+        public boolean intersects(Bounds.D2 bounds) {
+            if (bounds == null) throw new NullPointerException("bounds == null");
+            return this.intersects(bounds.minX, bounds.minY, bounds.maxX, bounds.maxY);
+        }
+
+        /**
+         * Получает наименьший прямоугольник, содержащий этот и заданный прямоугольники.
+         *
+         * @param bounds прямоугольник.
+         * @return новый прямоугольник.
+         */
+        public Bounds.D2 union(Bounds.D2 bounds) {
+            if (bounds == null) throw new NullPointerException("bounds == null");
+            return new Bounds.D2(Math.min(this.minX, bounds.minX), Math.min(this.minY, bounds.minY),
+                    Math.max(this.maxX, bounds.maxX), Math.max(this.maxY, bounds.maxY));
+        }
+
+        @Override
+        public String toString() {
+            return "[" + this.minX + ", " + this.minY + " - " + this.maxX + ", " + this.maxY + "]";
+        }
+
+    }
+
+    /**
+     * Ограничивающий параллелепипед в пространстве.
+     *
+     * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+     */
+    final class D3 implements Bounds {
+
+        /**
+         * Наименьшие координаты.
+         */
+        private final float minX, minY, minZ;
+        /**
+         * Наибольшие координаты.
+         */
+        private final float maxX, maxY, maxZ;
+
+        /**
+         * Стандартный конструктор.
+         *
+         * @param minX наименьшая x-координата.
+         * @param minY наименьшая y-координата.
+         * @param minZ наименьшая z-координата.
+         * @param maxX наибольшая x-координата.
+         * @param maxY наибольшая y-координата.
+         * @param maxZ наибольшая z-координата.
+         */
+        public D3(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+            if (minX > maxX) throw new IllegalArgumentException("minX > maxX");
+            if (minY > maxY) throw new IllegalArgumentException("minY > maxY");
+            if (minZ > maxZ) throw new IllegalArgumentException("minZ > maxZ");
+
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+        }
+
+        @Override
+        public int getDimension() {
+            return 3;
+        }
+
+        /**
+         * @return наименьшую x-координату.
+         */
+        public float getMinX() {
+            return this.minX;
+        }
+
+        /**
+         * @return наименьшую y-координату.
+         */
+        public float getMinY() {
+            return this.minY;
+        }
+
+        /**
+         * @return наименьшую z-координату.
+         */
+        public float getMinZ() {
+            return this.minZ;
+        }
+
+        /**
+         * @return наибольшую x-координату.
+         */
+        public float getMaxX() {
+            return this.maxX;
+        }
+
+        /**
+         * @return наибольшую y-координату.
+         */
+        public float getMaxY() {
+            return this.maxY;
+        }
+
+        /**
+         * @return наибольшую z-координату.
+         */
+        public float getMaxZ() {
+            return this.maxZ;
+        }
+
+        /**
+         * @return размер по оси x.
+         */
+        public float getWidth() {
+            return this.maxX - this.minX;
+        }
+
+        /**
+         * @return размер по оси y.
+         */
+        public float getHeight() {
+            return this.maxY - this.minY;
+        }
+
+        /**
+         * @return размер по оси z.
+         */
+        public float getDepth() {
+            return this.maxZ - this.minZ;
+        }
+
+        /**
+         * Проверяет, лежит ли точка внутри параллелепипеда или на его границе.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @param z z-координата точки.
+         * @return {@code true}, если точка лежит в параллелепипеде.
+         */
+        public boolean contains(float x, float y, float z) {
+            return x >= this.minX && x <= this.maxX && y >= this.minY && y <= this.maxY
+                    && z >= this.minZ && z <= this.maxZ;
+        }
+
+        /**
+         * Проверяет, пересекается ли параллелепипед с заданным.
+         *
+         * @param minX наименьшая x-координата.
+         * @param minY наименьшая y-координата.
+         * @param minZ наименьшая z-координата.
+         * @param maxX наибольшая x-координата.
+         * @param maxY наибольшая y-координата.
+         * @param maxZ наибольшая z-координата.
+         * @return {@code true}, если параллелепипеды имеют общие точки.
+         */
+        public boolean intersects(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+            return this.minX <= maxX && minX <= this.maxX && this.minY <= maxY && minY <= this.maxY
+                    && this.minZ <= maxZ && minZ <= this.maxZ;
+        }
+
+        /**
+         * Проверяет, пересекается ли параллелепипед с заданным.
+         *
+         * @param bounds параллелепипед.
+         * @return {@code true}, если параллелепипеды имеют общие точки.
+         */
+        public boolean intersects(Bounds.D3 bounds) {
+            if (bounds == null) throw new NullPointerException("bounds == null");
+            return this.intersects(bounds.minX, bounds.minY, bounds.minZ, bounds.maxX, bounds.maxY, bounds.maxZ);
+        }
+
+        /**
+         * Получает наименьший параллелепипед, содержащий этот и заданный параллелепипеды.
+         *
+         * @param bounds параллелепипед.
+         * @return новый параллелепипед.
+         */
+        public Bounds.D3 union(Bounds.D3 bounds) {
+            if (bounds == null) throw new NullPointerException("bounds == null");
+            return new Bounds.D3(Math.min(this.minX, bounds.minX), Math.min(this.minY, bounds.minY),
+                    Math.min(this.minZ, bounds.minZ), Math.max(this.maxX, bounds.maxX),
+                    Math.max(this.maxY, bounds.maxY), Math.max(this.maxZ, bounds.maxZ));
+        }
+
+        @Override
+        public String toString() {
+            return "[" + this.minX + ", " + this.minY + ", " + this.minZ + " - "
+                    + this.maxX + ", " + this.maxY + ", " + this.maxZ + "]";
+        }
+
+    }
+
+}
@@ -0,0 +1,343 @@
+/*
+ *
+ */
+package ru.ildev.curve;
+
+/**
+ * Иерархия ограничивающих объемов над набором прямоугольников или параллелепипедов. Дерево строится сверху вниз
+ * делением по медиане центров вдоль самой длинной оси и хранится в плоских массивах: для каждого узла - его
+ * ограничивающий объем, индекс правого потомка (левый потомок всегда следует сразу за узлом) или, для листа, начало и
+ * количество элементов. После построения дерево не изменяется, поэтому его можно читать из нескольких потоков.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+final class BoundsTree {
+
+    /**
+     * Наибольшее количество элементов в листе.
+     */
+    private static final int LEAF_SIZE = 4;
+
+    /**
+     * Функция расстояния от точки запроса до элемента.
+     */
+    interface Metric {
+
+        /**
+         * Вычисляет квадрат расстояния до элемента.
+         *
+         * @param index индекс элемента.
+         * @return квадрат расстояния.
+         */
+        double distanceSquared(int index);
+
+    }
+
+    /**
+     * Размерность пространства.
+     */
+    private final int dimension;
+    /**
+     * Количество элементов.
+     */
+    private final int size;
+    /**
+     * Объемы элементов: для каждого элемента наименьшие координаты и следом наибольшие.
+     */
+    private final float[] boxes;
+    /**
+     * Индексы элементов в порядке листьев.
+     */
+    private final int[] items;
+    /**
+     * Объемы узлов в том же формате, что и объемы элементов.
+     */
+    private final float[] nodeBoxes;
+    /**
+     * Для внутреннего узла - индекс правого потомка, для листа - индекс первого элемента в {@link #items}.
+     */
+    private final int[] nodeStart;
+    /**
+     * Количество элементов листа; 0 для внутреннего узла.
+     */
+    private final int[] nodeCount;
+    /**
+     * Количество узлов.
+     */
+    private int nodes;
+    /**
+     * Глубина дерева.
+     */
+    private int depth;
+
+    /**
+     * Строит дерево.
+     *
+     * @param dimension размерность пространства, 2 или 3.
+     * @param boxes     объемы элементов: для каждого элемента {@code dimension} наименьших координат и следом
+     *                  {@code dimension} наибольших. Массив не копируется и не должен изменяться.
+     * @param size      количество элементов.
+     */
+    BoundsTree(int dimension, float[] boxes, int size) {
+        this.dimension = dimension;
+        this.size = size;
+        this.boxes = boxes;
+        this.items = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.items[i] = i;
+        }
+
+        int capacity = Math.max(1, 2 * size - 1);
+        this.nodeBoxes = new float[2 * dimension * capacity];
+        this.nodeStart = new int[capacity];
+        this.nodeCount = new int[capacity];
+        if (size > 0) this.build(0, size, 1);
+    }
+
+    /**
+     * Получает количество элементов дерева.
+     *
+     * @return количество элементов.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Проверяет, нужно ли перестроить дерево для набора из {@code size} элементов, первые из которых уже входят в
+     * дерево. Остальные элементы проверяются перебором, пока их не станет больше четверти элементов дерева, поэтому
+     * перестроение в среднем стоит O(log n) на добавленный элемент.
+     *
+     * @param size текущее количество элементов.
+     * @return {@code true}, если дерево нужно перестроить.
+     */
+    boolean isStale(int size) {
+        return size - this.size > Math.max(8, this.size / 4);
+    }
+
+    /**
+     * Находит элементы, объемы которых пересекаются с заданным.
+     *
+     * @param min   наименьшие координаты.
+     * @param max   наибольшие координаты.
+     * @param out   массив для записи индексов элементов.
+     * @param count количество индексов, уже записанных в {@code out}.
+     * @return общее количество найденных индексов вместе с {@code count}; в массив записываются только те, для
+     * которых хватило места.
+     */
+    int query(float[] min, float[] max, int[] out, int count) {
+        if (this.size == 0) return count;
+
+        int[] stack = new int[this.depth + 2];
+        int top = 0;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int node = stack[--top];
+            if (!this.overlaps(this.nodeBoxes, node, min, max)) continue;
+
+            int leafCount = this.nodeCount[node];
+            if (leafCount == 0) {
+                stack[top++] = this.nodeStart[node];
+                stack[top++] = node + 1;
+                continue;
+            }
+
+            int start = this.nodeStart[node];
+            for (int i = start; i < start + leafCount; i++) {
+                int item = this.items[i];
+                if (this.overlaps(this.boxes, item, min, max)) {
+                    if (count < out.length) out[count] = item;
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Находит ближайший к точке элемент. Узлы обходятся в порядке удаления их объемов от точки, и узлы, объем
+     * которых дальше найденного элемента, пропускаются.
+     *
+     * @param point  координаты точки.
+     * @param metric функция расстояния до элемента.
+     * @param limit  квадрат расстояния, ближе которого нужно искать элемент.
+     * @param result массив, в первый элемент которого записывается квадрат расстояния до найденного элемента.
+     * @return индекс элемента; -1, если нет элементов ближе {@code limit}.
+     */
+    int nearest(float[] point, Metric metric, double limit, double[] result) {
+        if (this.size == 0) return -1;
+
+        int best = -1;
+        double bestDistance = limit;
+
+        int[] stack = new int[this.depth + 2];
+        double[] distances = new double[this.depth + 2];
+        int top = 0;
+        stack[top] = 0;
+        distances[top++] = this.distanceSquared(this.nodeBoxes, 0, point);
+
+        while (top > 0) {
+            int node = stack[--top];
+            if (distances[top] >= bestDistance) continue;
+
+            int leafCount = this.nodeCount[node];
+            if (leafCount == 0) {
+                int left = node + 1;
+                int right = this.nodeStart[node];
+                double leftDistance = this.distanceSquared(this.nodeBoxes, left, point);
+                double rightDistance = this.distanceSquared(this.nodeBoxes, right, point);
+
+                // Ближний потомок кладется последним, чтобы обойти его первым.
+                if (leftDistance < rightDistance) {
+                    stack[top] = right;
+                    distances[top++] = rightDistance;
+                    stack[top] = left;
+                    distances[top++] = leftDistance;
+                } else {
+                    stack[top] = left;
+                    distances[top++] = leftDistance;
+                    stack[top] = right;
+                    distances[top++] = rightDistance;
+                }
+                continue;
+            }
+
+            int start = this.nodeStart[node];
+            for (int i = start; i < start + leafCount; i++) {
+                int item = this.items[i];
+                if (this.distanceSquared(this.boxes, item, point) >= bestDistance) continue;
+
+                double distance = metric.distanceSquared(item);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = item;
+                }
+            }
+        }
+
+        result[0] = bestDistance;
+        return best;
+    }
+
+    /**
+     * Строит поддерево для элементов {@code items[from, to)}.
+     *
+     * @return индекс корня поддерева.
+     */
+    private int build(int from, int to, int level) {
+        int dimension = this.dimension;
+        int node = this.nodes++;
+        this.depth = Math.max(this.depth, level);
+
+        int offset = 2 * dimension * node;
+        for (int k = 0; k < dimension; k++) {
+            this.nodeBoxes[offset + k] = Float.POSITIVE_INFINITY;
+            this.nodeBoxes[offset + dimension + k] = Float.NEGATIVE_INFINITY;
+        }
+        for (int i = from; i < to; i++) {
+            int item = 2 * dimension * this.items[i];
+            for (int k = 0; k < dimension; k++) {
+                this.nodeBoxes[offset + k] = Math.min(this.nodeBoxes[offset + k], this.boxes[item + k]);
+                this.nodeBoxes[offset + dimension + k] = Math.max(this.nodeBoxes[offset + dimension + k],
+                        this.boxes[item + dimension + k]);
+            }
+        }
+
+        if (to - from <= LEAF_SIZE) {
+            this.nodeStart[node] = from;
+            this.nodeCount[node] = to - from;
+            return node;
+        }
+
+        // Ось с наибольшим разбросом центров.
+        int axis = 0;
+        float spread = -1.0f;
+        for (int k = 0; k < dimension; k++) {
+            float low = Float.POSITIVE_INFINITY, high = Float.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                float center = this.center(this.items[i], k);
+                low = Math.min(low, center);
+                high = Math.max(high, center);
+            }
+            if (high - low > spread) {
+                spread = high - low;
+                axis = k;
+            }
+        }
+
+        int middle = (from + to) >>> 1;
+        this.select(from, to - 1, middle, axis);
+
+        this.build(from, middle, level + 1);
+        this.nodeStart[node] = this.build(middle, to, level + 1);
+        this.nodeCount[node] = 0;
+        return node;
+    }
+
+    /**
+     * Переставляет элементы так, что на месте {@code k} оказывается элемент с {@code k}-м по величине центром, слева
+     * от него - не большие, справа - не меньшие.
+     */
+    private void select(int low, int high, int k, int axis) {
+        int[] items = this.items;
+        while (low < high) {
+            float pivot = this.center(items[(low + high) >>> 1], axis);
+            int i = low, j = high;
+            while (i <= j) {
+                while (this.center(items[i], axis) < pivot) i++;
+                while (this.center(items[j], axis) > pivot) j--;
+                if (i <= j) {
+                    int swap = items[i];
+                    items[i] = items[j];
+                    items[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Получает удвоенную координату центра объема элемента. Для пустого объема возвращается 0.
+     */
+    private float center(int item, int axis) {
+        int offset = 2 * this.dimension * item;
+        float center = this.boxes[offset + axis] + this.boxes[offset + this.dimension + axis];
+        return center == center ? center : 0.0f;
+    }
+
+    private boolean overlaps(float[] boxes, int index, float[] min, float[] max) {
+        int dimension = this.dimension;
+        int offset = 2 * dimension * index;
+        for (int k = 0; k < dimension; k++) {
+            if (boxes[offset + k] > max[k] || boxes[offset + dimension + k] < min[k]) return false;
+        }
+        return true;
+    }
+
+    private double distanceSquared(float[] boxes, int index, float[] point) {
+        int dimension = this.dimension;
+        int offset = 2 * dimension * index;
+        double sum = 0.0;
+        for (int k = 0; k < dimension; k++) {
+            double low = boxes[offset + k];
+            double high = boxes[offset + dimension + k];
+            if (low > high) return Double.POSITIVE_INFINITY;
+
+            double delta = point[k] < low ? low - point[k] : point[k] > high ? point[k] - high : 0.0;
+            sum += delta * delta;
+        }
+        return sum;
+    }
+
+}
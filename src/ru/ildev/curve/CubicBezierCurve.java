@@ -2,6 +2,7 @@ package ru.ildev.curve;
 
 import ru.ildev.geom.Vector2;
 import ru.ildev.geom.Vector3;
+import ru.ildev.math.MoreMath;
 
 /**
  * Класс кубической кривой Безье. Она строится по четырем точкам. Первая и четвертая - начало и конец соответственно,
@@ -33,6 +34,11 @@ public interface CubicBezierCurve extends Curve {
          * Точка конца кривой.
          */
         private float end;
+        /**
+         * Коэффициенты степенного базиса {@code P(t) = ((a * t + b) * t + c) * t + start}.
+         * Вычисляются в конструкторе, поэтому точки, возвращаемые методами доступа, не должны изменяться.
+         */
+        private final float a, b, c;
 
         /**
          * Стандартный конструктор.
@@ -47,6 +53,10 @@ public interface CubicBezierCurve extends Curve {
             this.control1 = control1;
             this.control2 = control2;
             this.end = end;
+
+            this.a = -start + 3.0f * control1 - 3.0f * control2 + end;
+            this.b = 3.0f * start - 6.0f * control1 + 3.0f * control2;
+            this.c = 3.0f * (control1 - start);
         }
 
         /**
@@ -87,12 +97,129 @@ public interface CubicBezierCurve extends Curve {
 
         @Override
         public float getPointAt(float t) {
-            return this.b3(t, this.start, this.control1, this.control2, this.end);
+            return ((this.a * t + this.b) * t + this.c) * t + this.start;
+        }
+
+        /**
+         * Получает производную кривой.
+         *
+         * @param t значение от 0 до 1.
+         * @return значение производной.
+         */
+        public float getDerivativeAt(float t) {
+            return (3.0f * this.a * t + 2.0f * this.b) * t + this.c;
+        }
+
+        /**
+         * Получает вторую производную кривой.
+         *
+         * @param t значение от 0 до 1.
+         * @return значение второй производной.
+         */
+        public float getSecondDerivativeAt(float t) {
+            return 6.0f * this.a * t + 2.0f * this.b;
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] out, int outOffset) {
+            float a = this.a, b = this.b, c = this.c, d = this.start;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                out[outOffset + i] = ((a * t + b) * t + c) * t + d;
+            }
+        }
+
+        /**
+         * Разбивает кривую методом прямых разностей: после подготовки начальных разностей каждая следующая точка
+         * получается за три сложения на координату. Разности накапливаются в {@code double}, а последняя точка
+         * берется точно равной концу кривой, чтобы ошибка накопления не смещала ее.
+         *
+         * @param divisions количество отрезков, на которые делится кривая.
+         * @param out       массив для записи точек.
+         * @param outOffset индекс в {@code out}, с которого записываются точки.
+         * @return количество записанных точек, равное {@code divisions + 1}.
+         */
+        @Override
+        public int getPoints(int divisions, float[] out, int outOffset) {
+            if (divisions <= 0) return 0;
+
+            double h = 1.0 / divisions;
+            double h2 = h * h;
+            double h3 = h2 * h;
+
+            double a = this.a;
+            double b = this.b;
+            double c = this.c;
+            double f = this.start;
+            double df = (a * h + b) * h2 + c * h;
+            double d2f = 6.0 * a * h3 + 2.0 * b * h2;
+            double d3f = 6.0 * a * h3;
+
+            for (int d = 0; d < divisions; d++) {
+                out[outOffset + d] = (float) f;
+
+                f += df;
+                df += d2f;
+                d2f += d3f;
+            }
+
+            out[outOffset + divisions] = this.end;
+            return divisions + 1;
+        }
+
+        /**
+         * Получает длину части кривой между двумя значениями параметра.
+         *
+         * @param t0 начальное значение от 0 до 1.
+         * @param t1 конечное значение от {@code t0} до 1.
+         * @return длину части кривой.
+         */
+        public float getLength(float t0, float t1) {
+            return this.getLength(t0, t1, GaussLegendre.DEFAULT_ORDER);
+        }
+
+        /**
+         * Получает длину части кривой между двумя значениями параметра квадратурой Гаусса-Лежандра заданного
+         * порядка. Формула порядка {@code n} вычисляет производную кривой в {@code n} точках.
+         *
+         * @param t0    начальное значение от 0 до 1.
+         * @param t1    конечное значение от {@code t0} до 1.
+         * @param order порядок формулы от 1 до 64.
+         * @return длину части кривой.
+         */
+        public float getLength(float t0, float t1, int order) {
+            float[] abscissas = GaussLegendre.abscissas(order);
+            float[] weights = GaussLegendre.weights(order);
+            float half = 0.5f * (t1 - t0);
+            float middle = 0.5f * (t0 + t1);
+
+            float sum = 0.0f;
+            for (int i = 0; i < order; i++) {
+                sum += weights[i] * this.speed(middle + half * abscissas[i]);
+            }
+            return sum * half;
+        }
+
+        /**
+         * Строит таблицу длин по модулю производной в узлах таблицы, см. {@link ArcLength#accumulate(float[])}.
+         * Производная вычисляется {@code divisions + 1} раз. Длина кривой {@link #getLength()} равна последнему
+         * значению таблицы, поэтому длина и таблица согласованы.
+         *
+         * @param divisions количество отрезков.
+         * @return массив накопленных длин размером {@code divisions + 1}.
+         */
+        @Override
+        protected float[] computeLengths(int divisions) {
+            float[] speeds = new float[divisions + 1];
+            for (int p = 0; p <= divisions; p++) {
+                speeds[p] = this.speed((float) p / divisions);
+            }
+            return ArcLength.accumulate(speeds);
         }
 
-        private float b3(float t, float p0, float p1, float p2, float p3) {
-            return p0 * (1 - t) * (1 - t) * (1 - t) + 3 * p1 * (1 - t) * (1 - t) * t + 3 * p2 * (1 - t) * t * t +
-                    p3 * t * t * t;
+        private float speed(float t) {
+            return Math.abs((3.0f * this.a * t + 2.0f * this.b) * t + this.c);
         }
 
     }
@@ -118,6 +245,11 @@ public interface CubicBezierCurve extends Curve {
          * Точка конца кривой.
          */
         private Vector2 end = new Vector2();
+        /**
+         * Коэффициенты степенного базиса {@code P(t) = ((a * t + b) * t + c) * t + start}.
+         * Вычисляются в конструкторе, поэтому точки, возвращаемые методами доступа, не должны изменяться.
+         */
+        private final float ax, bx, cx, ay, by, cy;
 
         /**
          * Стандартный конструктор.
@@ -137,6 +269,13 @@ public interface CubicBezierCurve extends Curve {
             this.control1.copy(control1);
             this.control2.copy(control2);
             this.end.copy(end);
+
+            this.ax = -start.x + 3.0f * control1.x - 3.0f * control2.x + end.x;
+            this.bx = 3.0f * start.x - 6.0f * control1.x + 3.0f * control2.x;
+            this.cx = 3.0f * (control1.x - start.x);
+            this.ay = -start.y + 3.0f * control1.y - 3.0f * control2.y + end.y;
+            this.by = 3.0f * start.y - 6.0f * control1.y + 3.0f * control2.y;
+            this.cy = 3.0f * (control1.y - start.y);
         }
 
         /**
@@ -176,30 +315,216 @@ public interface CubicBezierCurve extends Curve {
         }
 
         @Override
-        public Vector2 getPointAt(float t) {
-            float tx = this.b3(t, this.start.x, this.control1.x, this.control2.x, this.end.x);
-            float ty = this.b3(t, this.start.y, this.control1.y, this.control2.y, this.end.y);
-            return new Vector2(tx, ty);
+        public Vector2 getPointAt(float t, Vector2 out) {
+            out.x = ((this.ax * t + this.bx) * t + this.cx) * t + this.start.x;
+            out.y = ((this.ay * t + this.by) * t + this.cy) * t + this.start.y;
+            return out;
+        }
+
+        @Override
+        public Vector2 getTangentAt(float t, Vector2 out) {
+            this.getDerivativeAt(t, out);
+            out.normalize();
+            return out;
+        }
+
+        /**
+         * Получает производную кривой.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector2 getDerivativeAt(float t, Vector2 out) {
+            out.x = (3.0f * this.ax * t + 2.0f * this.bx) * t + this.cx;
+            out.y = (3.0f * this.ay * t + 2.0f * this.by) * t + this.cy;
+            return out;
+        }
+
+        /**
+         * Получает вторую производную кривой.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector2 getSecondDerivativeAt(float t, Vector2 out) {
+            out.x = 6.0f * this.ax * t + 2.0f * this.bx;
+            out.y = 6.0f * this.ay * t + 2.0f * this.by;
+            return out;
+        }
+
+        /**
+         * Уточняет ближайшую точку методом Ньютона для уравнения {@code (P(t) - Q) * P'(t) = 0} по производным в
+         * степенном базисе. Если вторая производная квадрата расстояния не положительна, используется метод золотого
+         * сечения.
+         */
+        @Override
+        protected float refineClosestT(float x, float y, float t, float min, float max) {
+            for (int i = 0; i < CLOSEST_ITERATIONS; i++) {
+                float px = ((this.ax * t + this.bx) * t + this.cx) * t + this.start.x - x;
+                float py = ((this.ay * t + this.by) * t + this.cy) * t + this.start.y - y;
+                float dx = (3.0f * this.ax * t + 2.0f * this.bx) * t + this.cx;
+                float dy = (3.0f * this.ay * t + 2.0f * this.by) * t + this.cy;
+                float ddx = 6.0f * this.ax * t + 2.0f * this.bx;
+                float ddy = 6.0f * this.ay * t + 2.0f * this.by;
+
+                float numerator = px * dx + py * dy;
+                float denominator = dx * dx + dy * dy + px * ddx + py * ddy;
+                if (denominator <= 0.0f) return super.refineClosestT(x, y, t, min, max);
+
+                float next = MoreMath.clamp(t - numerator / denominator, min, max);
+                if (Math.abs(next - t) < 1.0e-7f) return next;
+                t = next;
+            }
+            return t;
         }
 
         @Override
-        public Vector2 getTangentAt(float t) {
-            float tx = this.tangent(t, this.start.x, this.control1.x, this.control2.x, this.end.x);
-            float ty = this.tangent(t, this.start.y, this.control1.y, this.control2.y, this.end.y);
+        public void evaluate(float[] ts, int offset, int count, float[] outXY, int outOffset) {
+            float ax = this.ax, bx = this.bx, cx = this.cx, dx = this.start.x;
+            float ay = this.ay, by = this.by, cy = this.cy, dy = this.start.y;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                int j = outOffset + 2 * i;
+                outXY[j] = ((ax * t + bx) * t + cx) * t + dx;
+                outXY[j + 1] = ((ay * t + by) * t + cy) * t + dy;
+            }
+        }
 
-            Vector2 tangent = new Vector2(tx, ty);
-            tangent.normalize();
-            return tangent;
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outX, float[] outY, int outOffset) {
+            float ax = this.ax, bx = this.bx, cx = this.cx, dx = this.start.x;
+            float ay = this.ay, by = this.by, cy = this.cy, dy = this.start.y;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                outX[outOffset + i] = ((ax * t + bx) * t + cx) * t + dx;
+                outY[outOffset + i] = ((ay * t + by) * t + cy) * t + dy;
+            }
         }
 
-        private float b3(float t, float p0, float p1, float p2, float p3) {
-            return p0 * (1 - t) * (1 - t) * (1 - t) + 3 * p1 * (1 - t) * (1 - t) * t + 3 * p2 * (1 - t) * t * t +
-                    p3 * t * t * t;
+        /**
+         * Количество отрезков вычисляется по формуле Ванга. Вторая производная кубической кривой линейна, поэтому ее
+         * наибольший модуль достигается на одном из концов и равен {@code 6 * max|P[i] - 2 * P[i + 1] + P[i + 2]|}.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return количество отрезков, не меньше 1.
+         */
+        @Override
+        public int getDivisions(float tolerance) {
+            float x0 = 2.0f * this.bx;
+            float y0 = 2.0f * this.by;
+            float x1 = 6.0f * this.ax + x0;
+            float y1 = 6.0f * this.ay + y0;
+            float max = (float) Math.sqrt(Math.max(x0 * x0 + y0 * y0, x1 * x1 + y1 * y1));
+            return divisions(max, tolerance);
         }
 
-        private float tangent(float t, float p0, float p1, float p2, float p3) {
-            return -3 * p0 * (1 - t) * (1 - t) + 3 * p1 * (1 - t) * (1 - t) - 6 * p1 * t * (1 - t) + 6 * p2 * t * (1 - t) -
-                    3 * p2 * t * t + 3 * p3 * t * t;
+        /**
+         * Точный ограничивающий прямоугольник: по каждой оси берутся концы кривой и точки, в которых производная
+         * обращается в ноль.
+         *
+         * @return ограничивающий прямоугольник.
+         */
+        @Override
+        protected Bounds.D2 computeBounds() {
+            float[] range = new float[4];
+            Roots.range(this.ax, this.bx, this.cx, this.start.x, range, 0);
+            Roots.range(this.ay, this.by, this.cy, this.start.y, range, 2);
+            return new Bounds.D2(range[0], range[2], range[1], range[3]);
+        }
+
+        @Override
+        public int getPoints(int divisions, float[] outXY, int outOffset) {
+            if (divisions <= 0) return 0;
+
+            double h = 1.0 / divisions;
+            double h2 = h * h;
+            double h3 = h2 * h;
+
+            double aX = this.ax;
+            double bX = this.bx;
+            double cX = this.cx;
+            double fX = this.start.x;
+            double dfX = (aX * h + bX) * h2 + cX * h;
+            double d2fX = 6.0 * aX * h3 + 2.0 * bX * h2;
+            double d3fX = 6.0 * aX * h3;
+
+            double aY = this.ay;
+            double bY = this.by;
+            double cY = this.cy;
+            double fY = this.start.y;
+            double dfY = (aY * h + bY) * h2 + cY * h;
+            double d2fY = 6.0 * aY * h3 + 2.0 * bY * h2;
+            double d3fY = 6.0 * aY * h3;
+
+            for (int d = 0; d < divisions; d++) {
+                int j = outOffset + 2 * d;
+                outXY[j] = (float) fX;
+                outXY[j + 1] = (float) fY;
+
+                fX += dfX;
+                dfX += d2fX;
+                d2fX += d3fX;
+                fY += dfY;
+                dfY += d2fY;
+                d2fY += d3fY;
+            }
+
+            int last = outOffset + 2 * divisions;
+            outXY[last] = this.end.x;
+            outXY[last + 1] = this.end.y;
+            return divisions + 1;
+        }
+
+        /**
+         * Получает длину части кривой между двумя значениями параметра.
+         *
+         * @param t0 начальное значение от 0 до 1.
+         * @param t1 конечное значение от {@code t0} до 1.
+         * @return длину части кривой.
+         */
+        public float getLength(float t0, float t1) {
+            return this.getLength(t0, t1, GaussLegendre.DEFAULT_ORDER);
+        }
+
+        /**
+         * Получает длину части кривой между двумя значениями параметра квадратурой Гаусса-Лежандра заданного
+         * порядка. Формула порядка {@code n} вычисляет производную кривой в {@code n} точках.
+         *
+         * @param t0    начальное значение от 0 до 1.
+         * @param t1    конечное значение от {@code t0} до 1.
+         * @param order порядок формулы от 1 до 64.
+         * @return длину части кривой.
+         */
+        public float getLength(float t0, float t1, int order) {
+            float[] abscissas = GaussLegendre.abscissas(order);
+            float[] weights = GaussLegendre.weights(order);
+            float half = 0.5f * (t1 - t0);
+            float middle = 0.5f * (t0 + t1);
+
+            float sum = 0.0f;
+            for (int i = 0; i < order; i++) {
+                sum += weights[i] * this.speed(middle + half * abscissas[i]);
+            }
+            return sum * half;
+        }
+
+        @Override
+        protected float[] computeLengths(int divisions) {
+            float[] speeds = new float[divisions + 1];
+            for (int p = 0; p <= divisions; p++) {
+                speeds[p] = this.speed((float) p / divisions);
+            }
+            return ArcLength.accumulate(speeds);
+        }
+
+        private float speed(float t) {
+            float dx = (3.0f * this.ax * t + 2.0f * this.bx) * t + this.cx;
+            float dy = (3.0f * this.ay * t + 2.0f * this.by) * t + this.cy;
+            return (float) Math.sqrt(dx * dx + dy * dy);
         }
 
     }
@@ -225,6 +550,11 @@ public interface CubicBezierCurve extends Curve {
          * Точка конца кривой.
          */
         private Vector3 end = new Vector3();
+        /**
+         * Коэффициенты степенного базиса {@code P(t) = ((a * t + b) * t + c) * t + start}.
+         * Вычисляются в конструкторе, поэтому точки, возвращаемые методами доступа, не должны изменяться.
+         */
+        private final float ax, bx, cx, ay, by, cy, az, bz, cz;
 
         /**
          * Стандартный конструктор.
@@ -244,6 +574,16 @@ public interface CubicBezierCurve extends Curve {
             this.control1.copy(control1);
             this.control2.copy(control2);
             this.end.copy(end);
+
+            this.ax = -start.x + 3.0f * control1.x - 3.0f * control2.x + end.x;
+            this.bx = 3.0f * start.x - 6.0f * control1.x + 3.0f * control2.x;
+            this.cx = 3.0f * (control1.x - start.x);
+            this.ay = -start.y + 3.0f * control1.y - 3.0f * control2.y + end.y;
+            this.by = 3.0f * start.y - 6.0f * control1.y + 3.0f * control2.y;
+            this.cy = 3.0f * (control1.y - start.y);
+            this.az = -start.z + 3.0f * control1.z - 3.0f * control2.z + end.z;
+            this.bz = 3.0f * start.z - 6.0f * control1.z + 3.0f * control2.z;
+            this.cz = 3.0f * (control1.z - start.z);
         }
 
         /**
@@ -283,16 +623,244 @@ public interface CubicBezierCurve extends Curve {
         }
 
         @Override
-        public Vector3 getPointAt(float t) {
-            float tx = this.b3(t, this.start.x, this.control1.x, this.control2.x, this.end.x);
-            float ty = this.b3(t, this.start.y, this.control1.y, this.control2.y, this.end.y);
-            float tz = this.b3(t, this.start.z, this.control1.z, this.control2.z, this.end.z);
-            return new Vector3(tx, ty, tz);
+        public Vector3 getPointAt(float t, Vector3 out) {
+            out.x = ((this.ax * t + this.bx) * t + this.cx) * t + this.start.x;
+            out.y = ((this.ay * t + this.by) * t + this.cy) * t + this.start.y;
+            out.z = ((this.az * t + this.bz) * t + this.cz) * t + this.start.z;
+            return out;
+        }
+
+        @Override
+        public Vector3 getTangentAt(float t, Vector3 out) {
+            this.getDerivativeAt(t, out);
+            normalize(out);
+            return out;
+        }
+
+        /**
+         * Получает производную кривой.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector3 getDerivativeAt(float t, Vector3 out) {
+            out.x = (3.0f * this.ax * t + 2.0f * this.bx) * t + this.cx;
+            out.y = (3.0f * this.ay * t + 2.0f * this.by) * t + this.cy;
+            out.z = (3.0f * this.az * t + 2.0f * this.bz) * t + this.cz;
+            return out;
+        }
+
+        /**
+         * Получает вторую производную кривой.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector3 getSecondDerivativeAt(float t, Vector3 out) {
+            out.x = 6.0f * this.ax * t + 2.0f * this.bx;
+            out.y = 6.0f * this.ay * t + 2.0f * this.by;
+            out.z = 6.0f * this.az * t + 2.0f * this.bz;
+            return out;
+        }
+
+        /**
+         * Уточняет ближайшую точку методом Ньютона для уравнения {@code (P(t) - Q) * P'(t) = 0} по производным в
+         * степенном базисе. Если вторая производная квадрата расстояния не положительна, используется метод золотого
+         * сечения.
+         */
+        @Override
+        protected float refineClosestT(float x, float y, float z, float t, float min, float max) {
+            for (int i = 0; i < CLOSEST_ITERATIONS; i++) {
+                float px = ((this.ax * t + this.bx) * t + this.cx) * t + this.start.x - x;
+                float py = ((this.ay * t + this.by) * t + this.cy) * t + this.start.y - y;
+                float pz = ((this.az * t + this.bz) * t + this.cz) * t + this.start.z - z;
+                float dx = (3.0f * this.ax * t + 2.0f * this.bx) * t + this.cx;
+                float dy = (3.0f * this.ay * t + 2.0f * this.by) * t + this.cy;
+                float dz = (3.0f * this.az * t + 2.0f * this.bz) * t + this.cz;
+                float ddx = 6.0f * this.ax * t + 2.0f * this.bx;
+                float ddy = 6.0f * this.ay * t + 2.0f * this.by;
+                float ddz = 6.0f * this.az * t + 2.0f * this.bz;
+
+                float numerator = px * dx + py * dy + pz * dz;
+                float denominator = dx * dx + dy * dy + dz * dz + px * ddx + py * ddy + pz * ddz;
+                if (denominator <= 0.0f) return super.refineClosestT(x, y, z, t, min, max);
+
+                float next = MoreMath.clamp(t - numerator / denominator, min, max);
+                if (Math.abs(next - t) < 1.0e-7f) return next;
+                t = next;
+            }
+            return t;
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outXYZ, int outOffset) {
+            float ax = this.ax, bx = this.bx, cx = this.cx, dx = this.start.x;
+            float ay = this.ay, by = this.by, cy = this.cy, dy = this.start.y;
+            float az = this.az, bz = this.bz, cz = this.cz, dz = this.start.z;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                int j = outOffset + 3 * i;
+                outXYZ[j] = ((ax * t + bx) * t + cx) * t + dx;
+                outXYZ[j + 1] = ((ay * t + by) * t + cy) * t + dy;
+                outXYZ[j + 2] = ((az * t + bz) * t + cz) * t + dz;
+            }
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outX, float[] outY, float[] outZ,
+                             int outOffset) {
+            float ax = this.ax, bx = this.bx, cx = this.cx, dx = this.start.x;
+            float ay = this.ay, by = this.by, cy = this.cy, dy = this.start.y;
+            float az = this.az, bz = this.bz, cz = this.cz, dz = this.start.z;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                outX[outOffset + i] = ((ax * t + bx) * t + cx) * t + dx;
+                outY[outOffset + i] = ((ay * t + by) * t + cy) * t + dy;
+                outZ[outOffset + i] = ((az * t + bz) * t + cz) * t + dz;
+            }
+        }
+
+        /**
+         * Количество отрезков вычисляется по формуле Ванга. Вторая производная кубической кривой линейна, поэтому ее
+         * наибольший модуль достигается на одном из концов и равен {@code 6 * max|P[i] - 2 * P[i + 1] + P[i + 2]|}.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return количество отрезков, не меньше 1.
+         */
+        @Override
+        public int getDivisions(float tolerance) {
+            float x0 = 2.0f * this.bx;
+            float y0 = 2.0f * this.by;
+            float z0 = 2.0f * this.bz;
+            float x1 = 6.0f * this.ax + x0;
+            float y1 = 6.0f * this.ay + y0;
+            float z1 = 6.0f * this.az + z0;
+            float max = (float) Math.sqrt(Math.max(x0 * x0 + y0 * y0 + z0 * z0, x1 * x1 + y1 * y1 + z1 * z1));
+            return divisions(max, tolerance);
+        }
+
+        /**
+         * Точный ограничивающий параллелепипед: по каждой оси берутся концы кривой и точки, в которых производная
+         * обращается в ноль.
+         *
+         * @return ограничивающий параллелепипед.
+         */
+        @Override
+        protected Bounds.D3 computeBounds() {
+            float[] range = new float[6];
+            Roots.range(this.ax, this.bx, this.cx, this.start.x, range, 0);
+            Roots.range(this.ay, this.by, this.cy, this.start.y, range, 2);
+            Roots.range(this.az, this.bz, this.cz, this.start.z, range, 4);
+            return new Bounds.D3(range[0], range[2], range[4], range[1], range[3], range[5]);
+        }
+
+        @Override
+        public int getPoints(int divisions, float[] outXYZ, int outOffset) {
+            if (divisions <= 0) return 0;
+
+            double h = 1.0 / divisions;
+            double h2 = h * h;
+            double h3 = h2 * h;
+
+            double aX = this.ax;
+            double bX = this.bx;
+            double cX = this.cx;
+            double fX = this.start.x;
+            double dfX = (aX * h + bX) * h2 + cX * h;
+            double d2fX = 6.0 * aX * h3 + 2.0 * bX * h2;
+            double d3fX = 6.0 * aX * h3;
+
+            double aY = this.ay;
+            double bY = this.by;
+            double cY = this.cy;
+            double fY = this.start.y;
+            double dfY = (aY * h + bY) * h2 + cY * h;
+            double d2fY = 6.0 * aY * h3 + 2.0 * bY * h2;
+            double d3fY = 6.0 * aY * h3;
+
+            double aZ = this.az;
+            double bZ = this.bz;
+            double cZ = this.cz;
+            double fZ = this.start.z;
+            double dfZ = (aZ * h + bZ) * h2 + cZ * h;
+            double d2fZ = 6.0 * aZ * h3 + 2.0 * bZ * h2;
+            double d3fZ = 6.0 * aZ * h3;
+
+            for (int d = 0; d < divisions; d++) {
+                int j = outOffset + 3 * d;
+                outXYZ[j] = (float) fX;
+                outXYZ[j + 1] = (float) fY;
+                outXYZ[j + 2] = (float) fZ;
+
+                fX += dfX;
+                dfX += d2fX;
+                d2fX += d3fX;
+                fY += dfY;
+                dfY += d2fY;
+                d2fY += d3fY;
+                fZ += dfZ;
+                dfZ += d2fZ;
+                d2fZ += d3fZ;
+            }
+
+            int last = outOffset + 3 * divisions;
+            outXYZ[last] = this.end.x;
+            outXYZ[last + 1] = this.end.y;
+            outXYZ[last + 2] = this.end.z;
+            return divisions + 1;
+        }
+
+        /**
+         * Получает длину части кривой между двумя значениями параметра.
+         *
+         * @param t0 начальное значение от 0 до 1.
+         * @param t1 конечное значение от {@code t0} до 1.
+         * @return длину части кривой.
+         */
+        public float getLength(float t0, float t1) {
+            return this.getLength(t0, t1, GaussLegendre.DEFAULT_ORDER);
+        }
+
+        /**
+         * Получает длину части кривой между двумя значениями параметра квадратурой Гаусса-Лежандра заданного
+         * порядка. Формула порядка {@code n} вычисляет производную кривой в {@code n} точках.
+         *
+         * @param t0    начальное значение от 0 до 1.
+         * @param t1    конечное значение от {@code t0} до 1.
+         * @param order порядок формулы от 1 до 64.
+         * @return длину части кривой.
+         */
+        public float getLength(float t0, float t1, int order) {
+            float[] abscissas = GaussLegendre.abscissas(order);
+            float[] weights = GaussLegendre.weights(order);
+            float half = 0.5f * (t1 - t0);
+            float middle = 0.5f * (t0 + t1);
+
+            float sum = 0.0f;
+            for (int i = 0; i < order; i++) {
+                sum += weights[i] * this.speed(middle + half * abscissas[i]);
+            }
+            return sum * half;
+        }
+
+        @Override
+        protected float[] computeLengths(int divisions) {
+            float[] speeds = new float[divisions + 1];
+            for (int p = 0; p <= divisions; p++) {
+                speeds[p] = this.speed((float) p / divisions);
+            }
+            return ArcLength.accumulate(speeds);
         }
 
-        private float b3(float t, float p0, float p1, float p2, float p3) {
-            return p0 * (1 - t) * (1 - t) * (1 - t) + 3 * p1 * (1 - t) * (1 - t) * t + 3 * p2 * (1 - t) * t * t +
-                    p3 * t * t * t;
+        private float speed(float t) {
+            float dx = (3.0f * this.ax * t + 2.0f * this.bx) * t + this.cx;
+            float dy = (3.0f * this.ay * t + 2.0f * this.by) * t + this.cy;
+            float dz = (3.0f * this.az * t + 2.0f * this.bz) * t + this.cz;
+            return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
         }
 
     }
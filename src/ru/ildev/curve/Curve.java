@@ -9,6 +9,12 @@ import ru.ildev.math.MoreMath;
 
 /**
  * Общий интерфейс для всех кривых.
+ * <p>
+ * Потокобезопасность. Кривые, которые не изменяются после построения, можно использовать из нескольких потоков
+ * одновременно. Производные данные (массивы длин, коэффициенты, ограничивающие прямоугольники) вычисляются при первом
+ * обращении под блокировкой самой кривой и публикуются через {@code volatile}-поля: повторные чтения не
+ * блокируются, а одни и те же данные не вычисляются дважды. Методы, изменяющие кривую (например, добавление точек
+ * или кривых), потокобезопасными не являются и не должны выполняться одновременно с чтением.
  *
  * @author Shafigin Ilyas (Шафигин Ильяс) <Ilyas74>
  * @version 0.2.2
@@ -30,9 +36,9 @@ public interface Curve {
     abstract class D1 implements Curve {
 
         /**
-         * Кеш массива длин кривой.
+         * Кеш массива длин кривой. Публикуется через {@code volatile}, см. {@link Curve}.
          */
-        protected float[] length = null;
+        protected volatile float[] length = null;
 
         /**
          * Стандартный конструктор.
@@ -53,20 +59,60 @@ public interface Curve {
          */
         public abstract float getPointAt(float t);
 
+        /**
+         * Вычисляет точки кривой для массива значений {@code t}.
+         *
+         * @param ts  массив значений от 0 до 1.
+         * @param out массив для записи точек размером не меньше {@code ts.length}.
+         */
+        public void evaluate(float[] ts, float[] out) {
+            this.evaluate(ts, 0, ts.length, out, 0);
+        }
+
+        /**
+         * Вычисляет точки кривой для части массива значений {@code t}.
+         *
+         * @param ts        массив значений от 0 до 1.
+         * @param offset    индекс первого значения в {@code ts}.
+         * @param count     количество значений.
+         * @param out       массив для записи точек.
+         * @param outOffset индекс в {@code out}, с которого записываются точки.
+         */
+        public void evaluate(float[] ts, int offset, int count, float[] out, int outOffset) {
+            for (int i = 0; i < count; i++) {
+                out[outOffset + i] = this.getPointAt(ts[offset + i]);
+            }
+        }
+
         /**
          * Получает массив точек.
          *
-         * @param divisions количество точек.
-         * @return массив точек.
+         * @param divisions количество отрезков, на которые делится кривая.
+         * @return массив из {@code divisions + 1} точек.
          */
         public float[] getPoints(int divisions) {
-            if (divisions == 0) return new float[0];
+            if (divisions <= 0) return new float[0];
+
+            float[] points = new float[divisions + 1];
+            this.getPoints(divisions, points, 0);
+            return points;
+        }
+
+        /**
+         * Записывает точки кривой, равномерно распределенные по параметру {@code t}, в массив.
+         *
+         * @param divisions количество отрезков, на которые делится кривая.
+         * @param out       массив для записи точек.
+         * @param outOffset индекс в {@code out}, с которого записываются точки.
+         * @return количество записанных точек, равное {@code divisions + 1}.
+         */
+        public int getPoints(int divisions, float[] out, int outOffset) {
+            if (divisions <= 0) return 0;
 
-            float[] points = new float[divisions];
             for (int d = 0; d <= divisions; d++) {
-                points[d] = this.getPointAt((float) d / divisions);
+                out[outOffset + d] = this.getPointAt((float) d / divisions);
             }
-            return points;
+            return divisions + 1;
         }
 
         /**
@@ -82,14 +128,14 @@ public interface Curve {
         /**
          * Получает массив длин кривой со стандартным количеством точек равным 200.
          *
-         * @return массив длин кривой размером 200.
+         * @return массив длин кривой размером 201.
          */
         public float[] getLengths() {
             return this.getLengths(200);
         }
 
         /**
-         * Получает массив длин кривой.
+         * Получает массив длин кривой. Массив кешируется, поэтому его нельзя изменять.
          *
          * @param divisions количество точек.
          * @return массив длин кривой.
@@ -97,25 +143,63 @@ public interface Curve {
         public float[] getLengths(int divisions) {
             if (divisions == 0) return new float[0];
 
-            if (this.length != null && this.length.length == divisions + 1) {
-                return this.length;
+            float[] cache = this.length;
+            if (cache != null && cache.length == divisions + 1) return cache;
+
+            synchronized (this) {
+                cache = this.length;
+                if (cache == null || cache.length != divisions + 1) {
+                    cache = this.computeLengths(divisions);
+                    this.length = cache;
+                }
             }
+            return cache;
+        }
 
-            float[] cache = new float[divisions];
+        /**
+         * Вычисляет массив накопленных длин кривой. Вызывается методом {@link #getLengths(int)} при отсутствии
+         * подходящего массива в кеше. По умолчанию длина считается по ломаной, вписанной в кривую.
+         *
+         * @param divisions количество отрезков, больше 0.
+         * @return массив накопленных длин размером {@code divisions + 1}.
+         */
+        protected float[] computeLengths(int divisions) {
+            float[] cache = new float[divisions + 1];
             float current;
             float last = this.getPointAt(0);
             float length = 0.0f;
 
-            for (int p = 1; p < divisions; p++) {
-                current = this.getPointAt(p / divisions);
+            for (int p = 1; p <= divisions; p++) {
+                current = this.getPointAt((float) p / divisions);
                 length += MoreMath.abs(current - last);
                 cache[p] = length;
                 last = current;
             }
 
-            this.length = cache;
             return cache;
         }
+
+        /**
+         * Переводит долю длины кривой в значение параметра {@code t}. Используется бинарный поиск по массиву длин
+         * с линейной интерполяцией внутри найденного отрезка.
+         *
+         * @param u доля длины кривой от 0 до 1.
+         * @return значение от 0 до 1.
+         */
+        public float getUtoTmapping(float u) {
+            float[] lengths = this.getLengths();
+            return ArcLength.toT(lengths, u * lengths[lengths.length - 1]);
+        }
+
+        /**
+         * Получает точку, находящуюся на заданном расстоянии от начала кривой.
+         *
+         * @param distance расстояние вдоль кривой.
+         * @return точку.
+         */
+        public float getPointAtDistance(float distance) {
+            return this.getPointAt(ArcLength.toT(this.getLengths(), distance));
+        }
     }
 
     /**
@@ -126,9 +210,26 @@ public interface Curve {
     abstract class D2 implements Curve {
 
         /**
-         * Кеш массива длин кривой.
+         * Количество отрезков, на которые делится кривая при грубом поиске ближайшей точки.
+         */
+        protected static final int CLOSEST_SAMPLES = 32;
+        /**
+         * Наибольшее количество итераций уточнения ближайшей точки.
          */
-        protected float[] length = null;
+        protected static final int CLOSEST_ITERATIONS = 24;
+        /**
+         * Количество точек, вычисляемых за один вызов {@code evaluate} при потоковом разбиении.
+         */
+        private static final int SINK_CHUNK = 256;
+
+        /**
+         * Кеш массива длин кривой. Публикуется через {@code volatile}, см. {@link Curve}.
+         */
+        protected volatile float[] length = null;
+        /**
+         * Кеш ограничивающего прямоугольника. Публикуется через {@code volatile}, см. {@link Curve}.
+         */
+        protected volatile Bounds.D2 bounds = null;
 
         /**
          * Стандартный конструктор.
@@ -147,7 +248,18 @@ public interface Curve {
          * @param t значение от 0 до 1.
          * @return точку.
          */
-        public abstract Vector2 getPointAt(float t);
+        public Vector2 getPointAt(float t) {
+            return this.getPointAt(t, new Vector2());
+        }
+
+        /**
+         * Получает точку и записывает ее в переданный вектор.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public abstract Vector2 getPointAt(float t, Vector2 out);
 
         /**
          * Получает вектор направления касательной к точке кривой.
@@ -156,6 +268,17 @@ public interface Curve {
          * @return вектор касательной к точке.
          */
         public Vector2 getTangentAt(float t) {
+            return this.getTangentAt(t, new Vector2());
+        }
+
+        /**
+         * Получает вектор направления касательной к точке кривой и записывает его в переданный вектор.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector2 getTangentAt(float t, Vector2 out) {
             float delta = 0.0001f;
             float t1 = t - delta;
             float t2 = t + delta;
@@ -163,12 +286,15 @@ public interface Curve {
             if (t1 < 0.0) t1 = 0.0f;
             if (t2 > 1.0) t2 = 1.0f;
 
-            Vector2 pt1 = this.getPointAt(t1);
-            Vector2 pt2 = this.getPointAt(t2);
+            this.getPointAt(t1, out);
+            float x1 = out.x;
+            float y1 = out.y;
+            this.getPointAt(t2, out);
 
-            Vector2 tangent = pt1.to(pt2);
-            tangent.normalize();
-            return tangent;
+            out.x -= x1;
+            out.y -= y1;
+            out.normalize();
+            return out;
         }
 
         /**
@@ -178,25 +304,272 @@ public interface Curve {
          * @return нормаль точки.
          */
         public Vector2 getNormalAt(float t) {
-            return this.getTangentAt(t).right();
+            return this.getNormalAt(t, new Vector2());
+        }
+
+        /**
+         * Получает правую нормаль точки и записывает ее в переданный вектор.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector2 getNormalAt(float t, Vector2 out) {
+            this.getTangentAt(t, out);
+            float x = out.x;
+            out.x = out.y;
+            out.y = -x;
+            return out;
+        }
+
+        /**
+         * Вычисляет точки кривой для массива значений {@code t}. Координаты записываются попарно: {@code x0, y0,
+         * x1, y1, ...}.
+         *
+         * @param ts    массив значений от 0 до 1.
+         * @param outXY массив для записи координат размером не меньше {@code 2 * ts.length}.
+         */
+        public void evaluate(float[] ts, float[] outXY) {
+            this.evaluate(ts, 0, ts.length, outXY, 0);
+        }
+
+        /**
+         * Вычисляет точки кривой для части массива значений {@code t}. Координаты записываются попарно.
+         *
+         * @param ts        массив значений от 0 до 1.
+         * @param offset    индекс первого значения в {@code ts}.
+         * @param count     количество значений.
+         * @param outXY     массив для записи координат.
+         * @param outOffset индекс в {@code outXY}, с которого записываются координаты.
+         */
+        public void evaluate(float[] ts, int offset, int count, float[] outXY, int outOffset) {
+            Vector2 point = new Vector2();
+            for (int i = 0; i < count; i++) {
+                this.getPointAt(ts[offset + i], point);
+                outXY[outOffset + 2 * i] = point.x;
+                outXY[outOffset + 2 * i + 1] = point.y;
+            }
+        }
+
+        /**
+         * Вычисляет точки кривой для массива значений {@code t}. Координаты записываются в отдельные массивы.
+         *
+         * @param ts   массив значений от 0 до 1.
+         * @param outX массив для записи x-координат.
+         * @param outY массив для записи y-координат.
+         */
+        public void evaluate(float[] ts, float[] outX, float[] outY) {
+            this.evaluate(ts, 0, ts.length, outX, outY, 0);
+        }
+
+        /**
+         * Вычисляет точки кривой для части массива значений {@code t}. Координаты записываются в отдельные массивы.
+         *
+         * @param ts        массив значений от 0 до 1.
+         * @param offset    индекс первого значения в {@code ts}.
+         * @param count     количество значений.
+         * @param outX      массив для записи x-координат.
+         * @param outY      массив для записи y-координат.
+         * @param outOffset индекс в массивах координат, с которого записываются точки.
+         */
+        public void evaluate(float[] ts, int offset, int count, float[] outX, float[] outY, int outOffset) {
+            Vector2 point = new Vector2();
+            for (int i = 0; i < count; i++) {
+                this.getPointAt(ts[offset + i], point);
+                outX[outOffset + i] = point.x;
+                outY[outOffset + i] = point.y;
+            }
         }
 
         /**
          * Получает массив точек.
          *
-         * @param divisions количество точек.
-         * @return массив точек.
+         * @param divisions количество отрезков, на которые делится кривая.
+         * @return массив из {@code divisions + 1} точек.
          */
         public Vector2[] getPoints(int divisions) {
-            if (divisions == 0) return new Vector2[0];
+            if (divisions <= 0) return new Vector2[0];
+
+            float[] coordinates = new float[2 * (divisions + 1)];
+            this.getPoints(divisions, coordinates, 0);
 
-            Vector2[] points = new Vector2[divisions];
+            Vector2[] points = new Vector2[divisions + 1];
             for (int d = 0; d <= divisions; d++) {
-                points[d] = this.getPointAt((float) d / divisions);
+                points[d] = new Vector2(coordinates[2 * d], coordinates[2 * d + 1]);
             }
             return points;
         }
 
+        /**
+         * Записывает точки кривой, равномерно распределенные по параметру {@code t}, в массив координат.
+         * Координаты записываются попарно.
+         *
+         * @param divisions количество отрезков, на которые делится кривая.
+         * @param outXY     массив для записи координат размером не меньше {@code outOffset + 2 * (divisions + 1)}.
+         * @param outOffset индекс в {@code outXY}, с которого записываются координаты.
+         * @return количество записанных точек, равное {@code divisions + 1}.
+         */
+        public int getPoints(int divisions, float[] outXY, int outOffset) {
+            if (divisions <= 0) return 0;
+
+            Vector2 point = new Vector2();
+            for (int d = 0; d <= divisions; d++) {
+                this.getPointAt((float) d / divisions, point);
+                int j = outOffset + 2 * d;
+                outXY[j] = point.x;
+                outXY[j + 1] = point.y;
+            }
+            return divisions + 1;
+        }
+
+        /**
+         * Получает массив точек, количество которых подобрано так, чтобы ломаная отклонялась от кривой не больше
+         * заданной величины.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return массив точек.
+         */
+        public Vector2[] getPoints(float tolerance) {
+            return this.getPoints(this.getDivisions(tolerance));
+        }
+
+        /**
+         * Передает точки кривой, равномерно распределенные по параметру {@code t}, получателю. Точки вычисляются
+         * порциями методом {@link #evaluate(float[], int, int, float[], int)}, поэтому разбиение работает в
+         * постоянной памяти.
+         *
+         * @param divisions количество отрезков, на которые делится кривая.
+         * @param sink      получатель точек.
+         * @return {@code true}, если получатель принял все {@code divisions + 1} точек; {@code false}, если он
+         * прекратил разбиение.
+         */
+        public boolean tessellate(int divisions, PointSink.D2 sink) {
+            return this.tessellate(divisions, 0, sink);
+        }
+
+        /**
+         * Передает получателю точки ломаной, отклоняющейся от кривой не больше заданной величины.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @param sink      получатель точек.
+         * @return {@code true}, если получатель принял все точки; {@code false}, если он прекратил разбиение.
+         * @see #getDivisions(float)
+         */
+        public boolean tessellate(float tolerance, PointSink.D2 sink) {
+            return this.tessellate(this.getDivisions(tolerance), 0, sink);
+        }
+
+        /**
+         * Передает получателю точки кривой с индексами от {@code first} до {@code divisions}.
+         */
+        boolean tessellate(int divisions, int first, PointSink.D2 sink) {
+            if (sink == null) throw new NullPointerException("sink == null");
+            if (divisions <= 0 || first > divisions) return true;
+
+            int chunk = Math.min(SINK_CHUNK, divisions + 1 - first);
+            float[] ts = new float[chunk];
+            float[] xy = new float[2 * chunk];
+            for (int from = first; from <= divisions; from += chunk) {
+                int count = Math.min(chunk, divisions + 1 - from);
+                for (int i = 0; i < count; i++) {
+                    ts[i] = (float) (from + i) / divisions;
+                }
+                this.evaluate(ts, 0, count, xy, 0);
+                for (int i = 0; i < count; i++) {
+                    if (!sink.accept(xy[2 * i], xy[2 * i + 1])) return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Оценивает количество отрезков, при котором ломаная отклоняется от кривой не больше заданной величины.
+         * Отклонение отрезка оценивается как {@code max|P''| / (8 * n * n)}. Вторая производная оценивается по
+         * вторым разностям 16 точек кривой, наследники с известной производной должны переопределять метод.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return количество отрезков, не меньше 1.
+         */
+        public int getDivisions(float tolerance) {
+            if (tolerance <= 0.0f) throw new IllegalArgumentException("tolerance <= 0");
+
+            int samples = 16;
+            Vector2 previous = this.getPointAt(0.0f, new Vector2());
+            Vector2 current = this.getPointAt(1.0f / samples, new Vector2());
+            Vector2 next = new Vector2();
+            float max = 0.0f;
+
+            for (int i = 2; i <= samples; i++) {
+                this.getPointAt((float) i / samples, next);
+                float dx = previous.x - 2.0f * current.x + next.x;
+                float dy = previous.y - 2.0f * current.y + next.y;
+                max = Math.max(max, dx * dx + dy * dy);
+
+                Vector2 swap = previous;
+                previous = current;
+                current = next;
+                next = swap;
+            }
+
+            return divisions(samples * samples * (float) Math.sqrt(max), tolerance);
+        }
+
+        /**
+         * Переводит оценку второй производной в количество отрезков ломаной.
+         *
+         * @param maxSecondDerivative оценка сверху модуля второй производной.
+         * @param tolerance           допустимое отклонение ломаной от кривой.
+         * @return количество отрезков, не меньше 1.
+         */
+        protected static int divisions(float maxSecondDerivative, float tolerance) {
+            if (tolerance <= 0.0f) throw new IllegalArgumentException("tolerance <= 0");
+
+            double divisions = Math.ceil(Math.sqrt(maxSecondDerivative / (8.0 * tolerance)));
+            return divisions < 1.0 ? 1 : (int) Math.min(divisions, Integer.MAX_VALUE - 1);
+        }
+
+        /**
+         * Получает ограничивающий прямоугольник кривой. Прямоугольник вычисляется при первом обращении и
+         * кешируется.
+         *
+         * @return ограничивающий прямоугольник.
+         */
+        public Bounds.D2 getBounds() {
+            Bounds.D2 bounds = this.bounds;
+            if (bounds != null) return bounds;
+
+            synchronized (this) {
+                bounds = this.bounds;
+                if (bounds == null) {
+                    bounds = this.computeBounds();
+                    this.bounds = bounds;
+                }
+            }
+            return bounds;
+        }
+
+        /**
+         * Вычисляет ограничивающий прямоугольник кривой. Вызывается методом {@link #getBounds()} при отсутствии
+         * значения в кеше. По умолчанию прямоугольник строится по 200 точкам кривой и поэтому может быть немного меньше
+         * точного; кривые, для которых известна точная формула, переопределяют этот метод.
+         *
+         * @return ограничивающий прямоугольник.
+         */
+        protected Bounds.D2 computeBounds() {
+            float[] points = new float[2 * 201];
+            int count = this.getPoints(200, points, 0);
+
+            float minX = Float.POSITIVE_INFINITY, maxX = Float.NEGATIVE_INFINITY;
+            float minY = Float.POSITIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < 2 * count; i += 2) {
+                minX = Math.min(minX, points[i]);
+                maxX = Math.max(maxX, points[i]);
+                minY = Math.min(minY, points[i + 1]);
+                maxY = Math.max(maxY, points[i + 1]);
+            }
+            return new Bounds.D2(minX, minY, maxX, maxY);
+        }
+
         /**
          * Получает длину кривой.
          *
@@ -210,14 +583,14 @@ public interface Curve {
         /**
          * Получает массив длин кривой со стандартным количеством точек равным 200.
          *
-         * @return массив длин кривой размером 200.
+         * @return массив длин кривой размером 201.
          */
         public float[] getLengths() {
             return this.getLengths(200);
         }
 
         /**
-         * Получает массив длин кривой.
+         * Получает массив длин кривой. Массив кешируется, поэтому его нельзя изменять.
          *
          * @param divisions количество точек.
          * @return массив длин кривой.
@@ -225,25 +598,267 @@ public interface Curve {
         public float[] getLengths(int divisions) {
             if (divisions == 0) return new float[0];
 
-            if (this.length != null && this.length.length == divisions + 1)
-                return this.length;
+            float[] cache = this.length;
+            if (cache != null && cache.length == divisions + 1) return cache;
 
-            float[] cache = new float[divisions];
-            Vector2 current;
-            Vector2 last = this.getPointAt(0);
+            synchronized (this) {
+                cache = this.length;
+                if (cache == null || cache.length != divisions + 1) {
+                    cache = this.computeLengths(divisions);
+                    this.length = cache;
+                }
+            }
+            return cache;
+        }
+
+        /**
+         * Вычисляет массив накопленных длин кривой. Вызывается методом {@link #getLengths(int)} при отсутствии
+         * подходящего массива в кеше. По умолчанию длина считается по ломаной, вписанной в кривую.
+         *
+         * @param divisions количество отрезков, больше 0.
+         * @return массив накопленных длин размером {@code divisions + 1}.
+         */
+        protected float[] computeLengths(int divisions) {
+            float[] cache = new float[divisions + 1];
+            Vector2 current = new Vector2();
+            Vector2 last = this.getPointAt(0, new Vector2());
             float length = 0.0f;
 
-            for (int p = 1; p < divisions; p++) {
-                current = this.getPointAt(p / divisions);
+            for (int p = 1; p <= divisions; p++) {
+                this.getPointAt((float) p / divisions, current);
                 length += current.getDistance(last);
                 cache[p] = length;
+
+                Vector2 swap = last;
                 last = current;
+                current = swap;
             }
 
-            this.length = cache;
             return cache;
         }
 
+        /**
+         * Переводит долю длины кривой в значение параметра {@code t}. Используется бинарный поиск по массиву длин
+         * с линейной интерполяцией внутри найденного отрезка.
+         *
+         * @param u доля длины кривой от 0 до 1.
+         * @return значение от 0 до 1.
+         */
+        public float getUtoTmapping(float u) {
+            float[] lengths = this.getLengths();
+            return ArcLength.toT(lengths, u * lengths[lengths.length - 1]);
+        }
+
+        /**
+         * Получает точку, находящуюся на заданном расстоянии от начала кривой.
+         *
+         * @param distance расстояние вдоль кривой.
+         * @return точку.
+         */
+        public Vector2 getPointAtDistance(float distance) {
+            return this.getPointAtDistance(distance, new Vector2());
+        }
+
+        /**
+         * Получает точку, находящуюся на заданном расстоянии от начала кривой, и записывает ее в переданный вектор.
+         *
+         * @param distance расстояние вдоль кривой.
+         * @param out      вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector2 getPointAtDistance(float distance, Vector2 out) {
+            return this.getPointAt(ArcLength.toT(this.getLengths(), distance), out);
+        }
+
+        /**
+         * Получает массив точек, равномерно распределенных по длине кривой.
+         *
+         * @param divisions количество отрезков равной длины, на которые делится кривая.
+         * @return массив из {@code divisions + 1} точек; пустой массив, если кривая не содержит точек.
+         */
+        public Vector2[] getSpacedPoints(int divisions) {
+            if (divisions <= 0) return new Vector2[0];
+
+            float[] coordinates = new float[2 * (divisions + 1)];
+            return this.toPoints(coordinates, this.getSpacedPoints(divisions, coordinates, 0));
+        }
+
+        /**
+         * Записывает точки, равномерно распределенные по длине кривой, в массив координат. Координаты записываются
+         * попарно. Точки находятся за один проход по массиву длин кривой с помощью {@link CurveCursor}, без поиска
+         * для каждой точки.
+         *
+         * @param divisions количество отрезков равной длины, на которые делится кривая.
+         * @param outXY     массив для записи координат размером не меньше {@code outOffset + 2 * (divisions + 1)}.
+         * @param outOffset индекс в {@code outXY}, с которого записываются координаты.
+         * @return количество записанных точек: {@code divisions + 1} или 0, если кривая не содержит точек.
+         */
+        public int getSpacedPoints(int divisions, float[] outXY, int outOffset) {
+            if (divisions <= 0) return 0;
+
+            CurveCursor.D2 cursor = new CurveCursor.D2(this);
+            float length = cursor.getLength();
+            Vector2 point = new Vector2();
+            for (int i = 0; i <= divisions; i++) {
+                cursor.setDistance(length * i / divisions);
+                if (cursor.getPoint(point) == null) return 0;
+                int j = outOffset + 2 * i;
+                outXY[j] = point.x;
+                outXY[j + 1] = point.y;
+            }
+            return divisions + 1;
+        }
+
+        /**
+         * Получает точки кривой, следующие через заданное расстояние вдоль кривой, начиная с ее начала. Конец кривой
+         * включается, только если его расстояние кратно заданному.
+         *
+         * @param distance расстояние между соседними точками.
+         * @return массив из {@code floor(getLength() / distance) + 1} точек; пустой массив, если кривая не содержит
+         * точек.
+         */
+        public Vector2[] getPointsEvery(float distance) {
+            if (distance <= 0.0f) throw new IllegalArgumentException("distance <= 0");
+
+            float[] coordinates = new float[2 * ((int) (this.getLength() / distance) + 1)];
+            return this.toPoints(coordinates, this.getPointsEvery(distance, coordinates, 0));
+        }
+
+        /**
+         * Записывает точки кривой, следующие через заданное расстояние вдоль кривой, в массив координат. Координаты
+         * записываются попарно. Точки находятся за один проход по массиву длин кривой.
+         *
+         * @param distance  расстояние между соседними точками.
+         * @param outXY     массив для записи координат размером не меньше
+         *                  {@code outOffset + 2 * (floor(getLength() / distance) + 1)}.
+         * @param outOffset индекс в {@code outXY}, с которого записываются координаты.
+         * @return количество записанных точек; 0, если кривая не содержит точек.
+         */
+        public int getPointsEvery(float distance, float[] outXY, int outOffset) {
+            if (distance <= 0.0f) throw new IllegalArgumentException("distance <= 0");
+
+            // Количество точек считается по getLength(), как и размер массива в getPointsEvery(float): длина по
+            // массиву длин курсора может немного отличаться от нее, поэтому расстояния пересчитываются в длину курсора.
+            CurveCursor.D2 cursor = new CurveCursor.D2(this);
+            float length = this.getLength();
+            int count = (int) (length / distance) + 1;
+            float scale = length > 0.0f ? cursor.getLength() / length : 0.0f;
+            Vector2 point = new Vector2();
+            for (int i = 0; i < count; i++) {
+                cursor.setDistance(i * distance * scale);
+                if (cursor.getPoint(point) == null) return 0;
+                int j = outOffset + 2 * i;
+                outXY[j] = point.x;
+                outXY[j + 1] = point.y;
+            }
+            return count;
+        }
+
+        private Vector2[] toPoints(float[] coordinates, int count) {
+            Vector2[] points = new Vector2[count];
+            for (int i = 0; i < count; i++) {
+                points[i] = new Vector2(coordinates[2 * i], coordinates[2 * i + 1]);
+            }
+            return points;
+        }
+
+        /**
+         * Находит значение {@code t}, при котором точка кривой ближе всего к заданной точке.
+         *
+         * @param point точка.
+         * @return значение от 0 до 1.
+         */
+        public float getClosestT(Vector2 point) {
+            if (point == null) throw new NullPointerException("point == null");
+            return this.getClosestT(point.x, point.y);
+        }
+
+        /**
+         * Находит значение {@code t}, при котором точка кривой ближе всего к точке {@code (x, y)}. Кривая
+         * делится на {@link #CLOSEST_SAMPLES} отрезков по {@code t}, после чего каждый узел, ближайший среди соседних,
+         * уточняется методом {@link #refineClosestT(float, float, float, float, float)} на соседних с ним отрезках. Уточняются все
+         * локальные минимумы, а не только лучший узел, поэтому на петлях не выбирается ложный минимум.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @return значение от 0 до 1.
+         */
+        public float getClosestT(float x, float y) {
+            int samples = CLOSEST_SAMPLES;
+            float[] distances = new float[samples + 1];
+            Vector2 point = new Vector2();
+            for (int i = 0; i <= samples; i++) {
+                distances[i] = this.distanceSquared((float) i / samples, x, y, point);
+            }
+
+            float best = 0.0f;
+            float bestDistance = Float.POSITIVE_INFINITY;
+            for (int i = 0; i <= samples; i++) {
+                if (i > 0 && distances[i - 1] < distances[i]) continue;
+                if (i < samples && distances[i + 1] < distances[i]) continue;
+
+                float min = (float) Math.max(i - 1, 0) / samples;
+                float max = (float) Math.min(i + 1, samples) / samples;
+                float t = this.refineClosestT(x, y, (float) i / samples, min, max);
+                float distance = this.distanceSquared(t, x, y, point);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = t;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Уточняет значение {@code t} ближайшей точки на отрезке [min, max], на котором расстояние до точки
+         * предполагается унимодальным. Реализация по умолчанию сужает отрезок методом золотого сечения; наследники с
+         * известными производными переопределяют метод и используют метод Ньютона.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @param t   начальное приближение.
+         * @param min левая граница отрезка.
+         * @param max правая граница отрезка.
+         * @return уточненное значение {@code t}.
+         */
+        protected float refineClosestT(float x, float y, float t, float min, float max) {
+            final float ratio = 0.618034f;
+            Vector2 point = new Vector2();
+            float initial = this.distanceSquared(t, x, y, point);
+
+            float left = max - ratio * (max - min), right = min + ratio * (max - min);
+            float leftDistance = this.distanceSquared(left, x, y, point);
+            float rightDistance = this.distanceSquared(right, x, y, point);
+            for (int i = 0; i < CLOSEST_ITERATIONS; i++) {
+                if (leftDistance < rightDistance) {
+                    max = right;
+                    right = left;
+                    rightDistance = leftDistance;
+                    left = max - ratio * (max - min);
+                    leftDistance = this.distanceSquared(left, x, y, point);
+                } else {
+                    min = left;
+                    left = right;
+                    leftDistance = rightDistance;
+                    right = min + ratio * (max - min);
+                    rightDistance = this.distanceSquared(right, x, y, point);
+                }
+            }
+
+            float result = 0.5f * (min + max);
+            return this.distanceSquared(result, x, y, point) <= initial ? result : t;
+        }
+
+        /**
+         * Вычисляет квадрат расстояния от точки кривой до заданной точки.
+         */
+        private float distanceSquared(float t, float x, float y, Vector2 point) {
+            this.getPointAt(t, point);
+            float dx = point.x - x;
+            float dy = point.y - y;
+            return dx * dx + dy * dy;
+        }
+
     }
 
     /**
@@ -254,9 +869,26 @@ public interface Curve {
     abstract class D3 implements Curve {
 
         /**
-         * Кеш массива длин кривой.
+         * Количество отрезков, на которые делится кривая при грубом поиске ближайшей точки.
+         */
+        protected static final int CLOSEST_SAMPLES = 32;
+        /**
+         * Наибольшее количество итераций уточнения ближайшей точки.
+         */
+        protected static final int CLOSEST_ITERATIONS = 24;
+        /**
+         * Количество точек, вычисляемых за один вызов {@code evaluate} при потоковом разбиении.
+         */
+        private static final int SINK_CHUNK = 256;
+
+        /**
+         * Кеш массива длин кривой. Публикуется через {@code volatile}, см. {@link Curve}.
          */
-        protected float[] length = null;
+        protected volatile float[] length = null;
+        /**
+         * Кеш ограничивающего параллелепипеда. Публикуется через {@code volatile}, см. {@link Curve}.
+         */
+        protected volatile Bounds.D3 bounds = null;
 
         /**
          * Стандартный конструктор.
@@ -275,24 +907,315 @@ public interface Curve {
          * @param t значение от 0 до 1.
          * @return точку.
          */
-        public abstract Vector3 getPointAt(float t);
+        public Vector3 getPointAt(float t) {
+            return this.getPointAt(t, new Vector3());
+        }
+
+        /**
+         * Получает точку и записывает ее в переданный вектор.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public abstract Vector3 getPointAt(float t, Vector3 out);
+
+        /**
+         * Получает вектор направления касательной к точке кривой.
+         *
+         * @param t значение от 0 до 1.
+         * @return вектор касательной к точке.
+         */
+        public Vector3 getTangentAt(float t) {
+            return this.getTangentAt(t, new Vector3());
+        }
+
+        /**
+         * Получает вектор направления касательной к точке кривой и записывает его в переданный вектор.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector3 getTangentAt(float t, Vector3 out) {
+            float delta = 0.0001f;
+            float t1 = t - delta;
+            float t2 = t + delta;
+
+            if (t1 < 0.0) t1 = 0.0f;
+            if (t2 > 1.0) t2 = 1.0f;
+
+            this.getPointAt(t1, out);
+            float x1 = out.x;
+            float y1 = out.y;
+            float z1 = out.z;
+            this.getPointAt(t2, out);
+
+            out.x -= x1;
+            out.y -= y1;
+            out.z -= z1;
+            normalize(out);
+            return out;
+        }
+
+        /**
+         * Вычисляет точки кривой для массива значений {@code t}. Координаты записываются тройками: {@code x0, y0,
+         * z0, x1, y1, z1, ...}.
+         *
+         * @param ts     массив значений от 0 до 1.
+         * @param outXYZ массив для записи координат размером не меньше {@code 3 * ts.length}.
+         */
+        public void evaluate(float[] ts, float[] outXYZ) {
+            this.evaluate(ts, 0, ts.length, outXYZ, 0);
+        }
+
+        /**
+         * Вычисляет точки кривой для части массива значений {@code t}. Координаты записываются тройками.
+         *
+         * @param ts        массив значений от 0 до 1.
+         * @param offset    индекс первого значения в {@code ts}.
+         * @param count     количество значений.
+         * @param outXYZ    массив для записи координат.
+         * @param outOffset индекс в {@code outXYZ}, с которого записываются координаты.
+         */
+        public void evaluate(float[] ts, int offset, int count, float[] outXYZ, int outOffset) {
+            Vector3 point = new Vector3();
+            for (int i = 0; i < count; i++) {
+                this.getPointAt(ts[offset + i], point);
+                outXYZ[outOffset + 3 * i] = point.x;
+                outXYZ[outOffset + 3 * i + 1] = point.y;
+                outXYZ[outOffset + 3 * i + 2] = point.z;
+            }
+        }
+
+        /**
+         * Вычисляет точки кривой для массива значений {@code t}. Координаты записываются в отдельные массивы.
+         *
+         * @param ts   массив значений от 0 до 1.
+         * @param outX массив для записи x-координат.
+         * @param outY массив для записи y-координат.
+         * @param outZ массив для записи z-координат.
+         */
+        public void evaluate(float[] ts, float[] outX, float[] outY, float[] outZ) {
+            this.evaluate(ts, 0, ts.length, outX, outY, outZ, 0);
+        }
+
+        /**
+         * Вычисляет точки кривой для части массива значений {@code t}. Координаты записываются в отдельные массивы.
+         *
+         * @param ts        массив значений от 0 до 1.
+         * @param offset    индекс первого значения в {@code ts}.
+         * @param count     количество значений.
+         * @param outX      массив для записи x-координат.
+         * @param outY      массив для записи y-координат.
+         * @param outZ      массив для записи z-координат.
+         * @param outOffset индекс в массивах координат, с которого записываются точки.
+         */
+        public void evaluate(float[] ts, int offset, int count, float[] outX, float[] outY, float[] outZ,
+                             int outOffset) {
+            Vector3 point = new Vector3();
+            for (int i = 0; i < count; i++) {
+                this.getPointAt(ts[offset + i], point);
+                outX[outOffset + i] = point.x;
+                outY[outOffset + i] = point.y;
+                outZ[outOffset + i] = point.z;
+            }
+        }
 
         /**
          * Получает массив точек.
          *
-         * @param divisions количество точек.
-         * @return массив точек.
+         * @param divisions количество отрезков, на которые делится кривая.
+         * @return массив из {@code divisions + 1} точек.
          */
         public Vector3[] getPoints(int divisions) {
-            if (divisions == 0) return new Vector3[0];
+            if (divisions <= 0) return new Vector3[0];
+
+            float[] coordinates = new float[3 * (divisions + 1)];
+            this.getPoints(divisions, coordinates, 0);
 
-            Vector3[] points = new Vector3[divisions];
+            Vector3[] points = new Vector3[divisions + 1];
             for (int d = 0; d <= divisions; d++) {
-                points[d] = this.getPointAt((float) d / divisions);
+                points[d] = new Vector3(coordinates[3 * d], coordinates[3 * d + 1], coordinates[3 * d + 2]);
             }
             return points;
         }
 
+        /**
+         * Записывает точки кривой, равномерно распределенные по параметру {@code t}, в массив координат.
+         * Координаты записываются тройками.
+         *
+         * @param divisions количество отрезков, на которые делится кривая.
+         * @param outXYZ    массив для записи координат размером не меньше {@code outOffset + 3 * (divisions + 1)}.
+         * @param outOffset индекс в {@code outXYZ}, с которого записываются координаты.
+         * @return количество записанных точек, равное {@code divisions + 1}.
+         */
+        public int getPoints(int divisions, float[] outXYZ, int outOffset) {
+            if (divisions <= 0) return 0;
+
+            Vector3 point = new Vector3();
+            for (int d = 0; d <= divisions; d++) {
+                this.getPointAt((float) d / divisions, point);
+                int j = outOffset + 3 * d;
+                outXYZ[j] = point.x;
+                outXYZ[j + 1] = point.y;
+                outXYZ[j + 2] = point.z;
+            }
+            return divisions + 1;
+        }
+
+        /**
+         * Получает массив точек, количество которых подобрано так, чтобы ломаная отклонялась от кривой не больше
+         * заданной величины.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return массив точек.
+         */
+        public Vector3[] getPoints(float tolerance) {
+            return this.getPoints(this.getDivisions(tolerance));
+        }
+
+        /**
+         * Передает точки кривой, равномерно распределенные по параметру {@code t}, получателю. Точки вычисляются
+         * порциями методом {@link #evaluate(float[], int, int, float[], int)}, поэтому разбиение работает в
+         * постоянной памяти.
+         *
+         * @param divisions количество отрезков, на которые делится кривая.
+         * @param sink      получатель точек.
+         * @return {@code true}, если получатель принял все {@code divisions + 1} точек; {@code false}, если он
+         * прекратил разбиение.
+         */
+        public boolean tessellate(int divisions, PointSink.D3 sink) {
+            return this.tessellate(divisions, 0, sink);
+        }
+
+        /**
+         * Передает получателю точки ломаной, отклоняющейся от кривой не больше заданной величины.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @param sink      получатель точек.
+         * @return {@code true}, если получатель принял все точки; {@code false}, если он прекратил разбиение.
+         * @see #getDivisions(float)
+         */
+        public boolean tessellate(float tolerance, PointSink.D3 sink) {
+            return this.tessellate(this.getDivisions(tolerance), 0, sink);
+        }
+
+        /**
+         * Передает получателю точки кривой с индексами от {@code first} до {@code divisions}.
+         */
+        boolean tessellate(int divisions, int first, PointSink.D3 sink) {
+            if (sink == null) throw new NullPointerException("sink == null");
+            if (divisions <= 0 || first > divisions) return true;
+
+            int chunk = Math.min(SINK_CHUNK, divisions + 1 - first);
+            float[] ts = new float[chunk];
+            float[] xyz = new float[3 * chunk];
+            for (int from = first; from <= divisions; from += chunk) {
+                int count = Math.min(chunk, divisions + 1 - from);
+                for (int i = 0; i < count; i++) {
+                    ts[i] = (float) (from + i) / divisions;
+                }
+                this.evaluate(ts, 0, count, xyz, 0);
+                for (int i = 0; i < count; i++) {
+                    if (!sink.accept(xyz[3 * i], xyz[3 * i + 1], xyz[3 * i + 2])) return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Оценивает количество отрезков, при котором ломаная отклоняется от кривой не больше заданной величины.
+         * Отклонение отрезка оценивается как {@code max|P''| / (8 * n * n)}. Вторая производная оценивается по
+         * вторым разностям 16 точек кривой, наследники с известной производной должны переопределять метод.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return количество отрезков, не меньше 1.
+         */
+        public int getDivisions(float tolerance) {
+            if (tolerance <= 0.0f) throw new IllegalArgumentException("tolerance <= 0");
+
+            int samples = 16;
+            Vector3 previous = this.getPointAt(0.0f, new Vector3());
+            Vector3 current = this.getPointAt(1.0f / samples, new Vector3());
+            Vector3 next = new Vector3();
+            float max = 0.0f;
+
+            for (int i = 2; i <= samples; i++) {
+                this.getPointAt((float) i / samples, next);
+                float dx = previous.x - 2.0f * current.x + next.x;
+                float dy = previous.y - 2.0f * current.y + next.y;
+                float dz = previous.z - 2.0f * current.z + next.z;
+                max = Math.max(max, dx * dx + dy * dy + dz * dz);
+
+                Vector3 swap = previous;
+                previous = current;
+                current = next;
+                next = swap;
+            }
+
+            return divisions(samples * samples * (float) Math.sqrt(max), tolerance);
+        }
+
+        /**
+         * Переводит оценку второй производной в количество отрезков ломаной.
+         *
+         * @param maxSecondDerivative оценка сверху модуля второй производной.
+         * @param tolerance           допустимое отклонение ломаной от кривой.
+         * @return количество отрезков, не меньше 1.
+         */
+        protected static int divisions(float maxSecondDerivative, float tolerance) {
+            if (tolerance <= 0.0f) throw new IllegalArgumentException("tolerance <= 0");
+
+            double divisions = Math.ceil(Math.sqrt(maxSecondDerivative / (8.0 * tolerance)));
+            return divisions < 1.0 ? 1 : (int) Math.min(divisions, Integer.MAX_VALUE - 1);
+        }
+
+        /**
+         * Получает ограничивающий параллелепипед кривой. Параллелепипед вычисляется при первом обращении и
+         * кешируется.
+         *
+         * @return ограничивающий параллелепипед.
+         */
+        public Bounds.D3 getBounds() {
+            Bounds.D3 bounds = this.bounds;
+            if (bounds != null) return bounds;
+
+            synchronized (this) {
+                bounds = this.bounds;
+                if (bounds == null) {
+                    bounds = this.computeBounds();
+                    this.bounds = bounds;
+                }
+            }
+            return bounds;
+        }
+
+        /**
+         * Вычисляет ограничивающий параллелепипед кривой. Вызывается методом {@link #getBounds()} при отсутствии
+         * значения в кеше. По умолчанию параллелепипед строится по 200 точкам кривой и поэтому может быть немного
+         * меньше точного; кривые, для которых известна точная формула, переопределяют этот метод.
+         *
+         * @return ограничивающий параллелепипед.
+         */
+        protected Bounds.D3 computeBounds() {
+            float[] points = new float[3 * 201];
+            int count = this.getPoints(200, points, 0);
+
+            float minX = Float.POSITIVE_INFINITY, maxX = Float.NEGATIVE_INFINITY;
+            float minY = Float.POSITIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+            float minZ = Float.POSITIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < 3 * count; i += 3) {
+                minX = Math.min(minX, points[i]);
+                maxX = Math.max(maxX, points[i]);
+                minY = Math.min(minY, points[i + 1]);
+                maxY = Math.max(maxY, points[i + 1]);
+                minZ = Math.min(minZ, points[i + 2]);
+                maxZ = Math.max(maxZ, points[i + 2]);
+            }
+            return new Bounds.D3(minX, minY, minZ, maxX, maxY, maxZ);
+        }
+
         /**
          * Получает длину кривой.
          *
@@ -306,14 +1229,14 @@ public interface Curve {
         /**
          * Получает массив длин кривой со стандартным количеством точек равным 200.
          *
-         * @return массив длин кривой размером 200.
+         * @return массив длин кривой размером 201.
          */
         public float[] getLengths() {
             return this.getLengths(200);
         }
 
         /**
-         * Получает массив длин кривой.
+         * Получает массив длин кривой. Массив кешируется, поэтому его нельзя изменять.
          *
          * @param divisions количество точек.
          * @return массив длин кривой.
@@ -321,25 +1244,286 @@ public interface Curve {
         public float[] getLengths(int divisions) {
             if (divisions == 0) return new float[0];
 
-            if (this.length != null && this.length.length == divisions + 1)
-                return this.length;
+            float[] cache = this.length;
+            if (cache != null && cache.length == divisions + 1) return cache;
 
-            float[] cache = new float[divisions];
-            Vector3 current;
-            Vector3 last = this.getPointAt(0);
+            synchronized (this) {
+                cache = this.length;
+                if (cache == null || cache.length != divisions + 1) {
+                    cache = this.computeLengths(divisions);
+                    this.length = cache;
+                }
+            }
+            return cache;
+        }
+
+        /**
+         * Вычисляет массив накопленных длин кривой. Вызывается методом {@link #getLengths(int)} при отсутствии
+         * подходящего массива в кеше. По умолчанию длина считается по ломаной, вписанной в кривую.
+         *
+         * @param divisions количество отрезков, больше 0.
+         * @return массив накопленных длин размером {@code divisions + 1}.
+         */
+        protected float[] computeLengths(int divisions) {
+            float[] cache = new float[divisions + 1];
+            Vector3 current = new Vector3();
+            Vector3 last = this.getPointAt(0, new Vector3());
             float length = 0.0f;
 
-            for (int p = 1; p < divisions; p++) {
-                current = this.getPointAt(p / divisions);
+            for (int p = 1; p <= divisions; p++) {
+                this.getPointAt((float) p / divisions, current);
                 length += current.distance(last);
                 cache[p] = length;
+
+                Vector3 swap = last;
                 last = current;
+                current = swap;
             }
 
-            this.length = cache;
             return cache;
         }
 
+        /**
+         * Переводит долю длины кривой в значение параметра {@code t}. Используется бинарный поиск по массиву длин
+         * с линейной интерполяцией внутри найденного отрезка.
+         *
+         * @param u доля длины кривой от 0 до 1.
+         * @return значение от 0 до 1.
+         */
+        public float getUtoTmapping(float u) {
+            float[] lengths = this.getLengths();
+            return ArcLength.toT(lengths, u * lengths[lengths.length - 1]);
+        }
+
+        /**
+         * Получает точку, находящуюся на заданном расстоянии от начала кривой.
+         *
+         * @param distance расстояние вдоль кривой.
+         * @return точку.
+         */
+        public Vector3 getPointAtDistance(float distance) {
+            return this.getPointAtDistance(distance, new Vector3());
+        }
+
+        /**
+         * Получает точку, находящуюся на заданном расстоянии от начала кривой, и записывает ее в переданный вектор.
+         *
+         * @param distance расстояние вдоль кривой.
+         * @param out      вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector3 getPointAtDistance(float distance, Vector3 out) {
+            return this.getPointAt(ArcLength.toT(this.getLengths(), distance), out);
+        }
+
+        /**
+         * Получает массив точек, равномерно распределенных по длине кривой.
+         *
+         * @param divisions количество отрезков равной длины, на которые делится кривая.
+         * @return массив из {@code divisions + 1} точек; пустой массив, если кривая не содержит точек.
+         */
+        public Vector3[] getSpacedPoints(int divisions) {
+            if (divisions <= 0) return new Vector3[0];
+
+            float[] coordinates = new float[3 * (divisions + 1)];
+            return this.toPoints(coordinates, this.getSpacedPoints(divisions, coordinates, 0));
+        }
+
+        /**
+         * Записывает точки, равномерно распределенные по длине кривой, в массив координат. Координаты записываются
+         * тройками. Точки находятся за один проход по массиву длин кривой с помощью {@link CurveCursor}, без поиска
+         * для каждой точки.
+         *
+         * @param divisions количество отрезков равной длины, на которые делится кривая.
+         * @param outXYZ    массив для записи координат размером не меньше {@code outOffset + 3 * (divisions + 1)}.
+         * @param outOffset индекс в {@code outXYZ}, с которого записываются координаты.
+         * @return количество записанных точек: {@code divisions + 1} или 0, если кривая не содержит точек.
+         */
+        public int getSpacedPoints(int divisions, float[] outXYZ, int outOffset) {
+            if (divisions <= 0) return 0;
+
+            CurveCursor.D3 cursor = new CurveCursor.D3(this);
+            float length = cursor.getLength();
+            Vector3 point = new Vector3();
+            for (int i = 0; i <= divisions; i++) {
+                cursor.setDistance(length * i / divisions);
+                if (cursor.getPoint(point) == null) return 0;
+                int j = outOffset + 3 * i;
+                outXYZ[j] = point.x;
+                outXYZ[j + 1] = point.y;
+                outXYZ[j + 2] = point.z;
+            }
+            return divisions + 1;
+        }
+
+        /**
+         * Получает точки кривой, следующие через заданное расстояние вдоль кривой, начиная с ее начала. Конец кривой
+         * включается, только если его расстояние кратно заданному.
+         *
+         * @param distance расстояние между соседними точками.
+         * @return массив из {@code floor(getLength() / distance) + 1} точек; пустой массив, если кривая не содержит
+         * точек.
+         */
+        public Vector3[] getPointsEvery(float distance) {
+            if (distance <= 0.0f) throw new IllegalArgumentException("distance <= 0");
+
+            float[] coordinates = new float[3 * ((int) (this.getLength() / distance) + 1)];
+            return this.toPoints(coordinates, this.getPointsEvery(distance, coordinates, 0));
+        }
+
+        /**
+         * Записывает точки кривой, следующие через заданное расстояние вдоль кривой, в массив координат. Координаты
+         * записываются тройками. Точки находятся за один проход по массиву длин кривой.
+         *
+         * @param distance  расстояние между соседними точками.
+         * @param outXYZ    массив для записи координат размером не меньше
+         *                  {@code outOffset + 3 * (floor(getLength() / distance) + 1)}.
+         * @param outOffset индекс в {@code outXYZ}, с которого записываются координаты.
+         * @return количество записанных точек; 0, если кривая не содержит точек.
+         */
+        public int getPointsEvery(float distance, float[] outXYZ, int outOffset) {
+            if (distance <= 0.0f) throw new IllegalArgumentException("distance <= 0");
+
+            // Количество точек считается по getLength(), как и размер массива в getPointsEvery(float): длина по
+            // массиву длин курсора может немного отличаться от нее, поэтому расстояния пересчитываются в длину курсора.
+            CurveCursor.D3 cursor = new CurveCursor.D3(this);
+            float length = this.getLength();
+            int count = (int) (length / distance) + 1;
+            float scale = length > 0.0f ? cursor.getLength() / length : 0.0f;
+            Vector3 point = new Vector3();
+            for (int i = 0; i < count; i++) {
+                cursor.setDistance(i * distance * scale);
+                if (cursor.getPoint(point) == null) return 0;
+                int j = outOffset + 3 * i;
+                outXYZ[j] = point.x;
+                outXYZ[j + 1] = point.y;
+                outXYZ[j + 2] = point.z;
+            }
+            return count;
+        }
+
+        private Vector3[] toPoints(float[] coordinates, int count) {
+            Vector3[] points = new Vector3[count];
+            for (int i = 0; i < count; i++) {
+                points[i] = new Vector3(coordinates[3 * i], coordinates[3 * i + 1], coordinates[3 * i + 2]);
+            }
+            return points;
+        }
+
+        /**
+         * Находит значение {@code t}, при котором точка кривой ближе всего к заданной точке.
+         *
+         * @param point точка.
+         * @return значение от 0 до 1.
+         */
+        public float getClosestT(Vector3 point) {
+            if (point == null) throw new NullPointerException("point == null");
+            return this.getClosestT(point.x, point.y, point.z);
+        }
+
+        /**
+         * Находит значение {@code t}, при котором точка кривой ближе всего к точке {@code (x, y, z)}. Кривая
+         * делится на {@link #CLOSEST_SAMPLES} отрезков по {@code t}, после чего каждый узел, ближайший среди соседних,
+         * уточняется методом {@link #refineClosestT(float, float, float, float, float, float)} на соседних с ним отрезках. Уточняются все
+         * локальные минимумы, а не только лучший узел, поэтому на петлях не выбирается ложный минимум.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @param z z-координата точки.
+         * @return значение от 0 до 1.
+         */
+        public float getClosestT(float x, float y, float z) {
+            int samples = CLOSEST_SAMPLES;
+            float[] distances = new float[samples + 1];
+            Vector3 point = new Vector3();
+            for (int i = 0; i <= samples; i++) {
+                distances[i] = this.distanceSquared((float) i / samples, x, y, z, point);
+            }
+
+            float best = 0.0f;
+            float bestDistance = Float.POSITIVE_INFINITY;
+            for (int i = 0; i <= samples; i++) {
+                if (i > 0 && distances[i - 1] < distances[i]) continue;
+                if (i < samples && distances[i + 1] < distances[i]) continue;
+
+                float min = (float) Math.max(i - 1, 0) / samples;
+                float max = (float) Math.min(i + 1, samples) / samples;
+                float t = this.refineClosestT(x, y, z, (float) i / samples, min, max);
+                float distance = this.distanceSquared(t, x, y, z, point);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = t;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Уточняет значение {@code t} ближайшей точки на отрезке [min, max], на котором расстояние до точки
+         * предполагается унимодальным. Реализация по умолчанию сужает отрезок методом золотого сечения; наследники с
+         * известными производными переопределяют метод и используют метод Ньютона.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @param z z-координата точки.
+         * @param t   начальное приближение.
+         * @param min левая граница отрезка.
+         * @param max правая граница отрезка.
+         * @return уточненное значение {@code t}.
+         */
+        protected float refineClosestT(float x, float y, float z, float t, float min, float max) {
+            final float ratio = 0.618034f;
+            Vector3 point = new Vector3();
+            float initial = this.distanceSquared(t, x, y, z, point);
+
+            float left = max - ratio * (max - min), right = min + ratio * (max - min);
+            float leftDistance = this.distanceSquared(left, x, y, z, point);
+            float rightDistance = this.distanceSquared(right, x, y, z, point);
+            for (int i = 0; i < CLOSEST_ITERATIONS; i++) {
+                if (leftDistance < rightDistance) {
+                    max = right;
+                    right = left;
+                    rightDistance = leftDistance;
+                    left = max - ratio * (max - min);
+                    leftDistance = this.distanceSquared(left, x, y, z, point);
+                } else {
+                    min = left;
+                    left = right;
+                    leftDistance = rightDistance;
+                    right = min + ratio * (max - min);
+                    rightDistance = this.distanceSquared(right, x, y, z, point);
+                }
+            }
+
+            float result = 0.5f * (min + max);
+            return this.distanceSquared(result, x, y, z, point) <= initial ? result : t;
+        }
+
+        /**
+         * Вычисляет квадрат расстояния от точки кривой до заданной точки.
+         */
+        private float distanceSquared(float t, float x, float y, float z, Vector3 point) {
+            this.getPointAt(t, point);
+            float dx = point.x - x;
+            float dy = point.y - y;
+            float dz = point.z - z;
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        /**
+         * Нормализует вектор на месте. Нулевой вектор не изменяется.
+         *
+         * @param vector вектор.
+         */
+        protected static void normalize(Vector3 vector) {
+            float length = (float) Math.sqrt(vector.x * vector.x + vector.y * vector.y + vector.z * vector.z);
+            if (length != 0.0f) {
+                vector.x /= length;
+                vector.y /= length;
+                vector.z /= length;
+            }
+        }
+
     }
 
 }
@@ -0,0 +1,430 @@
+/*
+ *
+ */
+package ru.ildev.curve;
+
+import ru.ildev.geom.Vector2;
+import ru.ildev.geom.Vector3;
+import ru.ildev.math.MoreMath;
+
+/**
+ * Курсор для последовательного обхода кривой. Курсор запоминает текущее значение {@code t}, пройденное расстояние и
+ * положение в массиве длин кривой (для {@link CurvePath} - индекс текущей кривой пути), поэтому при перемещении на
+ * небольшой шаг поиск продолжается с прежнего места и занимает в среднем постоянное время. Перемещение назад также
+ * допускается. Курсор не выделяет память.
+ * <p>
+ * Курсор использует массив длин кривой, полученный при создании или последнем вызове {@link #reset()}. После
+ * изменения кривой курсор нужно сбросить.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+public abstract class CurveCursor {
+
+    /**
+     * Является ли кривая составной. Для составной кривой массив длин содержит накопленные длины кривых пути, а
+     * значение {@code t} равно доле пройденного расстояния.
+     */
+    private final boolean path;
+    /**
+     * Массив длин кривой.
+     */
+    private float[] lengths;
+    /**
+     * Длина кривой.
+     */
+    private float length;
+    /**
+     * Текущее значение {@code t}.
+     */
+    private float t;
+    /**
+     * Пройденное расстояние.
+     */
+    private float distance;
+    /**
+     * Индекс в массиве длин.
+     */
+    private int index;
+
+    /**
+     * @param path является ли кривая составной.
+     */
+    CurveCursor(boolean path) {
+        this.path = path;
+    }
+
+    /**
+     * Получает массив длин кривой.
+     *
+     * @return массив длин.
+     */
+    abstract float[] lengths();
+
+    /**
+     * Возвращает курсор в начало кривой и заново получает массив длин кривой.
+     */
+    public void reset() {
+        float[] lengths = this.lengths();
+        this.lengths = lengths;
+        this.length = lengths.length == 0 ? 0.0f : lengths[lengths.length - 1];
+        this.t = 0.0f;
+        this.distance = 0.0f;
+        this.index = 0;
+    }
+
+    /**
+     * Получает текущее значение {@code t}.
+     *
+     * @return значение от 0 до 1.
+     */
+    public float getT() {
+        return this.t;
+    }
+
+    /**
+     * Получает расстояние от начала кривой до курсора.
+     *
+     * @return расстояние.
+     */
+    public float getDistance() {
+        return this.distance;
+    }
+
+    /**
+     * Получает длину кривой.
+     *
+     * @return длину кривой.
+     */
+    public float getLength() {
+        return this.length;
+    }
+
+    /**
+     * Проверяет, находится ли курсор в конце кривой.
+     *
+     * @return {@code true}, если {@code t} равно 1.
+     */
+    public boolean isAtEnd() {
+        return this.t >= 1.0f;
+    }
+
+    /**
+     * Перемещает курсор в точку с заданным значением {@code t}.
+     *
+     * @param t значение от 0 до 1.
+     */
+    public void setT(float t) {
+        t = MoreMath.clamp(t, 0.0f, 1.0f);
+        this.t = t;
+
+        if (this.path) {
+            this.distance = t * this.length;
+            this.locate(this.distance);
+        } else {
+            this.distance = this.toDistance(t);
+        }
+    }
+
+    /**
+     * Перемещает курсор на заданное расстояние от начала кривой.
+     *
+     * @param distance расстояние от 0 до длины кривой.
+     */
+    public void setDistance(float distance) {
+        distance = MoreMath.clamp(distance, 0.0f, this.length);
+        this.distance = distance;
+
+        if (this.path) {
+            this.t = this.length > 0.0f ? distance / this.length : 0.0f;
+            this.locate(distance);
+        } else {
+            this.t = this.toT(distance);
+        }
+    }
+
+    /**
+     * Сдвигает курсор на {@code dt}. Значение {@code t} ограничивается отрезком [0, 1].
+     *
+     * @param dt приращение {@code t}, может быть отрицательным.
+     * @return {@code false}, если курсор уже находился на конце кривой в направлении сдвига и не переместился.
+     */
+    public boolean advance(float dt) {
+        if (dt >= 0.0f ? this.t >= 1.0f : this.t <= 0.0f) return false;
+        this.setT(this.t + dt);
+        return true;
+    }
+
+    /**
+     * Сдвигает курсор вдоль кривой на заданное расстояние. Расстояние ограничивается длиной кривой.
+     *
+     * @param distance приращение расстояния, может быть отрицательным.
+     * @return {@code false}, если курсор уже находился на конце кривой в направлении сдвига и не переместился.
+     */
+    public boolean advanceDistance(float distance) {
+        if (distance >= 0.0f ? this.t >= 1.0f : this.t <= 0.0f) return false;
+        this.setDistance(this.distance + distance);
+        return true;
+    }
+
+    /**
+     * Проверяет, пуста ли составная кривая.
+     *
+     * @return {@code true}, если кривая составная и не содержит ни одной кривой.
+     */
+    boolean isEmpty() {
+        return this.path && this.lengths.length == 0;
+    }
+
+    /**
+     * Получает индекс текущей кривой пути.
+     *
+     * @return индекс кривой.
+     */
+    int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Получает значение {@code t} на текущей кривой пути, вычисленное так же, как в {@link CurvePath}.
+     *
+     * @return значение от 0 до 1.
+     */
+    float getLocalT() {
+        float[] lengths = this.lengths;
+        float end = lengths[this.index];
+        float start = this.index > 0 ? lengths[this.index - 1] : 0.0f;
+        float length = end - start;
+        return length > 0.0f ? MoreMath.clamp((this.distance - start) / length, 0.0f, 1.0f) : 0.0f;
+    }
+
+    /**
+     * Находит первую кривую пути, накопленная длина которой не меньше заданного расстояния, начиная поиск с текущей.
+     */
+    private void locate(float distance) {
+        float[] lengths = this.lengths;
+        int last = lengths.length - 1;
+        if (last < 0) return;
+
+        int i = this.index;
+        while (i < last && lengths[i] < distance) i++;
+        while (i > 0 && lengths[i - 1] >= distance) i--;
+        this.index = i;
+    }
+
+    /**
+     * Переводит расстояние в значение {@code t} по массиву длин, начиная поиск с текущего отрезка массива.
+     */
+    private float toT(float distance) {
+        float[] lengths = this.lengths;
+        int last = lengths.length - 1;
+        if (last <= 0) return 0.0f;
+
+        int i = this.index;
+        while (i < last - 1 && lengths[i + 1] <= distance) i++;
+        while (i > 0 && lengths[i] > distance) i--;
+        this.index = i;
+
+        float segmentLength = lengths[i + 1] - lengths[i];
+        float fraction = segmentLength > 0.0f ? (distance - lengths[i]) / segmentLength : 0.0f;
+        return MoreMath.clamp((i + fraction) / last, 0.0f, 1.0f);
+    }
+
+    /**
+     * Переводит значение {@code t} в расстояние по массиву длин.
+     */
+    private float toDistance(float t) {
+        float[] lengths = this.lengths;
+        int last = lengths.length - 1;
+        if (last <= 0) return 0.0f;
+
+        float position = t * last;
+        int i = Math.min((int) position, last - 1);
+        this.index = i;
+        return lengths[i] + (position - i) * (lengths[i + 1] - lengths[i]);
+    }
+
+    /**
+     * Курсор одномерной кривой.
+     */
+    public static final class D1 extends CurveCursor {
+
+        /**
+         * Кривая.
+         */
+        private final Curve.D1 curve;
+
+        /**
+         * Стандартный конструктор.
+         *
+         * @param curve кривая.
+         */
+        public D1(Curve.D1 curve) {
+            super(curve instanceof CurvePath.D1);
+            if (curve == null) throw new NullPointerException("curve == null");
+            this.curve = curve;
+            this.reset();
+        }
+
+        @Override
+        float[] lengths() {
+            return this.curve.getLengths();
+        }
+
+        /**
+         * Получает кривую.
+         *
+         * @return кривую.
+         */
+        public Curve.D1 getCurve() {
+            return this.curve;
+        }
+
+        /**
+         * Получает точку кривой в положении курсора.
+         *
+         * @return точку; -1, если составная кривая пуста.
+         */
+        public float getPoint() {
+            if (this.curve instanceof CurvePath.D1) {
+                if (this.isEmpty()) return -1.0f;
+                return ((CurvePath.D1) this.curve).getCurve(this.getIndex()).getPointAt(this.getLocalT());
+            }
+            return this.curve.getPointAt(this.getT());
+        }
+
+    }
+
+    /**
+     * Курсор кривой на плоскости.
+     */
+    public static final class D2 extends CurveCursor {
+
+        /**
+         * Кривая.
+         */
+        private final Curve.D2 curve;
+
+        /**
+         * Стандартный конструктор.
+         *
+         * @param curve кривая.
+         */
+        public D2(Curve.D2 curve) {
+            super(curve instanceof CurvePath.D2);
+            if (curve == null) throw new NullPointerException("curve == null");
+            this.curve = curve;
+            this.reset();
+        }
+
+        @Override
+        float[] lengths() {
+            return this.curve.getLengths();
+        }
+
+        /**
+         * Получает кривую.
+         *
+         * @return кривую.
+         */
+        public Curve.D2 getCurve() {
+            return this.curve;
+        }
+
+        /**
+         * Получает точку кривой в положении курсора.
+         *
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}; {@code null}, если составная кривая пуста.
+         */
+        public Vector2 getPoint(Vector2 out) {
+            if (this.curve instanceof CurvePath.D2) {
+                if (this.isEmpty()) return null;
+                return ((CurvePath.D2) this.curve).getCurve(this.getIndex()).getPointAt(this.getLocalT(), out);
+            }
+            return this.curve.getPointAt(this.getT(), out);
+        }
+
+        /**
+         * Получает единичный касательный вектор в положении курсора.
+         *
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}; {@code null}, если составная кривая пуста.
+         */
+        public Vector2 getTangent(Vector2 out) {
+            if (this.curve instanceof CurvePath.D2) {
+                if (this.isEmpty()) return null;
+                return ((CurvePath.D2) this.curve).getCurve(this.getIndex()).getTangentAt(this.getLocalT(), out);
+            }
+            return this.curve.getTangentAt(this.getT(), out);
+        }
+
+    }
+
+    /**
+     * Курсор кривой в пространстве.
+     */
+    public static final class D3 extends CurveCursor {
+
+        /**
+         * Кривая.
+         */
+        private final Curve.D3 curve;
+
+        /**
+         * Стандартный конструктор.
+         *
+         * @param curve кривая.
+         */
+        public D3(Curve.D3 curve) {
+            super(curve instanceof CurvePath.D3);
+            if (curve == null) throw new NullPointerException("curve == null");
+            this.curve = curve;
+            this.reset();
+        }
+
+        @Override
+        float[] lengths() {
+            return this.curve.getLengths();
+        }
+
+        /**
+         * Получает кривую.
+         *
+         * @return кривую.
+         */
+        public Curve.D3 getCurve() {
+            return this.curve;
+        }
+
+        /**
+         * Получает точку кривой в положении курсора.
+         *
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}; {@code null}, если составная кривая пуста.
+         */
+        public Vector3 getPoint(Vector3 out) {
+            if (this.curve instanceof CurvePath.D3) {
+                if (this.isEmpty()) return null;
+                return ((CurvePath.D3) this.curve).getCurve(this.getIndex()).getPointAt(this.getLocalT(), out);
+            }
+            return this.curve.getPointAt(this.getT(), out);
+        }
+
+        /**
+         * Получает единичный касательный вектор в положении курсора.
+         *
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}; {@code null}, если составная кривая пуста.
+         */
+        public Vector3 getTangent(Vector3 out) {
+            if (this.curve instanceof CurvePath.D3) {
+                if (this.isEmpty()) return null;
+                return ((CurvePath.D3) this.curve).getCurve(this.getIndex()).getTangentAt(this.getLocalT(), out);
+            }
+            return this.curve.getTangentAt(this.getT(), out);
+        }
+
+    }
+
+}
@@ -0,0 +1,795 @@
+/*
+ *
+ */
+package ru.ildev.curve;
+
+import ru.ildev.geom.Vector2;
+import ru.ildev.math.MoreMath;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Двоичный файл путей на плоскости, отображаемый в память.
+ * <p>
+ * Файл состоит из заголовка, таблицы смещений путей и записей путей. Запись пути содержит количество кривых,
+ * таблицу смещений кривых и сами кривые: тег типа и координаты в виде {@code float}. Все числа записаны в порядке
+ * байтов little-endian и выровнены по 4 байта.
+ * <p>
+ * При открытии файл отображается в память через {@link FileChannel#map}, ничего не разбирается и не копируется:
+ * кривые читаются прямо из отображения при вычислении, см. {@link Segment}. Отображение делится на части
+ * размером {@code 2^chunkShift} байт, поэтому размер файла не ограничен 2 ГБ; запись пути никогда не пересекает
+ * границу части, для этого перед ней оставляется пропуск.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+public final class CurveFile {
+
+    /**
+     * Тег отрезка: 4 числа.
+     */
+    public static final int LINE = 1;
+    /**
+     * Тег квадратичной кривой Безье: 6 чисел.
+     */
+    public static final int QUADRATIC = 2;
+    /**
+     * Тег кубической кривой Безье: 8 чисел.
+     */
+    public static final int CUBIC = 3;
+    /**
+     * Тег дуги: центр, радиус, начальный и конечный углы, направление.
+     */
+    public static final int ARC = 4;
+    /**
+     * Сигнатура файла, {@code "CRVF"}.
+     */
+    private static final int MAGIC = 0x46565243;
+    /**
+     * Версия формата.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Размер заголовка в байтах.
+     */
+    private static final int HEADER = 16;
+    /**
+     * Логарифм размера части отображения по умолчанию, 1 ГБ.
+     */
+    public static final int DEFAULT_CHUNK_SHIFT = 30;
+    /**
+     * Наименьший допустимый логарифм размера части отображения.
+     */
+    private static final int MIN_CHUNK_SHIFT = 12;
+
+    /**
+     * Части отображения файла.
+     */
+    private final ByteBuffer[] chunks;
+    /**
+     * Логарифм размера части отображения.
+     */
+    private final int chunkShift;
+    /**
+     * Количество путей.
+     */
+    private final int pathCount;
+
+    /**
+     * Стандартный конструктор.
+     *
+     * @param chunks     части отображения файла.
+     * @param chunkShift логарифм размера части.
+     * @param pathCount  количество путей.
+     */
+    private CurveFile(ByteBuffer[] chunks, int chunkShift, int pathCount) {
+        this.chunks = chunks;
+        this.chunkShift = chunkShift;
+        this.pathCount = pathCount;
+    }
+
+    /**
+     * Открывает файл и отображает его в память. Канал закрывается сразу после отображения: отображение остается
+     * действительным и освобождается сборщиком мусора вместе с последним представлением.
+     *
+     * @param file файл.
+     * @return открытый файл.
+     * @throws IOException при ошибке чтения или неверном формате файла.
+     */
+    public static CurveFile open(File file) throws IOException {
+        if (file == null) throw new NullPointerException("file == null");
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER) throw new IOException("file is too short: " + size);
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) throw new IOException("bad magic");
+            int version = header.getInt(4);
+            if (version != VERSION) throw new IOException("unsupported version: " + version);
+            int chunkShift = header.getInt(8);
+            if (chunkShift < MIN_CHUNK_SHIFT || chunkShift > DEFAULT_CHUNK_SHIFT) {
+                throw new IOException("bad chunk shift: " + chunkShift);
+            }
+            int pathCount = header.getInt(12);
+            if (pathCount < 0 || HEADER + 8L * pathCount > size) throw new IOException("bad path count: " + pathCount);
+
+            long chunkSize = 1L << chunkShift;
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((size + chunkSize - 1) >>> chunkShift)];
+            for (int i = 0; i < chunks.length; i++) {
+                long position = (long) i << chunkShift;
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(chunkSize, size - position));
+                chunks[i] = chunk.order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new CurveFile(chunks, chunkShift, pathCount);
+        }
+    }
+
+    /**
+     * Записывает пути в файл с частями по умолчанию.
+     *
+     * @param file  файл.
+     * @param paths пути.
+     * @throws IOException при ошибке записи.
+     * @see #write(File, List, int)
+     */
+    public static void write(File file, List<? extends CurvePath.D2> paths) throws IOException {
+        write(file, paths, DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * Записывает пути в файл. Поддерживаются пути из отрезков {@link LineCurve.D2}, кривых Безье
+     * {@link QuadraticBezierCurve.D2} и {@link CubicBezierCurve.D2}, дуг {@link ArcCurve2D} и представлений
+     * {@link Segment}.
+     *
+     * @param file       файл.
+     * @param paths      пути.
+     * @param chunkShift логарифм размера части отображения, от 12 до 30.
+     * @throws IOException при ошибке записи.
+     */
+    public static void write(File file, List<? extends CurvePath.D2> paths, int chunkShift) throws IOException {
+        if (file == null) throw new NullPointerException("file == null");
+        if (paths == null) throw new NullPointerException("paths == null");
+        if (chunkShift < MIN_CHUNK_SHIFT || chunkShift > DEFAULT_CHUNK_SHIFT) {
+            throw new IllegalArgumentException("chunkShift: " + chunkShift);
+        }
+
+        int pathCount = paths.size();
+        long chunkSize = 1L << chunkShift;
+        long[] offsets = new long[pathCount];
+        long position = HEADER + 8L * pathCount;
+        int maxSize = 0;
+        for (int i = 0; i < pathCount; i++) {
+            int size = recordSize(paths.get(i));
+            if (size > chunkSize) throw new IllegalArgumentException("path is larger than chunk: " + i);
+            if ((position & (chunkSize - 1)) + size > chunkSize) position = (position | (chunkSize - 1)) + 1;
+            offsets[i] = position;
+            position += size;
+            maxSize = Math.max(maxSize, size);
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(HEADER, maxSize)).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(chunkShift).putInt(pathCount);
+            buffer.flip();
+            writeFully(channel, buffer, 0);
+
+            ByteBuffer index = ByteBuffer.allocate(8 * Math.min(pathCount, 8192)).order(ByteOrder.LITTLE_ENDIAN);
+            long indexPosition = HEADER;
+            for (int i = 0; i < pathCount; i++) {
+                index.putLong(offsets[i]);
+                if (!index.hasRemaining() || i == pathCount - 1) {
+                    index.flip();
+                    indexPosition += writeFully(channel, index, indexPosition);
+                    index.clear();
+                }
+            }
+
+            for (int i = 0; i < pathCount; i++) {
+                buffer.clear();
+                putRecord(buffer, paths.get(i));
+                buffer.flip();
+                writeFully(channel, buffer, offsets[i]);
+            }
+        }
+    }
+
+    /**
+     * Получает количество путей.
+     *
+     * @return количество путей.
+     */
+    public int getPathCount() {
+        return this.pathCount;
+    }
+
+    /**
+     * Получает количество кривых пути.
+     *
+     * @param path индекс пути.
+     * @return количество кривых.
+     */
+    public int getCurveCount(int path) {
+        long offset = this.getPathOffset(path);
+        return this.chunk(offset).getInt(this.local(offset));
+    }
+
+    /**
+     * Получает представление кривой пути. Представление не копирует координаты и вычисляет точки прямо
+     * по отображению файла.
+     *
+     * @param path  индекс пути.
+     * @param index индекс кривой в пути.
+     * @return представление кривой.
+     */
+    public Segment getCurve(int path, int index) {
+        long offset = this.getPathOffset(path);
+        ByteBuffer chunk = this.chunk(offset);
+        int base = this.local(offset);
+        int count = chunk.getInt(base);
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("index: " + index);
+        return new Segment(chunk, base + chunk.getInt(base + 4 + 4 * index));
+    }
+
+    /**
+     * Получает путь, составленный из представлений его кривых. Создаются только легкие объекты представлений,
+     * координаты остаются в отображении файла.
+     *
+     * @param path индекс пути.
+     * @return новый путь.
+     */
+    public CurvePath.D2 getPath(int path) {
+        long offset = this.getPathOffset(path);
+        ByteBuffer chunk = this.chunk(offset);
+        int base = this.local(offset);
+        int count = chunk.getInt(base);
+
+        CurvePath.D2 result = new CurvePath.D2();
+        for (int i = 0; i < count; i++) {
+            result.add(new Segment(chunk, base + chunk.getInt(base + 4 + 4 * i)));
+        }
+        return result;
+    }
+
+    /**
+     * Получает смещение записи пути от начала файла.
+     *
+     * @param path индекс пути.
+     * @return смещение записи.
+     */
+    private long getPathOffset(int path) {
+        if (path < 0 || path >= this.pathCount) throw new IndexOutOfBoundsException("path: " + path);
+        long entry = HEADER + 8L * path;
+        return this.chunk(entry).getLong(this.local(entry));
+    }
+
+    /**
+     * @param offset смещение от начала файла.
+     * @return часть отображения, содержащую смещение.
+     */
+    private ByteBuffer chunk(long offset) {
+        return this.chunks[(int) (offset >>> this.chunkShift)];
+    }
+
+    /**
+     * @param offset смещение от начала файла.
+     * @return смещение внутри части отображения.
+     */
+    private int local(long offset) {
+        return (int) (offset & ((1L << this.chunkShift) - 1));
+    }
+
+    /**
+     * Вычисляет размер записи пути в байтах.
+     *
+     * @param path путь.
+     * @return размер записи.
+     */
+    private static int recordSize(CurvePath.D2 path) {
+        if (path == null) throw new NullPointerException("path == null");
+
+        int count = path.getCurveCount();
+        long size = 4 + 4L * count;
+        for (int i = 0; i < count; i++) {
+            size += 4 + 4 * wordCount(tag(path.getCurve(i)));
+        }
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("path is too large");
+        return (int) size;
+    }
+
+    /**
+     * Записывает запись пути в буфер.
+     *
+     * @param buffer буфер.
+     * @param path   путь.
+     */
+    private static void putRecord(ByteBuffer buffer, CurvePath.D2 path) {
+        int count = path.getCurveCount();
+        buffer.putInt(count);
+        int offset = 4 + 4 * count;
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(offset);
+            offset += 4 + 4 * wordCount(tag(path.getCurve(i)));
+        }
+
+        for (int i = 0; i < count; i++) {
+            Curve.D2 curve = path.getCurve(i);
+            int tag = tag(curve);
+            buffer.putInt(tag);
+            if (curve instanceof Segment) {
+                Segment segment = (Segment) curve;
+                for (int j = 0; j < wordCount(tag); j++) {
+                    buffer.putInt(segment.buffer.getInt(segment.offset + 4 + 4 * j));
+                }
+            } else if (tag == LINE) {
+                LineCurve.D2 line = (LineCurve.D2) curve;
+                putPoint(buffer, line.getStart());
+                putPoint(buffer, line.getEnd());
+            } else if (tag == QUADRATIC) {
+                QuadraticBezierCurve.D2 quadratic = (QuadraticBezierCurve.D2) curve;
+                putPoint(buffer, quadratic.getStart());
+                putPoint(buffer, quadratic.getControl());
+                putPoint(buffer, quadratic.getEnd());
+            } else if (tag == CUBIC) {
+                CubicBezierCurve.D2 cubic = (CubicBezierCurve.D2) curve;
+                putPoint(buffer, cubic.getStart());
+                putPoint(buffer, cubic.getControl1());
+                putPoint(buffer, cubic.getControl2());
+                putPoint(buffer, cubic.getEnd());
+            } else {
+                ArcCurve2D arc = (ArcCurve2D) curve;
+                putPoint(buffer, arc.getCenter());
+                buffer.putFloat(arc.getRadius());
+                buffer.putFloat(arc.getStartAngle());
+                buffer.putFloat(arc.getEndAngle());
+                buffer.putInt(arc.isClockwise() ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * @param buffer буфер.
+     * @param point  точка.
+     */
+    private static void putPoint(ByteBuffer buffer, Vector2 point) {
+        buffer.putFloat(point.x);
+        buffer.putFloat(point.y);
+    }
+
+    /**
+     * Записывает буфер в канал целиком.
+     *
+     * @param channel  канал.
+     * @param buffer   буфер.
+     * @param position позиция в файле.
+     * @return количество записанных байт.
+     * @throws IOException при ошибке записи.
+     */
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    /**
+     * Получает тег типа кривой.
+     *
+     * @param curve кривая.
+     * @return тег.
+     */
+    private static int tag(Curve.D2 curve) {
+        if (curve instanceof Segment) return ((Segment) curve).getType();
+        if (curve instanceof LineCurve.D2) return LINE;
+        if (curve instanceof QuadraticBezierCurve.D2) return QUADRATIC;
+        if (curve instanceof CubicBezierCurve.D2) return CUBIC;
+        if (curve instanceof ArcCurve2D) return ARC;
+        throw new IllegalArgumentException("unsupported curve: " + curve.getClass().getName());
+    }
+
+    /**
+     * Получает количество 4-байтовых слов данных кривой, без тега.
+     *
+     * @param tag тег.
+     * @return количество слов.
+     */
+    private static int wordCount(int tag) {
+        switch (tag) {
+            case LINE:
+                return 4;
+            case QUADRATIC:
+                return 6;
+            case CUBIC:
+                return 8;
+            case ARC:
+                return 6;
+            default:
+                throw new IllegalArgumentException("tag: " + tag);
+        }
+    }
+
+    /**
+     * Представление кривой, хранящейся в отображении файла. Координаты читаются из отображения при каждом
+     * вычислении, поэтому представление занимает несколько байт и создается без разбора данных.
+     * Тип кривой задается тегом, см. {@link #getType()}. Длина, касательная, ограничивающий прямоугольник,
+     * количество отрезков ломаной и ближайшая точка вычисляются по тем же точным формулам, что и у соответствующих
+     * классов кривых; полноценный объект кривой можно получить методом {@link #toCurve()}.
+     *
+     * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+     */
+    public static final class Segment extends Curve.D2 {
+
+        /**
+         * Часть отображения файла.
+         */
+        private final ByteBuffer buffer;
+        /**
+         * Смещение тега кривой в части отображения.
+         */
+        private final int offset;
+        /**
+         * Тег типа кривой.
+         */
+        private final int type;
+
+        /**
+         * Стандартный конструктор.
+         *
+         * @param buffer часть отображения файла.
+         * @param offset смещение тега кривой.
+         */
+        private Segment(ByteBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.type = buffer.getInt(offset);
+            wordCount(this.type);
+        }
+
+        /**
+         * Получает тег типа кривой: {@link #LINE}, {@link #QUADRATIC}, {@link #CUBIC} или {@link #ARC}.
+         *
+         * @return тег.
+         */
+        public int getType() {
+            return this.type;
+        }
+
+        /**
+         * Читает число данных кривой.
+         *
+         * @param index индекс числа.
+         * @return число.
+         */
+        private float get(int index) {
+            return this.buffer.getFloat(this.offset + 4 + 4 * index);
+        }
+
+        @Override
+        public Vector2 getPointAt(float t, Vector2 out) {
+            switch (this.type) {
+                case LINE: {
+                    out.x = (1 - t) * this.get(0) + t * this.get(2);
+                    out.y = (1 - t) * this.get(1) + t * this.get(3);
+                    return out;
+                }
+                case QUADRATIC: {
+                    float s = 1 - t;
+                    float a = s * s, b = 2 * s * t, c = t * t;
+                    out.x = a * this.get(0) + b * this.get(2) + c * this.get(4);
+                    out.y = a * this.get(1) + b * this.get(3) + c * this.get(5);
+                    return out;
+                }
+                case CUBIC: {
+                    float s = 1 - t;
+                    float a = s * s * s, b = 3 * s * s * t, c = 3 * s * t * t, d = t * t * t;
+                    out.x = a * this.get(0) + b * this.get(2) + c * this.get(4) + d * this.get(6);
+                    out.y = a * this.get(1) + b * this.get(3) + c * this.get(5) + d * this.get(7);
+                    return out;
+                }
+                default: {
+                    if (!this.isClockwise()) t = 1.0f - t;
+                    float radius = this.get(2);
+                    float angle = this.get(3) + t * (this.get(4) - this.get(3));
+                    out.x = this.get(0) + radius * MoreMath.cos(angle);
+                    out.y = this.get(1) + radius * MoreMath.sin(angle);
+                    return out;
+                }
+            }
+        }
+
+        @Override
+        public Vector2 getTangentAt(float t, Vector2 out) {
+            if (this.type != ARC) {
+                this.getDerivativeAt(t, out);
+                out.normalize();
+                return out;
+            }
+
+            float startAngle = this.get(3), endAngle = this.get(4);
+            float deltaAngle = endAngle - startAngle;
+            if (!this.isClockwise()) {
+                t = 1.0f - t;
+                deltaAngle = -deltaAngle;
+            }
+            float angle = startAngle + t * (endAngle - startAngle);
+            float sign = Math.signum(this.get(2) * deltaAngle);
+            out.x = -sign * MoreMath.sin(angle);
+            out.y = sign * MoreMath.cos(angle);
+            return out;
+        }
+
+        /**
+         * Получает производную отрезка или кривой Безье по степенному базису, как {@link CubicBezierCurve.D2}.
+         * Для дуги не используется.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        private Vector2 getDerivativeAt(float t, Vector2 out) {
+            out.x = this.derivative(0, t);
+            out.y = this.derivative(1, t);
+            return out;
+        }
+
+        /**
+         * Количество отрезков вычисляется теми же формулами, что и у {@link LineCurve.D2},
+         * {@link QuadraticBezierCurve.D2}, {@link CubicBezierCurve.D2} и {@link ArcCurve2D}.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return количество отрезков, не меньше 1.
+         */
+        @Override
+        public int getDivisions(float tolerance) {
+            if (tolerance <= 0.0f) throw new IllegalArgumentException("tolerance <= 0");
+
+            switch (this.type) {
+                case LINE:
+                    return 1;
+                case QUADRATIC: {
+                    float ax = this.b(0), ay = this.b(1);
+                    return divisions(2.0f * (float) Math.sqrt(ax * ax + ay * ay), tolerance);
+                }
+                case CUBIC: {
+                    float x0 = 2.0f * this.b(0), y0 = 2.0f * this.b(1);
+                    float x1 = 6.0f * this.a(0) + x0, y1 = 6.0f * this.a(1) + y0;
+                    return divisions((float) Math.sqrt(Math.max(x0 * x0 + y0 * y0, x1 * x1 + y1 * y1)), tolerance);
+                }
+                default: {
+                    float sweep = MoreMath.abs(this.get(4) - this.get(3));
+                    float radius = MoreMath.abs(this.get(2));
+                    if (tolerance >= radius) return Math.max(1, (int) Math.ceil(sweep / MoreMath.PI));
+
+                    double step = 2.0 * Math.acos(1.0 - tolerance / radius);
+                    return Math.max(1, (int) Math.ceil(sweep / step));
+                }
+            }
+        }
+
+        /**
+         * Точный ограничивающий прямоугольник: для отрезка и кривых Безье по каждой оси берутся концы кривой и точки,
+         * в которых производная обращается в ноль; для дуги используется {@link ArcCurve2D}.
+         *
+         * @return ограничивающий прямоугольник.
+         */
+        @Override
+        protected Bounds.D2 computeBounds() {
+            if (this.type == ARC) return this.toCurve().getBounds();
+
+            float[] range = new float[4];
+            Roots.range(this.a(0), this.b(0), this.c(0), this.get(0), range, 0);
+            Roots.range(this.a(1), this.b(1), this.c(1), this.get(1), range, 2);
+            return new Bounds.D2(range[0], range[2], range[1], range[3]);
+        }
+
+        /**
+         * Длина отрезка, квадратичной кривой и дуги вычисляется точно по формуле, длина кубической кривой равна
+         * последнему значению таблицы длин.
+         *
+         * @return длину кривой.
+         */
+        @Override
+        public float getLength() {
+            switch (this.type) {
+                case LINE: {
+                    float dx = this.get(2) - this.get(0);
+                    float dy = this.get(3) - this.get(1);
+                    return (float) Math.sqrt(dx * dx + dy * dy);
+                }
+                case QUADRATIC:
+                    return this.getQuadraticLength(0.0f, 1.0f);
+                case CUBIC:
+                    return super.getLength();
+                default:
+                    return MoreMath.abs(this.get(2) * (this.get(4) - this.get(3)));
+            }
+        }
+
+        @Override
+        protected float[] computeLengths(int divisions) {
+            float[] cache = new float[divisions + 1];
+            switch (this.type) {
+                case QUADRATIC: {
+                    float length = 0.0f;
+                    for (int p = 1; p <= divisions; p++) {
+                        length += this.getQuadraticLength((float) (p - 1) / divisions, (float) p / divisions);
+                        cache[p] = length;
+                    }
+                    return cache;
+                }
+                case CUBIC: {
+                    Vector2 derivative = new Vector2();
+                    for (int p = 0; p <= divisions; p++) {
+                        this.getDerivativeAt((float) p / divisions, derivative);
+                        cache[p] = (float) Math.sqrt(derivative.x * derivative.x + derivative.y * derivative.y);
+                    }
+                    return ArcLength.accumulate(cache);
+                }
+                default: {
+                    // Длина отрезка и дуги растет линейно по параметру.
+                    float length = this.getLength();
+                    for (int p = 1; p <= divisions; p++) {
+                        cache[p] = length * p / divisions;
+                    }
+                    return cache;
+                }
+            }
+        }
+
+        /**
+         * Получает длину части квадратичной кривой между двумя значениями параметра, как
+         * {@link QuadraticBezierCurve.D2#getLength(float, float)}.
+         */
+        private float getQuadraticLength(float t0, float t1) {
+            // P'(t) = 2 * (b * t + c / 2).
+            double aX = this.b(0);
+            double bX = 0.5 * this.c(0);
+            double aY = this.b(1);
+            double bY = 0.5 * this.c(1);
+            return 2.0f * ArcLength.linearSpeedIntegral(aX * aX + aY * aY, aX * bX + aY * bY, bX * bX + bY * bY,
+                    t0, t1);
+        }
+
+        /**
+         * Ближайшая точка отрезка находится проекцией точки на прямую, дуги - как у {@link ArcCurve2D}.
+         */
+        @Override
+        public float getClosestT(float x, float y) {
+            switch (this.type) {
+                case LINE: {
+                    float x0 = this.get(0), y0 = this.get(1);
+                    float dx = this.get(2) - x0;
+                    float dy = this.get(3) - y0;
+                    float lengthSquared = dx * dx + dy * dy;
+                    if (lengthSquared == 0.0f) return 0.0f;
+                    return MoreMath.clamp(((x - x0) * dx + (y - y0) * dy) / lengthSquared, 0.0f, 1.0f);
+                }
+                case ARC:
+                    return this.toCurve().getClosestT(x, y);
+                default:
+                    return super.getClosestT(x, y);
+            }
+        }
+
+        /**
+         * Уточняет ближайшую точку кривой Безье методом Ньютона, как {@link CubicBezierCurve.D2}. Если вторая
+         * производная квадрата расстояния не положительна, используется метод золотого сечения.
+         */
+        @Override
+        protected float refineClosestT(float x, float y, float t, float min, float max) {
+            if (this.type != QUADRATIC && this.type != CUBIC) return super.refineClosestT(x, y, t, min, max);
+
+            float ax = this.a(0), bx = this.b(0), cx = this.c(0), dx0 = this.get(0);
+            float ay = this.a(1), by = this.b(1), cy = this.c(1), dy0 = this.get(1);
+            for (int i = 0; i < CLOSEST_ITERATIONS; i++) {
+                float px = ((ax * t + bx) * t + cx) * t + dx0 - x;
+                float py = ((ay * t + by) * t + cy) * t + dy0 - y;
+                float dx = (3.0f * ax * t + 2.0f * bx) * t + cx;
+                float dy = (3.0f * ay * t + 2.0f * by) * t + cy;
+                float ddx = 6.0f * ax * t + 2.0f * bx;
+                float ddy = 6.0f * ay * t + 2.0f * by;
+
+                float numerator = px * dx + py * dy;
+                float denominator = dx * dx + dy * dy + px * ddx + py * ddy;
+                if (denominator <= 0.0f) return super.refineClosestT(x, y, t, min, max);
+
+                float next = MoreMath.clamp(t - numerator / denominator, min, max);
+                if (Math.abs(next - t) < 1.0e-7f) return next;
+                t = next;
+            }
+            return t;
+        }
+
+        /**
+         * Коэффициенты степенного базиса {@code P(t) = ((a * t + b) * t + c) * t + P0} отрезка или кривой Безье по
+         * оси {@code axis}: 0 - x, 1 - y. У отрезка и квадратичной кривой старшие коэффициенты равны нулю.
+         */
+        private float a(int axis) {
+            if (this.type != CUBIC) return 0.0f;
+            return -this.get(axis) + 3.0f * this.get(2 + axis) - 3.0f * this.get(4 + axis) + this.get(6 + axis);
+        }
+
+        /**
+         * @see #a(int)
+         */
+        private float b(int axis) {
+            switch (this.type) {
+                case QUADRATIC:
+                    return this.get(axis) - 2.0f * this.get(2 + axis) + this.get(4 + axis);
+                case CUBIC:
+                    return 3.0f * this.get(axis) - 6.0f * this.get(2 + axis) + 3.0f * this.get(4 + axis);
+                default:
+                    return 0.0f;
+            }
+        }
+
+        /**
+         * @see #a(int)
+         */
+        private float c(int axis) {
+            switch (this.type) {
+                case LINE:
+                    return this.get(2 + axis) - this.get(axis);
+                case QUADRATIC:
+                    return 2.0f * (this.get(2 + axis) - this.get(axis));
+                default:
+                    return 3.0f * (this.get(2 + axis) - this.get(axis));
+            }
+        }
+
+        /**
+         * @param axis ось: 0 - x, 1 - y.
+         * @param t    значение от 0 до 1.
+         * @return производную по оси.
+         */
+        private float derivative(int axis, float t) {
+            return (3.0f * this.a(axis) * t + 2.0f * this.b(axis)) * t + this.c(axis);
+        }
+
+        /**
+         * @return направление дуги.
+         */
+        private boolean isClockwise() {
+            return this.buffer.getInt(this.offset + 24) != 0;
+        }
+
+        /**
+         * Создает объект кривой с координатами этого представления.
+         *
+         * @return новую кривую.
+         */
+        public Curve.D2 toCurve() {
+            switch (this.type) {
+                case LINE:
+                    return new LineCurve.D2(this.point(0), this.point(2));
+                case QUADRATIC:
+                    return new QuadraticBezierCurve.D2(this.point(0), this.point(2), this.point(4));
+                case CUBIC:
+                    return new CubicBezierCurve.D2(this.point(0), this.point(2), this.point(4), this.point(6));
+                default:
+                    return new ArcCurve2D(this.get(0), this.get(1), this.get(2), this.get(3), this.get(4),
+                            this.isClockwise());
+            }
+        }
+
+        /**
+         * @param index индекс x-координаты точки.
+         * @return новую точку.
+         */
+        private Vector2 point(int index) {
+            return new Vector2(this.get(index), this.get(index + 1));
+        }
+
+    }
+
+}
@@ -0,0 +1,633 @@
+/*
+ *
+ */
+package ru.ildev.curve;
+
+import ru.ildev.geom.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * Нахождение точек пересечения кривых на плоскости. Каждая кривая представляется набором кубических кусков: отрезки
+ * и кривые Безье представляются точно, дуги - кубическими кривыми Безье не больше четверти окружности, остальные
+ * кривые - ломаной. Пары кусков отбираются по ограничивающим прямоугольникам с помощью {@link BoundsTree}. Пересечение
+ * куска с отрезком находится как корни кубического уравнения, а два криволинейных куска делятся пополам, пока их
+ * ограничивающие прямоугольники пересекаются и куски не станут плоскими. Найденные приближения уточняются методом
+ * Ньютона по исходным кривым.
+ * <p>
+ * Для {@link CurvePath.D2} пары кривых отбираются по иерархии ограничивающих объемов пути. Касания находятся с
+ * точностью до {@link #getTolerance()}. Совпадающие участки кривых не сообщаются: пары плоских кусков, лежащих на
+ * одной прямой с точностью до допуска и перекрывающихся, отбрасываются, а найденная точка отбрасывается, если по обе
+ * стороны от нее первая кривая не отходит от второй дальше допуска. Концы совпадающего участка сообщаются, только если
+ * кривые в них расходятся. Количество делений, порождаемых одной парой кусков, ограничено.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+public final class CurveIntersector {
+
+    /**
+     * Допустимое расстояние по умолчанию.
+     */
+    private static final float DEFAULT_TOLERANCE = 1.0e-3f;
+    /**
+     * Наибольшее количество делений пары кусков.
+     */
+    private static final int MAX_DEPTH = 64;
+    /**
+     * Наибольшее количество итераций метода Ньютона.
+     */
+    private static final int REFINE_ITERATIONS = 16;
+    /**
+     * Шаг численного дифференцирования исходных кривых.
+     */
+    private static final float STEP = 1.0e-3f;
+    /**
+     * Допуск параметров отрезков, чтобы не потерять пересечения на стыках кусков.
+     */
+    private static final double SLACK = 1.0e-2;
+    /**
+     * Наименьшая разница значений {@code t}, при которой пересечения считаются различными.
+     */
+    private static final float SEPARATION = 1.0e-4f;
+    /**
+     * Наименьший шаг по параметру первой кривой, на котором проверяется совпадение кривых по обе стороны от
+     * пересечения. Следующие шаги увеличиваются в четыре раза.
+     */
+    private static final float COINCIDENCE_STEP = 1.0e-2f;
+    /**
+     * Наибольшее количество пар кусков, рассматриваемых при делении одной исходной пары.
+     */
+    private static final int MAX_PAIRS = 1 << 12;
+
+    /**
+     * Наибольшее расстояние между точками двух кривых, при котором они считаются пересекающимися.
+     */
+    private final float tolerance;
+
+    /**
+     * Стандартный конструктор. Допустимое расстояние равно 0.001.
+     */
+    public CurveIntersector() {
+        this(DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * @param tolerance наибольшее расстояние между точками двух кривых, при котором они считаются пересекающимися.
+     */
+    public CurveIntersector(float tolerance) {
+        if (tolerance <= 0.0f) throw new IllegalArgumentException("tolerance <= 0");
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Получает допустимое расстояние.
+     *
+     * @return наибольшее расстояние между точками двух кривых, при котором они считаются пересекающимися.
+     */
+    public float getTolerance() {
+        return this.tolerance;
+    }
+
+    /**
+     * Находит пересечения двух кривых. Для каждого пересечения в {@code out} записывается пара значений {@code t}:
+     * сначала на первой кривой, затем на второй.
+     *
+     * @param a   первая кривая.
+     * @param b   вторая кривая.
+     * @param out массив для записи пар значений {@code t}.
+     * @return количество пересечений; в {@code out} записываются пары, для которых хватило места.
+     */
+    public int intersect(Curve.D2 a, Curve.D2 b, float[] out) {
+        if (a == null) throw new NullPointerException("a == null");
+        if (b == null) throw new NullPointerException("b == null");
+        if (out == null) throw new NullPointerException("out == null");
+
+        Pairs pairs = new Pairs();
+        this.collect(a, b, pairs);
+        System.arraycopy(pairs.values, 0, out, 0, Math.min(2 * pairs.size, out.length & ~1));
+        return pairs.size;
+    }
+
+    /**
+     * Находит пересечения двух кривых, раскрывая составные кривые.
+     */
+    private void collect(Curve.D2 a, Curve.D2 b, Pairs pairs) {
+        if (a instanceof CurvePath.D2) {
+            this.collectPath((CurvePath.D2) a, b, false, pairs);
+            return;
+        }
+        if (b instanceof CurvePath.D2) {
+            this.collectPath((CurvePath.D2) b, a, true, pairs);
+            return;
+        }
+
+        Bounds.D2 boundsA = a.getBounds(), boundsB = b.getBounds();
+        if (boundsA == null || boundsB == null) return;
+        float tolerance = this.tolerance;
+        if (!boundsA.intersects(boundsB.getMinX() - tolerance, boundsB.getMinY() - tolerance,
+                boundsB.getMaxX() + tolerance, boundsB.getMaxY() + tolerance)) return;
+
+        Piece[] piecesA = this.pieces(a), piecesB = this.pieces(b);
+        float[] boxes = new float[4 * piecesB.length];
+        for (int i = 0; i < piecesB.length; i++) {
+            piecesB[i].bounds(tolerance, boxes, 4 * i);
+        }
+        BoundsTree tree = new BoundsTree(2, boxes, piecesB.length);
+
+        int[] found = new int[piecesB.length];
+        float[] box = new float[4];
+        float[] min = new float[2], max = new float[2];
+        for (Piece piece : piecesA) {
+            piece.bounds(tolerance, box, 0);
+            min[0] = box[0];
+            min[1] = box[1];
+            max[0] = box[2];
+            max[1] = box[3];
+
+            int count = tree.query(min, max, found, 0);
+            for (int i = 0; i < count; i++) {
+                this.intersect(piece, piecesB[found[i]], a, b, pairs, 0, MAX_PAIRS);
+            }
+        }
+    }
+
+    /**
+     * Находит пересечения кривых пути с другой кривой. Кривые пути отбираются по ограничивающему прямоугольнику другой
+     * кривой.
+     *
+     * @param swapped является ли путь второй кривой пары.
+     */
+    private void collectPath(CurvePath.D2 path, Curve.D2 other, boolean swapped, Pairs pairs) {
+        Bounds.D2 bounds = other.getBounds();
+        if (bounds == null) return;
+
+        float tolerance = this.tolerance;
+        int[] found = new int[path.getCurveCount()];
+        int count = path.findCurves(bounds.getMinX() - tolerance, bounds.getMinY() - tolerance,
+                bounds.getMaxX() + tolerance, bounds.getMaxY() + tolerance, found);
+
+        Pairs local = new Pairs();
+        for (int i = 0; i < count; i++) {
+            int index = found[i];
+            local.size = 0;
+            this.collect(path.getCurve(index), other, local);
+
+            for (int k = 0; k < local.size; k++) {
+                float t = path.toPathT(index, local.values[2 * k]);
+                float u = local.values[2 * k + 1];
+                if (swapped) {
+                    pairs.add(u, t);
+                } else {
+                    pairs.add(t, u);
+                }
+            }
+        }
+    }
+
+    /**
+     * Находит пересечения двух кусков и уточняет их по исходным кривым.
+     *
+     * @param budget оставшееся количество пар кусков, которые можно рассмотреть.
+     * @return количество пар кусков, которые еще можно рассмотреть.
+     */
+    private int intersect(Piece p, Piece q, Curve.D2 a, Curve.D2 b, Pairs pairs, int depth, int budget) {
+        if (budget <= 0) return 0;
+        budget--;
+        double tolerance = this.tolerance;
+        if (!p.overlaps(q, tolerance)) return budget;
+
+        if (p.linear && q.linear) {
+            this.segments(p, q, a, b, pairs);
+        } else if (p.linear) {
+            this.lineCubic(p, q, a, b, false, pairs);
+        } else if (q.linear) {
+            this.lineCubic(q, p, b, a, true, pairs);
+        } else {
+            boolean flatP = p.isFlat(tolerance), flatQ = q.isFlat(tolerance);
+            if (depth >= MAX_DEPTH || (flatP && flatQ)) {
+                this.segments(p, q, a, b, pairs);
+            } else if (flatQ || (!flatP && p.size() >= q.size())) {
+                budget = this.intersect(p.half(true), q, a, b, pairs, depth + 1, budget);
+                budget = this.intersect(p.half(false), q, a, b, pairs, depth + 1, budget);
+            } else {
+                budget = this.intersect(p, q.half(true), a, b, pairs, depth + 1, budget);
+                budget = this.intersect(p, q.half(false), a, b, pairs, depth + 1, budget);
+            }
+        }
+        return budget;
+    }
+
+    /**
+     * Находит пересечение хорд двух кусков. Перекрывающиеся куски, лежащие на одной прямой, считаются совпадающими.
+     */
+    private void segments(Piece p, Piece q, Curve.D2 a, Curve.D2 b, Pairs pairs) {
+        double px = p.x[3] - p.x[0], py = p.y[3] - p.y[0];
+        double qx = q.x[3] - q.x[0], qy = q.y[3] - q.y[0];
+        if (px * px + py * py >= qx * qx + qy * qy ? this.isAlong(q, p) : this.isAlong(p, q)) return;
+
+        double denominator = px * qy - py * qx;
+        if (denominator == 0.0) return;
+
+        double rx = q.x[0] - p.x[0], ry = q.y[0] - p.y[0];
+        double s = (rx * qy - ry * qx) / denominator;
+        double u = (rx * py - ry * px) / denominator;
+        if (s < -SLACK || s > 1.0 + SLACK || u < -SLACK || u > 1.0 + SLACK) return;
+
+        this.refine(a, b, p.toT(s), q.toT(u), pairs);
+    }
+
+    /**
+     * Находит пересечения отрезка с кубическим куском как корни кубического уравнения: расстояние от точки куска до
+     * прямой отрезка является кубическим многочленом от {@code t}. Двойной корень касания из-за округления может
+     * оказаться парой комплексных корней, поэтому, если найдено не больше одного действительного корня, кандидатами
+     * также считаются экстремумы многочлена, в которых расстояние до прямой не больше допустимого.
+     *
+     * @param swapped является ли отрезок куском второй кривой пары.
+     */
+    private void lineCubic(Piece line, Piece cubic, Curve.D2 lineCurve, Curve.D2 cubicCurve, boolean swapped,
+                           Pairs pairs) {
+        double dx = line.x[3] - line.x[0], dy = line.y[3] - line.y[0];
+        double lengthSquared = dx * dx + dy * dy;
+        if (lengthSquared == 0.0 || this.isAlong(cubic, line)) return;
+
+        double[] x = cubic.x, y = cubic.y;
+        double ax = -x[0] + 3.0 * x[1] - 3.0 * x[2] + x[3], ay = -y[0] + 3.0 * y[1] - 3.0 * y[2] + y[3];
+        double bx = 3.0 * x[0] - 6.0 * x[1] + 3.0 * x[2], by = 3.0 * y[0] - 6.0 * y[1] + 3.0 * y[2];
+        double cx = 3.0 * (x[1] - x[0]), cy = 3.0 * (y[1] - y[0]);
+        double ex = x[0] - line.x[0], ey = y[0] - line.y[0];
+
+        // Проекции на нормаль (-dy, dx) к отрезку.
+        double a = dx * ay - dy * ax, b = dx * by - dy * bx, c = dx * cy - dy * cx, d = dx * ey - dy * ex;
+        double limit = this.tolerance * Math.sqrt(lengthSquared);
+        double[] roots = new double[5];
+        int count = Roots.cubic(a, b, c, d, roots);
+        if (count <= 1) {
+            double[] extrema = new double[2];
+            int extremaCount = Roots.quadratic(3.0 * a, 2.0 * b, c, extrema);
+            for (int i = 0; i < extremaCount; i++) {
+                double t = extrema[i];
+                if (Math.abs(((a * t + b) * t + c) * t + d) <= limit) roots[count++] = t;
+            }
+        }
+
+        // Соседние кандидаты, между которыми кусок не отходит от прямой дальше допустимого, описывают одно касание:
+        // остается кандидат, ближайший к прямой.
+        Arrays.sort(roots, 0, count);
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            double t = roots[i];
+            if (kept > 0) {
+                double previous = roots[kept - 1], middle = 0.5 * (previous + t);
+                if (Math.abs(((a * middle + b) * middle + c) * middle + d) <= limit) {
+                    double fp = Math.abs(((a * previous + b) * previous + c) * previous + d);
+                    if (Math.abs(((a * t + b) * t + c) * t + d) < fp) roots[kept - 1] = t;
+                    continue;
+                }
+            }
+            roots[kept++] = t;
+        }
+
+        for (int i = 0; i < kept; i++) {
+            double t = roots[i];
+            if (t < -SLACK || t > 1.0 + SLACK) continue;
+
+            double px = ((ax * t + bx) * t + cx) * t + ex;
+            double py = ((ay * t + by) * t + cy) * t + ey;
+            double s = (px * dx + py * dy) / lengthSquared;
+            if (s < -SLACK || s > 1.0 + SLACK) continue;
+
+            if (swapped) {
+                this.refine(cubicCurve, lineCurve, cubic.toT(t), line.toT(s), pairs);
+            } else {
+                this.refine(lineCurve, cubicCurve, line.toT(s), cubic.toT(t), pairs);
+            }
+        }
+    }
+
+    /**
+     * Уточняет пересечение методом Ньютона для уравнения {@code A(s) = B(u)} и добавляет его, если точки кривых
+     * сошлись на расстояние не больше допустимого. Производные кривых вычисляются численно, поэтому метод подходит
+     * для любых кривых.
+     */
+    private void refine(Curve.D2 a, Curve.D2 b, float s, float u, Pairs pairs) {
+        s = Math.max(0.0f, Math.min(1.0f, s));
+        u = Math.max(0.0f, Math.min(1.0f, u));
+
+        Vector2 pointA = new Vector2(), pointB = new Vector2();
+        Vector2 derivativeA = new Vector2(), derivativeB = new Vector2();
+        float bestS = s, bestU = u;
+        float best = Float.POSITIVE_INFINITY;
+
+        for (int i = 0; i < REFINE_ITERATIONS; i++) {
+            a.getPointAt(s, pointA);
+            b.getPointAt(u, pointB);
+            float rx = pointA.x - pointB.x, ry = pointA.y - pointB.y;
+            float distance = rx * rx + ry * ry;
+            if (distance < best) {
+                best = distance;
+                bestS = s;
+                bestU = u;
+            }
+            if (distance == 0.0f) break;
+
+            derivative(a, s, pointA, derivativeA);
+            derivative(b, u, pointB, derivativeB);
+            float determinant = derivativeB.x * derivativeA.y - derivativeA.x * derivativeB.y;
+            if (determinant == 0.0f) break;
+
+            float ds = (rx * derivativeB.y - derivativeB.x * ry) / determinant;
+            float du = (derivativeA.y * rx - derivativeA.x * ry) / determinant;
+            float nextS = Math.max(0.0f, Math.min(1.0f, s + ds));
+            float nextU = Math.max(0.0f, Math.min(1.0f, u + du));
+            if (nextS == s && nextU == u) break;
+            s = nextS;
+            u = nextU;
+        }
+
+        if (best <= this.tolerance * this.tolerance && !this.isCoincident(a, b, bestS)) pairs.add(bestS, bestU);
+    }
+
+    /**
+     * Проверяет, лежит ли кусок на прямой хорды другого куска с точностью до допустимого расстояния и перекрывается ли
+     * с ней больше чем на допустимое расстояние.
+     *
+     * @param piece проверяемый кусок.
+     * @param line  кусок, хорда которого задает прямую.
+     */
+    private boolean isAlong(Piece piece, Piece line) {
+        double dx = line.x[3] - line.x[0], dy = line.y[3] - line.y[0];
+        double length = Math.sqrt(dx * dx + dy * dy);
+        if (length == 0.0) return false;
+        dx /= length;
+        dy /= length;
+
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < 4; i++) {
+            if (piece.linear && (i == 1 || i == 2)) continue;
+            double ex = piece.x[i] - line.x[0], ey = piece.y[i] - line.y[0];
+            if (Math.abs(ex * dy - ey * dx) > this.tolerance) return false;
+            double projection = ex * dx + ey * dy;
+            min = Math.min(min, projection);
+            max = Math.max(max, projection);
+        }
+        return Math.min(max, length) - Math.max(min, 0.0) > this.tolerance;
+    }
+
+    /**
+     * Проверяет, лежит ли точка пересечения внутри совпадающего участка кривых: точки первой кривой на шагах
+     * {@link #COINCIDENCE_STEP}, увеличивающихся в четыре раза, с обеих сторон от пересечения находятся не дальше
+     * допустимого расстояния от второй кривой. Несколько шагов нужны, чтобы не принять за совпадение касание возле
+     * точки перегиба. За концами первой кривой точки не проверяются.
+     */
+    private boolean isCoincident(Curve.D2 a, Curve.D2 b, float s) {
+        Vector2 point = new Vector2(), closest = new Vector2();
+        float toleranceSquared = this.tolerance * this.tolerance;
+        boolean checked = false;
+        for (float step = COINCIDENCE_STEP; step < 1.0f; step *= 4.0f) {
+            for (int side = -1; side <= 1; side += 2) {
+                float t = s + side * step;
+                if (t < 0.0f || t > 1.0f) continue;
+
+                a.getPointAt(t, point);
+                b.getPointAt(b.getClosestT(point.x, point.y), closest);
+                float dx = point.x - closest.x, dy = point.y - closest.y;
+                if (dx * dx + dy * dy > toleranceSquared) return false;
+                checked = true;
+            }
+        }
+        return checked;
+    }
+
+    /**
+     * Вычисляет производную кривой центральной разностью, на концах кривой - односторонней.
+     *
+     * @param point вектор для промежуточных вычислений.
+     * @param out   вектор для записи результата.
+     */
+    private static void derivative(Curve.D2 curve, float t, Vector2 point, Vector2 out) {
+        float t0 = Math.max(0.0f, t - STEP), t1 = Math.min(1.0f, t + STEP);
+        curve.getPointAt(t0, point);
+        float x0 = point.x, y0 = point.y;
+        curve.getPointAt(t1, point);
+        out.x = (point.x - x0) / (t1 - t0);
+        out.y = (point.y - y0) / (t1 - t0);
+    }
+
+    /**
+     * Представляет кривую набором кубических кусков.
+     */
+    private Piece[] pieces(Curve.D2 curve) {
+        // Кривые из файла представляются по своему типу, параметризация при этом не меняется.
+        if (curve instanceof CurveFile.Segment) curve = ((CurveFile.Segment) curve).toCurve();
+
+        if (curve instanceof LineCurve.D2) {
+            LineCurve.D2 line = (LineCurve.D2) curve;
+            Vector2 start = line.getStart(), end = line.getEnd();
+            return new Piece[]{Piece.line(start.x, start.y, end.x, end.y, 0.0f, 1.0f)};
+        }
+
+        if (curve instanceof CubicBezierCurve.D2) {
+            CubicBezierCurve.D2 cubic = (CubicBezierCurve.D2) curve;
+            Vector2 p0 = cubic.getStart(), p1 = cubic.getControl1(), p2 = cubic.getControl2(), p3 = cubic.getEnd();
+            return new Piece[]{new Piece(new double[]{p0.x, p1.x, p2.x, p3.x}, new double[]{p0.y, p1.y, p2.y, p3.y},
+                    0.0, 1.0, false)};
+        }
+
+        if (curve instanceof QuadraticBezierCurve.D2) {
+            // Повышение степени: контрольные точки кубической кривой делят отрезки к контрольной точке в
+            // отношении 2 : 1.
+            QuadraticBezierCurve.D2 quadratic = (QuadraticBezierCurve.D2) curve;
+            Vector2 p0 = quadratic.getStart(), p1 = quadratic.getControl(), p2 = quadratic.getEnd();
+            double[] x = {p0.x, p0.x + 2.0 * (p1.x - p0.x) / 3.0, p2.x + 2.0 * (p1.x - p2.x) / 3.0, p2.x};
+            double[] y = {p0.y, p0.y + 2.0 * (p1.y - p0.y) / 3.0, p2.y + 2.0 * (p1.y - p2.y) / 3.0, p2.y};
+            return new Piece[]{new Piece(x, y, 0.0, 1.0, false)};
+        }
+
+        if (curve instanceof ArcCurve2D) {
+            return arcPieces((ArcCurve2D) curve);
+        }
+
+        int divisions = curve.getDivisions(this.tolerance);
+        float[] points = new float[2 * (divisions + 1)];
+        curve.getPoints(divisions, points, 0);
+
+        Piece[] pieces = new Piece[divisions];
+        for (int i = 0; i < divisions; i++) {
+            pieces[i] = Piece.line(points[2 * i], points[2 * i + 1], points[2 * i + 2], points[2 * i + 3],
+                    (float) i / divisions, (float) (i + 1) / divisions);
+        }
+        return pieces;
+    }
+
+    /**
+     * Представляет дугу кубическими кривыми Безье, каждая из которых охватывает не больше четверти окружности.
+     * Контрольные точки лежат на касательных на расстоянии {@code 4 / 3 * tan(angle / 4)} радиуса от концов.
+     */
+    private static Piece[] arcPieces(ArcCurve2D arc) {
+        Vector2 center = arc.getCenter();
+        double radius = arc.getRadius();
+        double startAngle = arc.getStartAngle();
+        double deltaAngle = arc.getEndAngle() - startAngle;
+        if (radius == 0.0 || deltaAngle == 0.0) return new Piece[0];
+
+        int count = Math.max(1, (int) Math.ceil(Math.abs(deltaAngle) / (0.5 * Math.PI)));
+        double step = deltaAngle / count;
+        double handle = 4.0 / 3.0 * Math.tan(0.25 * step) * radius;
+
+        Piece[] pieces = new Piece[count];
+        for (int i = 0; i < count; i++) {
+            double angle0 = startAngle + i * step, angle1 = angle0 + step;
+            double cos0 = Math.cos(angle0), sin0 = Math.sin(angle0);
+            double cos1 = Math.cos(angle1), sin1 = Math.sin(angle1);
+            double[] x = {center.x + radius * cos0, center.x + radius * cos0 - handle * sin0,
+                    center.x + radius * cos1 + handle * sin1, center.x + radius * cos1};
+            double[] y = {center.y + radius * sin0, center.y + radius * sin0 + handle * cos0,
+                    center.y + radius * sin1 - handle * cos1, center.y + radius * sin1};
+
+            // Против часовой стрелки дуга проходится от конечного угла к начальному.
+            double from = (double) i / count, to = (double) (i + 1) / count;
+            pieces[i] = arc.isClockwise() ? new Piece(x, y, from, to, false)
+                    : new Piece(x, y, 1.0 - from, 1.0 - to, false);
+        }
+        return pieces;
+    }
+
+    /**
+     * Кубическая кривая Безье, соответствующая участку исходной кривой.
+     */
+    private static final class Piece {
+
+        /**
+         * Координаты контрольных точек.
+         */
+        final double[] x, y;
+        /**
+         * Значения {@code t} исходной кривой в начале и в конце куска.
+         */
+        final double from, to;
+        /**
+         * Является ли кусок отрезком прямой.
+         */
+        final boolean linear;
+
+        Piece(double[] x, double[] y, double from, double to, boolean linear) {
+            this.x = x;
+            this.y = y;
+            this.from = from;
+            this.to = to;
+            this.linear = linear;
+        }
+
+        static Piece line(float x0, float y0, float x1, float y1, float from, float to) {
+            return new Piece(new double[]{x0, 0.0, 0.0, x1}, new double[]{y0, 0.0, 0.0, y1}, from, to, true);
+        }
+
+        /**
+         * Переводит параметр куска в значение {@code t} исходной кривой.
+         */
+        float toT(double s) {
+            return (float) (this.from + s * (this.to - this.from));
+        }
+
+        /**
+         * Записывает ограничивающий прямоугольник контрольных точек, расширенный на {@code margin}. Кривая Безье
+         * лежит в выпуклой оболочке своих контрольных точек, поэтому прямоугольник содержит кусок.
+         */
+        void bounds(double margin, float[] out, int offset) {
+            double minX = Math.min(this.x[0], this.x[3]), maxX = Math.max(this.x[0], this.x[3]);
+            double minY = Math.min(this.y[0], this.y[3]), maxY = Math.max(this.y[0], this.y[3]);
+            for (int i = 1; i < 3 && !this.linear; i++) {
+                minX = Math.min(minX, this.x[i]);
+                maxX = Math.max(maxX, this.x[i]);
+                minY = Math.min(minY, this.y[i]);
+                maxY = Math.max(maxY, this.y[i]);
+            }
+            out[offset] = (float) (minX - margin);
+            out[offset + 1] = (float) (minY - margin);
+            out[offset + 2] = (float) (maxX + margin);
+            out[offset + 3] = (float) (maxY + margin);
+        }
+
+        /**
+         * Проверяет, пересекаются ли ограничивающие прямоугольники кусков с учетом допуска.
+         */
+        boolean overlaps(Piece piece, double margin) {
+            float[] box = new float[8];
+            this.bounds(margin, box, 0);
+            piece.bounds(0.0, box, 4);
+            return box[0] <= box[6] && box[4] <= box[2] && box[1] <= box[7] && box[5] <= box[3];
+        }
+
+        /**
+         * Получает размер ограничивающего прямоугольника контрольных точек.
+         */
+        double size() {
+            float[] box = new float[4];
+            this.bounds(0.0, box, 0);
+            return Math.max(box[2] - box[0], box[3] - box[1]);
+        }
+
+        /**
+         * Проверяет, отклоняются ли внутренние контрольные точки от хорды не больше заданной величины.
+         */
+        boolean isFlat(double tolerance) {
+            if (this.linear) return true;
+
+            double dx = this.x[3] - this.x[0], dy = this.y[3] - this.y[0];
+            double length = Math.sqrt(dx * dx + dy * dy);
+            for (int i = 1; i < 3; i++) {
+                double ex = this.x[i] - this.x[0], ey = this.y[i] - this.y[0];
+                double distance = length > 0.0 ? Math.abs(ex * dy - ey * dx) / length : Math.sqrt(ex * ex + ey * ey);
+                if (distance > tolerance) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Делит кусок пополам по алгоритму де Кастельжо.
+         *
+         * @param first получить первую половину, иначе вторую.
+         */
+        Piece half(boolean first) {
+            double[] x = half(this.x, first), y = half(this.y, first);
+            double middle = 0.5 * (this.from + this.to);
+            return first ? new Piece(x, y, this.from, middle, false) : new Piece(x, y, middle, this.to, false);
+        }
+
+        private static double[] half(double[] p, boolean first) {
+            double p01 = 0.5 * (p[0] + p[1]), p12 = 0.5 * (p[1] + p[2]), p23 = 0.5 * (p[2] + p[3]);
+            double p012 = 0.5 * (p01 + p12), p123 = 0.5 * (p12 + p23);
+            double middle = 0.5 * (p012 + p123);
+            return first ? new double[]{p[0], p01, p012, middle} : new double[]{middle, p123, p23, p[3]};
+        }
+
+    }
+
+    /**
+     * Растущий массив пар значений {@code t}, в который не добавляются пары, близкие к уже найденным.
+     */
+    private static final class Pairs {
+
+        float[] values = new float[16];
+        int size;
+
+        void add(float s, float u) {
+            for (int i = 0; i < this.size; i++) {
+                float ds = Math.abs(this.values[2 * i] - s), du = Math.abs(this.values[2 * i + 1] - u);
+                if (ds < SEPARATION && du < SEPARATION) return;
+            }
+
+            if (2 * this.size == this.values.length) {
+                float[] values = new float[2 * this.values.length];
+                System.arraycopy(this.values, 0, values, 0, this.values.length);
+                this.values = values;
+            }
+            this.values[2 * this.size] = s;
+            this.values[2 * this.size + 1] = u;
+            this.size++;
+        }
+
+    }
+
+}
@@ -5,6 +5,7 @@ package ru.ildev.curve;
 
 import ru.ildev.geom.Vector2;
 import ru.ildev.geom.Vector3;
+import ru.ildev.math.MoreMath;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,6 +16,15 @@ import java.util.List;
  */
 public interface CurvePath extends Curve {
 
+    /**
+     * Правило заполнения: точка лежит внутри контура, если луч из нее пересекает контур нечетное число раз.
+     */
+    int EVEN_ODD = 0;
+    /**
+     * Правило заполнения: точка лежит внутри контура, если контур обходит ее ненулевое число раз.
+     */
+    int NON_ZERO = 1;
+
     /**
      * @author Ilyas Shafigin <ilyas174<@>gmail.com>
      */
@@ -22,6 +32,11 @@ public interface CurvePath extends Curve {
 
         /**  */
         private List<Curve.D1> curves = new ArrayList<>();
+        /**
+         * Кеш массива накопленных длин кривых. Сбрасывается при добавлении кривой, публикуется через
+         * {@code volatile}, см. {@link Curve}.
+         */
+        private volatile float[] lengths = null;
 
         /**
          *
@@ -35,6 +50,27 @@ public interface CurvePath extends Curve {
         public void add(Curve.D1 curve) {
             if (curve == null) throw new NullPointerException("curve == null");
             this.curves.add(curve);
+            this.lengths = null;
+            this.length = null;
+        }
+
+        /**
+         * Получает количество кривых пути.
+         *
+         * @return количество кривых.
+         */
+        public int getCurveCount() {
+            return this.curves.size();
+        }
+
+        /**
+         * Получает кривую пути по индексу.
+         *
+         * @param index индекс кривой.
+         * @return кривую.
+         */
+        public Curve.D1 getCurve(int index) {
+            return this.curves.get(index);
         }
 
         /**
@@ -45,32 +81,29 @@ public interface CurvePath extends Curve {
             float endPoint = this.curves.get(this.curves.size() - 1).getPointAt(1.0f);
 
             if (startPoint != endPoint) {
-                this.curves.add(new LineCurve.D1(endPoint, startPoint));
+                this.add(new LineCurve.D1(endPoint, startPoint));
             }
         }
 
         @Override
         public float getPointAt(float t) {
-            float d = t * this.getLength();
             float[] lengths = this.getLengths();
+            int last = lengths.length - 1;
+            if (last < 0) return -1.0f;
 
-            for (int i = 0; i < lengths.length; i++) {
-                if (lengths[i] >= d) {
-                    Curve.D1 curve = this.curves.get(i);
-
-                    float diff = lengths[i] - d;
-                    float u = 1.0f - diff / curve.getLength();
-                    return curve.getPointAt(u);
-                }
-            }
+            float d = t * lengths[last];
+            int i = ArcLength.searchUpper(lengths, 0, last, d);
 
-            return -1.0f;
+            Curve.D1 curve = this.curves.get(i);
+            float diff = lengths[i] - d;
+            float u = 1.0f - diff / curve.getLength();
+            return curve.getPointAt(u);
         }
 
         @Override
         public float getLength() {
             float[] lengths = this.getLengths();
-            return lengths[lengths.length - 1];
+            return lengths.length == 0 ? 0.0f : lengths[lengths.length - 1];
         }
 
         /**
@@ -78,17 +111,41 @@ public interface CurvePath extends Curve {
          */
         @Override
         public float[] getLengths() {
-            int size = this.curves.size();
-            float[] lengths = new float[size];
-            float sum = 0.0f;
-            for (int i = 0; i < size; i++) {
-                sum += this.curves.get(i).getLength();
-                lengths[i] = sum;
-            }
+            float[] lengths = this.lengths;
+            if (lengths != null) return lengths;
 
+            synchronized (this) {
+                lengths = this.lengths;
+                if (lengths == null) {
+                    int size = this.curves.size();
+                    lengths = new float[size];
+                    float sum = 0.0f;
+                    for (int i = 0; i < size; i++) {
+                        sum += this.curves.get(i).getLength();
+                        lengths[i] = sum;
+                    }
+                    this.lengths = lengths;
+                }
+            }
             return lengths;
         }
 
+        /**
+         * Параметр {@code t} составной кривой уже является долей ее длины, поэтому преобразование не требуется.
+         *
+         * @param u доля длины кривой от 0 до 1.
+         * @return значение {@code u}.
+         */
+        @Override
+        public float getUtoTmapping(float u) {
+            return u;
+        }
+
+        @Override
+        public float getPointAtDistance(float distance) {
+            return this.getPointAt(distance / this.getLength());
+        }
+
     }
 
     /**
@@ -98,6 +155,22 @@ public interface CurvePath extends Curve {
 
         /**  */
         private List<Curve.D2> curves = new ArrayList<>();
+        /**
+         * Кеш массива накопленных длин кривых. Сбрасывается при добавлении кривой, публикуется через
+         * {@code volatile}, см. {@link Curve}.
+         */
+        private volatile float[] lengths = null;
+        /**
+         * Иерархия ограничивающих прямоугольников кривых. Строится при первом пространственном запросе и охватывает
+         * первые {@code tree.size()} кривых; кривые, добавленные позже, проверяются перебором, пока их не станет
+         * слишком много. Публикуется через {@code volatile}, см. {@link Curve}.
+         */
+        private volatile BoundsTree tree = null;
+        /**
+         * Кеш разбиения контура на участки, монотонные по оси y, см. {@link Monotone}. Сбрасывается при добавлении
+         * кривой, публикуется через {@code volatile}, см. {@link Curve}.
+         */
+        private volatile float[] monotone = null;
 
         /**
          *
@@ -111,6 +184,207 @@ public interface CurvePath extends Curve {
         public void add(Curve.D2 curve) {
             if (curve == null) throw new NullPointerException("curve == null");
             this.curves.add(curve);
+            this.lengths = null;
+            this.length = null;
+            this.bounds = null;
+            this.monotone = null;
+        }
+
+        /**
+         * Получает количество кривых пути.
+         *
+         * @return количество кривых.
+         */
+        public int getCurveCount() {
+            return this.curves.size();
+        }
+
+        /**
+         * Получает кривую пути по индексу.
+         *
+         * @param index индекс кривой.
+         * @return кривую.
+         */
+        public Curve.D2 getCurve(int index) {
+            return this.curves.get(index);
+        }
+
+        /**
+         * Находит кривые пути, ограничивающие прямоугольники которых пересекаются с заданным прямоугольником.
+         * Запрос использует иерархию ограничивающих объемов и занимает O(log n) плюс количество найденных кривых.
+         *
+         * @param minX наименьшая x-координата.
+         * @param minY наименьшая y-координата.
+         * @param maxX наибольшая x-координата.
+         * @param maxY наибольшая y-координата.
+         * @param out  массив для записи индексов кривых.
+         * @return количество найденных кривых; в {@code out} записываются индексы, для которых хватило места.
+         */
+        public int findCurves(float minX, float minY, float maxX, float maxY, int[] out) {
+            if (out == null) throw new NullPointerException("out == null");
+
+            BoundsTree tree = this.getTree();
+            int count = tree.query(new float[]{minX, minY}, new float[]{maxX, maxY}, out, 0);
+
+            int size = this.curves.size();
+            for (int i = tree.size(); i < size; i++) {
+                Bounds.D2 bounds = this.curves.get(i).getBounds();
+                if (bounds != null && bounds.intersects(minX, minY, maxX, maxY)) {
+                    if (count < out.length) out[count] = i;
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Находит кривую пути, ближайшую к точке. Кривые, ограничивающие прямоугольники которых дальше уже
+         * найденной кривой, не рассматриваются.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @return индекс кривой; -1, если путь пуст.
+         */
+        public int getNearestCurve(float x, float y) {
+            int size = this.curves.size();
+            if (size == 0) return -1;
+
+            BoundsTree tree = this.getTree();
+            int best = -1;
+            double bestDistance = Double.POSITIVE_INFINITY;
+            for (int i = tree.size(); i < size; i++) {
+                double distance = distanceSquared(this.curves.get(i), x, y);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = i;
+                }
+            }
+
+            List<Curve.D2> curves = this.curves;
+            int index = tree.nearest(new float[]{x, y}, i -> distanceSquared(curves.get(i), x, y), bestDistance,
+                    new double[1]);
+            return index >= 0 ? index : best;
+        }
+
+        private BoundsTree getTree() {
+            BoundsTree tree = this.tree;
+            if (tree != null && !tree.isStale(this.curves.size())) return tree;
+
+            synchronized (this) {
+                int size = this.curves.size();
+                tree = this.tree;
+                if (tree == null || tree.isStale(size)) {
+                    float[] boxes = new float[4 * size];
+                    for (int i = 0; i < size; i++) {
+                        Bounds.D2 bounds = this.curves.get(i).getBounds();
+                        int offset = 4 * i;
+                        if (bounds != null) {
+                            boxes[offset + 0] = bounds.getMinX();
+                            boxes[offset + 1] = bounds.getMinY();
+                            boxes[offset + 2] = bounds.getMaxX();
+                            boxes[offset + 3] = bounds.getMaxY();
+                        } else {
+                            boxes[offset + 0] = Float.POSITIVE_INFINITY;
+                            boxes[offset + 1] = Float.POSITIVE_INFINITY;
+                            boxes[offset + 2] = Float.NEGATIVE_INFINITY;
+                            boxes[offset + 3] = Float.NEGATIVE_INFINITY;
+                        }
+                    }
+                    tree = new BoundsTree(2, boxes, size);
+                    this.tree = tree;
+                }
+            }
+            return tree;
+        }
+
+        /**
+         * Находит кривую пути с ближайшей к точке точкой, отбрасывая по иерархии ограничивающих объемов кривые,
+         * которые не могут оказаться ближе уже найденной, и уточняет точку на найденной кривой.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @return значение от 0 до 1; -1, если путь пуст.
+         */
+        @Override
+        public float getClosestT(float x, float y) {
+            int index = this.getNearestCurve(x, y);
+            if (index < 0) return -1.0f;
+
+            return this.toPathT(index, this.curves.get(index).getClosestT(x, y));
+        }
+
+        /**
+         * Переводит значение {@code t} на кривой пути в значение {@code t} пути, обратное преобразованию в
+         * {@link #getPointAt(float, Vector2)}.
+         *
+         * @param index индекс кривой.
+         * @param u     значение от 0 до 1 на кривой.
+         * @return значение от 0 до 1 на пути.
+         */
+        float toPathT(int index, float u) {
+            float[] lengths = this.getLengths();
+            float length = lengths[lengths.length - 1];
+            if (length <= 0.0f) return 0.0f;
+
+            float distance = lengths[index] - (1.0f - u) * this.curves.get(index).getLength();
+            return MoreMath.clamp(distance / length, 0.0f, 1.0f);
+        }
+
+        /**
+         * Проверяет, лежит ли точка внутри контура пути по правилу {@link #NON_ZERO}.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @return {@code true}, если точка лежит внутри контура.
+         * @see #contains(float, float, int)
+         */
+        public boolean contains(float x, float y) {
+            return this.contains(x, y, NON_ZERO);
+        }
+
+        /**
+         * Проверяет, лежит ли точка внутри контура пути. Незамкнутый путь замыкается отрезком от конца к началу.
+         * Пересечения луча из точки с контуром вычисляются по кривым пути, без построения ломаной: контур один раз
+         * разбивается на участки, монотонные по оси y, и разбиение сохраняется до изменения пути. Для точек на самом
+         * контуре результат не определен.
+         *
+         * @param x    x-координата точки.
+         * @param y    y-координата точки.
+         * @param rule правило заполнения {@link #EVEN_ODD} или {@link #NON_ZERO}.
+         * @return {@code true}, если точка лежит внутри контура.
+         */
+        public boolean contains(float x, float y, int rule) {
+            if (rule != EVEN_ODD && rule != NON_ZERO) throw new IllegalArgumentException("rule: " + rule);
+
+            Bounds.D2 bounds = this.getBounds();
+            if (bounds == null || !bounds.contains(x, y)) return false;
+
+            int crossings = Monotone.crossings(this.getMonotone(), x, y, rule == NON_ZERO);
+            return rule == NON_ZERO ? crossings != 0 : (crossings & 1) != 0;
+        }
+
+        private float[] getMonotone() {
+            float[] monotone = this.monotone;
+            if (monotone != null) return monotone;
+
+            synchronized (this) {
+                monotone = this.monotone;
+                if (monotone == null) {
+                    monotone = Monotone.decompose(this);
+                    this.monotone = monotone;
+                }
+            }
+            return monotone;
+        }
+
+        /**
+         * Вычисляет квадрат расстояния от точки до ближайшей точки кривой.
+         */
+        private static double distanceSquared(Curve.D2 curve, float x, float y) {
+            Vector2 point = curve.getPointAt(curve.getClosestT(x, y), new Vector2());
+            double dx = point.x - x;
+            double dy = point.y - y;
+            return dx * dx + dy * dy;
         }
 
         /**
@@ -122,46 +396,224 @@ public interface CurvePath extends Curve {
                     1.0f);
 
             if (!startPoint.equals(endPoint)) {
-                this.curves.add(new LineCurve.D2(endPoint, startPoint));
+                this.add(new LineCurve.D2(endPoint, startPoint));
             }
         }
 
         @Override
-        public Vector2 getPointAt(float t) {
-            float d = t * this.getLength();
+        public Vector2 getPointAt(float t, Vector2 out) {
             float[] lengths = this.getLengths();
+            int last = lengths.length - 1;
+            if (last < 0) return null;
+
+            float d = t * lengths[last];
+            int i = ArcLength.searchUpper(lengths, 0, last, d);
+
+            Curve.D2 curve = this.curves.get(i);
+            float diff = lengths[i] - d;
+            float u = 1.0f - diff / curve.getLength();
+            return curve.getPointAt(u, out);
+        }
+
+        @Override
+        public Vector2 getTangentAt(float t, Vector2 out) {
+            float[] lengths = this.getLengths();
+            int last = lengths.length - 1;
+            if (last < 0) return null;
+
+            float d = t * lengths[last];
+            int i = ArcLength.searchUpper(lengths, 0, last, d);
+
+            Curve.D2 curve = this.curves.get(i);
+            float diff = lengths[i] - d;
+            float u = 1.0f - diff / curve.getLength();
+            return curve.getTangentAt(u, out);
+        }
+
+        /**
+         * Объединяет ломаные всех кривых пути. Точность каждой кривой подбирается отдельно, общие точки соседних
+         * кривых не повторяются.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return массив точек.
+         */
+        @Override
+        public Vector2[] getPoints(float tolerance) {
+            int size = this.curves.size();
+            Vector2[][] parts = new Vector2[size][];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                parts[i] = this.curves.get(i).getPoints(tolerance);
+                count += i == 0 ? parts[i].length : parts[i].length - 1;
+            }
+
+            Vector2[] points = new Vector2[count];
+            int index = 0;
+            for (int i = 0; i < size; i++) {
+                int from = i == 0 ? 0 : 1;
+                int length = parts[i].length - from;
+                System.arraycopy(parts[i], from, points, index, length);
+                index += length;
+            }
+            return points;
+        }
+
+        /**
+         * Передает получателю ломаные всех кривых пути. Точность каждой кривой подбирается отдельно, общие точки
+         * соседних кривых не повторяются.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @param sink      получатель точек.
+         * @return {@code true}, если получатель принял все точки; {@code false}, если он прекратил разбиение.
+         */
+        @Override
+        public boolean tessellate(float tolerance, PointSink.D2 sink) {
+            if (sink == null) throw new NullPointerException("sink == null");
+
+            int size = this.curves.size();
+            for (int i = 0; i < size; i++) {
+                Curve.D2 curve = this.curves.get(i);
+                if (!curve.tessellate(curve.getDivisions(tolerance), i == 0 ? 0 : 1, sink)) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Получает суммарное количество отрезков ломаных всех кривых пути.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return количество отрезков.
+         */
+        @Override
+        public int getDivisions(float tolerance) {
+            int divisions = 0;
+            for (Curve.D2 curve : this.curves) {
+                divisions += curve.getDivisions(tolerance);
+            }
+            return Math.max(1, divisions);
+        }
+
+        @Override
+        public Vector2 getPointAtDistance(float distance, Vector2 out) {
+            return this.getPointAt(distance / this.getLength(), out);
+        }
+
+        /**
+         * Точки распределяются равномерно по длине и внутри каждой кривой пути: расстояние на кривой переводится в ее
+         * параметр по массиву длин самой кривой, а не пропорционально, как в {@link #getPointAt(float, Vector2)}.
+         *
+         * @param divisions количество отрезков равной длины, на которые делится путь.
+         * @param outXY     массив для записи координат.
+         * @param outOffset индекс в {@code outXY}, с которого записываются координаты.
+         * @return количество записанных точек: {@code divisions + 1} или 0, если путь пуст.
+         */
+        @Override
+        public int getSpacedPoints(int divisions, float[] outXY, int outOffset) {
+            if (divisions <= 0) return 0;
+            return this.walk(this.getLength() / divisions, divisions + 1, outXY, outOffset);
+        }
 
-            for (int i = 0; i < lengths.length; i++) {
-                if (lengths[i] >= d) {
-                    float diff = lengths[i] - d;
-                    Curve.D2 curve = this.curves.get(i);
-                    float u = 1.0f - diff / curve.getLength();
-                    return curve.getPointAt(u);
+        /**
+         * Точки распределяются так же, как в {@link #getSpacedPoints(int, float[], int)}.
+         *
+         * @param distance  расстояние между соседними точками.
+         * @param outXY     массив для записи координат.
+         * @param outOffset индекс в {@code outXY}, с которого записываются координаты.
+         * @return количество записанных точек; 0, если путь пуст.
+         */
+        @Override
+        public int getPointsEvery(float distance, float[] outXY, int outOffset) {
+            if (distance <= 0.0f) throw new IllegalArgumentException("distance <= 0");
+            return this.walk(distance, (int) (this.getLength() / distance) + 1, outXY, outOffset);
+        }
+
+        /**
+         * Записывает {@code count} точек, следующих через {@code step} вдоль пути. Для каждой кривой пути
+         * создается свой курсор, поэтому путь и кривые проходятся один раз.
+         */
+        private int walk(float step, int count, float[] outXY, int outOffset) {
+            float[] lengths = this.getLengths();
+            int last = lengths.length - 1;
+            if (last < 0) return 0;
+
+            int index = 0;
+            CurveCursor.D2 cursor = new CurveCursor.D2(this.curves.get(0));
+            Vector2 point = new Vector2();
+            for (int i = 0; i < count; i++) {
+                float distance = Math.min(i * step, lengths[last]);
+                if (index < last && lengths[index] < distance) {
+                    while (index < last && lengths[index] < distance) index++;
+                    cursor = new CurveCursor.D2(this.curves.get(index));
                 }
+
+                // Длина кривой в массиве длин пути и длина по массиву длин самой кривой могут немного отличаться.
+                float start = index > 0 ? lengths[index - 1] : 0.0f;
+                float length = lengths[index] - start;
+                cursor.setDistance(length > 0.0f ? (distance - start) / length * cursor.getLength() : 0.0f);
+                cursor.getPoint(point);
+                int j = outOffset + 2 * i;
+                outXY[j] = point.x;
+                outXY[j + 1] = point.y;
             }
+            return count;
+        }
 
-            return null;
+        /**
+         * Объединяет ограничивающие прямоугольники кривых пути. Кривые без ограничивающего прямоугольника, например пустые
+         * пути, пропускаются.
+         *
+         * @return ограничивающий прямоугольник; {@code null}, если путь пуст.
+         */
+        @Override
+        protected Bounds.D2 computeBounds() {
+            Bounds.D2 bounds = null;
+            for (Curve.D2 curve : this.curves) {
+                Bounds.D2 curveBounds = curve.getBounds();
+                if (curveBounds == null) continue;
+                bounds = bounds == null ? curveBounds : bounds.union(curveBounds);
+            }
+            return bounds;
         }
 
         @Override
         public float getLength() {
             float[] lengths = this.getLengths();
-            return lengths[lengths.length - 1];
+            return lengths.length == 0 ? 0.0f : lengths[lengths.length - 1];
         }
 
         @Override
         public float[] getLengths() {
-            int size = this.curves.size();
-            float[] lengths = new float[size];
-            float sum = 0.0f;
-            for (int i = 0; i < size; i++) {
-                sum += this.curves.get(i).getLength();
-                lengths[i] = sum;
-            }
+            float[] lengths = this.lengths;
+            if (lengths != null) return lengths;
 
+            synchronized (this) {
+                lengths = this.lengths;
+                if (lengths == null) {
+                    int size = this.curves.size();
+                    lengths = new float[size];
+                    float sum = 0.0f;
+                    for (int i = 0; i < size; i++) {
+                        sum += this.curves.get(i).getLength();
+                        lengths[i] = sum;
+                    }
+                    this.lengths = lengths;
+                }
+            }
             return lengths;
         }
 
+        /**
+         * Параметр {@code t} составной кривой уже является долей ее длины, поэтому преобразование не требуется.
+         *
+         * @param u доля длины кривой от 0 до 1.
+         * @return значение {@code u}.
+         */
+        @Override
+        public float getUtoTmapping(float u) {
+            return u;
+        }
+
+
     }
 
     /**
@@ -171,6 +623,17 @@ public interface CurvePath extends Curve {
 
         /**  */
         private List<Curve.D3> curves = new ArrayList<>();
+        /**
+         * Кеш массива накопленных длин кривых. Сбрасывается при добавлении кривой, публикуется через
+         * {@code volatile}, см. {@link Curve}.
+         */
+        private volatile float[] lengths = null;
+        /**
+         * Иерархия ограничивающих параллелепипедов кривых. Строится при первом пространственном запросе и охватывает
+         * первые {@code tree.size()} кривых; кривые, добавленные позже, проверяются перебором, пока их не станет
+         * слишком много. Публикуется через {@code volatile}, см. {@link Curve}.
+         */
+        private volatile BoundsTree tree = null;
 
         /**
          *
@@ -184,6 +647,168 @@ public interface CurvePath extends Curve {
         public void add(Curve.D3 curve) {
             if (curve == null) throw new NullPointerException("curve == null");
             this.curves.add(curve);
+            this.lengths = null;
+            this.length = null;
+            this.bounds = null;
+        }
+
+        /**
+         * Получает количество кривых пути.
+         *
+         * @return количество кривых.
+         */
+        public int getCurveCount() {
+            return this.curves.size();
+        }
+
+        /**
+         * Получает кривую пути по индексу.
+         *
+         * @param index индекс кривой.
+         * @return кривую.
+         */
+        public Curve.D3 getCurve(int index) {
+            return this.curves.get(index);
+        }
+
+        /**
+         * Находит кривые пути, ограничивающие параллелепипеды которых пересекаются с заданным параллелепипедом.
+         * Запрос использует иерархию ограничивающих объемов и занимает O(log n) плюс количество найденных кривых.
+         *
+         * @param minX наименьшая x-координата.
+         * @param minY наименьшая y-координата.
+         * @param minZ наименьшая z-координата.
+         * @param maxX наибольшая x-координата.
+         * @param maxY наибольшая y-координата.
+         * @param maxZ наибольшая z-координата.
+         * @param out  массив для записи индексов кривых.
+         * @return количество найденных кривых; в {@code out} записываются индексы, для которых хватило места.
+         */
+        public int findCurves(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int[] out) {
+            if (out == null) throw new NullPointerException("out == null");
+
+            BoundsTree tree = this.getTree();
+            int count = tree.query(new float[]{minX, minY, minZ}, new float[]{maxX, maxY, maxZ}, out, 0);
+
+            int size = this.curves.size();
+            for (int i = tree.size(); i < size; i++) {
+                Bounds.D3 bounds = this.curves.get(i).getBounds();
+                if (bounds != null && bounds.intersects(minX, minY, minZ, maxX, maxY, maxZ)) {
+                    if (count < out.length) out[count] = i;
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Находит кривую пути, ближайшую к точке. Кривые, ограничивающие параллелепипеды которых дальше уже
+         * найденной кривой, не рассматриваются.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @param z z-координата точки.
+         * @return индекс кривой; -1, если путь пуст.
+         */
+        public int getNearestCurve(float x, float y, float z) {
+            int size = this.curves.size();
+            if (size == 0) return -1;
+
+            BoundsTree tree = this.getTree();
+            int best = -1;
+            double bestDistance = Double.POSITIVE_INFINITY;
+            for (int i = tree.size(); i < size; i++) {
+                double distance = distanceSquared(this.curves.get(i), x, y, z);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = i;
+                }
+            }
+
+            List<Curve.D3> curves = this.curves;
+            int index = tree.nearest(new float[]{x, y, z}, i -> distanceSquared(curves.get(i), x, y, z), bestDistance,
+                    new double[1]);
+            return index >= 0 ? index : best;
+        }
+
+        private BoundsTree getTree() {
+            BoundsTree tree = this.tree;
+            if (tree != null && !tree.isStale(this.curves.size())) return tree;
+
+            synchronized (this) {
+                int size = this.curves.size();
+                tree = this.tree;
+                if (tree == null || tree.isStale(size)) {
+                    float[] boxes = new float[6 * size];
+                    for (int i = 0; i < size; i++) {
+                        Bounds.D3 bounds = this.curves.get(i).getBounds();
+                        int offset = 6 * i;
+                        if (bounds != null) {
+                            boxes[offset + 0] = bounds.getMinX();
+                            boxes[offset + 1] = bounds.getMinY();
+                            boxes[offset + 2] = bounds.getMinZ();
+                            boxes[offset + 3] = bounds.getMaxX();
+                            boxes[offset + 4] = bounds.getMaxY();
+                            boxes[offset + 5] = bounds.getMaxZ();
+                        } else {
+                            boxes[offset + 0] = Float.POSITIVE_INFINITY;
+                            boxes[offset + 1] = Float.POSITIVE_INFINITY;
+                            boxes[offset + 2] = Float.POSITIVE_INFINITY;
+                            boxes[offset + 3] = Float.NEGATIVE_INFINITY;
+                            boxes[offset + 4] = Float.NEGATIVE_INFINITY;
+                            boxes[offset + 5] = Float.NEGATIVE_INFINITY;
+                        }
+                    }
+                    tree = new BoundsTree(3, boxes, size);
+                    this.tree = tree;
+                }
+            }
+            return tree;
+        }
+
+        /**
+         * Находит кривую пути с ближайшей к точке точкой, отбрасывая по иерархии ограничивающих объемов кривые,
+         * которые не могут оказаться ближе уже найденной, и уточняет точку на найденной кривой.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @param z z-координата точки.
+         * @return значение от 0 до 1; -1, если путь пуст.
+         */
+        @Override
+        public float getClosestT(float x, float y, float z) {
+            int index = this.getNearestCurve(x, y, z);
+            if (index < 0) return -1.0f;
+
+            return this.toPathT(index, this.curves.get(index).getClosestT(x, y, z));
+        }
+
+        /**
+         * Переводит значение {@code t} на кривой пути в значение {@code t} пути, обратное преобразованию в
+         * {@link #getPointAt(float, Vector3)}.
+         *
+         * @param index индекс кривой.
+         * @param u     значение от 0 до 1 на кривой.
+         * @return значение от 0 до 1 на пути.
+         */
+        float toPathT(int index, float u) {
+            float[] lengths = this.getLengths();
+            float length = lengths[lengths.length - 1];
+            if (length <= 0.0f) return 0.0f;
+
+            float distance = lengths[index] - (1.0f - u) * this.curves.get(index).getLength();
+            return MoreMath.clamp(distance / length, 0.0f, 1.0f);
+        }
+
+        /**
+         * Вычисляет квадрат расстояния от точки до ближайшей точки кривой.
+         */
+        private static double distanceSquared(Curve.D3 curve, float x, float y, float z) {
+            Vector3 point = curve.getPointAt(curve.getClosestT(x, y, z), new Vector3());
+            double dx = point.x - x;
+            double dy = point.y - y;
+            double dz = point.z - z;
+            return dx * dx + dy * dy + dz * dz;
         }
 
         /**
@@ -194,31 +819,190 @@ public interface CurvePath extends Curve {
             Vector3 endPoint = this.curves.get(this.curves.size() - 1).getPointAt(1.0f);
 
             if (!startPoint.equals(endPoint)) {
-                this.curves.add(new LineCurve.D3(endPoint, startPoint));
+                this.add(new LineCurve.D3(endPoint, startPoint));
             }
         }
 
         @Override
-        public Vector3 getPointAt(float t) {
-            float d = t * this.getLength();
+        public Vector3 getPointAt(float t, Vector3 out) {
+            float[] lengths = this.getLengths();
+            int last = lengths.length - 1;
+            if (last < 0) return null;
+
+            float d = t * lengths[last];
+            int i = ArcLength.searchUpper(lengths, 0, last, d);
+
+            Curve.D3 curve = this.curves.get(i);
+            float diff = lengths[i] - d;
+            float u = 1.0f - diff / curve.getLength();
+            return curve.getPointAt(u, out);
+        }
+
+        @Override
+        public Vector3 getTangentAt(float t, Vector3 out) {
             float[] lengths = this.getLengths();
+            int last = lengths.length - 1;
+            if (last < 0) return null;
+
+            float d = t * lengths[last];
+            int i = ArcLength.searchUpper(lengths, 0, last, d);
+
+            Curve.D3 curve = this.curves.get(i);
+            float diff = lengths[i] - d;
+            float u = 1.0f - diff / curve.getLength();
+            return curve.getTangentAt(u, out);
+        }
+
+        /**
+         * Объединяет ломаные всех кривых пути. Точность каждой кривой подбирается отдельно, общие точки соседних
+         * кривых не повторяются.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return массив точек.
+         */
+        @Override
+        public Vector3[] getPoints(float tolerance) {
+            int size = this.curves.size();
+            Vector3[][] parts = new Vector3[size][];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                parts[i] = this.curves.get(i).getPoints(tolerance);
+                count += i == 0 ? parts[i].length : parts[i].length - 1;
+            }
 
-            for (int i = 0; i < lengths.length; i++) {
-                if (lengths[i] >= d) {
-                    float diff = lengths[i] - d;
-                    Curve.D3 curve = this.curves.get(i);
-                    float u = 1.0f - diff / curve.getLength();
-                    return curve.getPointAt(u);
+            Vector3[] points = new Vector3[count];
+            int index = 0;
+            for (int i = 0; i < size; i++) {
+                int from = i == 0 ? 0 : 1;
+                int length = parts[i].length - from;
+                System.arraycopy(parts[i], from, points, index, length);
+                index += length;
+            }
+            return points;
+        }
+
+        /**
+         * Передает получателю ломаные всех кривых пути. Точность каждой кривой подбирается отдельно, общие точки
+         * соседних кривых не повторяются.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @param sink      получатель точек.
+         * @return {@code true}, если получатель принял все точки; {@code false}, если он прекратил разбиение.
+         */
+        @Override
+        public boolean tessellate(float tolerance, PointSink.D3 sink) {
+            if (sink == null) throw new NullPointerException("sink == null");
+
+            int size = this.curves.size();
+            for (int i = 0; i < size; i++) {
+                Curve.D3 curve = this.curves.get(i);
+                if (!curve.tessellate(curve.getDivisions(tolerance), i == 0 ? 0 : 1, sink)) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Получает суммарное количество отрезков ломаных всех кривых пути.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return количество отрезков.
+         */
+        @Override
+        public int getDivisions(float tolerance) {
+            int divisions = 0;
+            for (Curve.D3 curve : this.curves) {
+                divisions += curve.getDivisions(tolerance);
+            }
+            return Math.max(1, divisions);
+        }
+
+        @Override
+        public Vector3 getPointAtDistance(float distance, Vector3 out) {
+            return this.getPointAt(distance / this.getLength(), out);
+        }
+
+        /**
+         * Точки распределяются равномерно по длине и внутри каждой кривой пути: расстояние на кривой переводится в ее
+         * параметр по массиву длин самой кривой, а не пропорционально, как в {@link #getPointAt(float, Vector3)}.
+         *
+         * @param divisions количество отрезков равной длины, на которые делится путь.
+         * @param outXYZ    массив для записи координат.
+         * @param outOffset индекс в {@code outXYZ}, с которого записываются координаты.
+         * @return количество записанных точек: {@code divisions + 1} или 0, если путь пуст.
+         */
+        @Override
+        public int getSpacedPoints(int divisions, float[] outXYZ, int outOffset) {
+            if (divisions <= 0) return 0;
+            return this.walk(this.getLength() / divisions, divisions + 1, outXYZ, outOffset);
+        }
+
+        /**
+         * Точки распределяются так же, как в {@link #getSpacedPoints(int, float[], int)}.
+         *
+         * @param distance  расстояние между соседними точками.
+         * @param outXYZ    массив для записи координат.
+         * @param outOffset индекс в {@code outXYZ}, с которого записываются координаты.
+         * @return количество записанных точек; 0, если путь пуст.
+         */
+        @Override
+        public int getPointsEvery(float distance, float[] outXYZ, int outOffset) {
+            if (distance <= 0.0f) throw new IllegalArgumentException("distance <= 0");
+            return this.walk(distance, (int) (this.getLength() / distance) + 1, outXYZ, outOffset);
+        }
+
+        /**
+         * Записывает {@code count} точек, следующих через {@code step} вдоль пути. Для каждой кривой пути
+         * создается свой курсор, поэтому путь и кривые проходятся один раз.
+         */
+        private int walk(float step, int count, float[] outXYZ, int outOffset) {
+            float[] lengths = this.getLengths();
+            int last = lengths.length - 1;
+            if (last < 0) return 0;
+
+            int index = 0;
+            CurveCursor.D3 cursor = new CurveCursor.D3(this.curves.get(0));
+            Vector3 point = new Vector3();
+            for (int i = 0; i < count; i++) {
+                float distance = Math.min(i * step, lengths[last]);
+                if (index < last && lengths[index] < distance) {
+                    while (index < last && lengths[index] < distance) index++;
+                    cursor = new CurveCursor.D3(this.curves.get(index));
                 }
+
+                // Длина кривой в массиве длин пути и длина по массиву длин самой кривой могут немного отличаться.
+                float start = index > 0 ? lengths[index - 1] : 0.0f;
+                float length = lengths[index] - start;
+                cursor.setDistance(length > 0.0f ? (distance - start) / length * cursor.getLength() : 0.0f);
+                cursor.getPoint(point);
+                int j = outOffset + 3 * i;
+                outXYZ[j] = point.x;
+                outXYZ[j + 1] = point.y;
+                outXYZ[j + 2] = point.z;
             }
+            return count;
+        }
 
-            return null;
+        /**
+         * Объединяет ограничивающие параллелепипеды кривых пути. Кривые без ограничивающего параллелепипеда, например пустые
+         * пути, пропускаются.
+         *
+         * @return ограничивающий параллелепипед; {@code null}, если путь пуст.
+         */
+        @Override
+        protected Bounds.D3 computeBounds() {
+            Bounds.D3 bounds = null;
+            for (Curve.D3 curve : this.curves) {
+                Bounds.D3 curveBounds = curve.getBounds();
+                if (curveBounds == null) continue;
+                bounds = bounds == null ? curveBounds : bounds.union(curveBounds);
+            }
+            return bounds;
         }
 
         @Override
         public float getLength() {
             float[] lengths = this.getLengths();
-            return lengths[lengths.length - 1];
+            return lengths.length == 0 ? 0.0f : lengths[lengths.length - 1];
         }
 
         /**
@@ -226,17 +1010,37 @@ public interface CurvePath extends Curve {
          */
         @Override
         public float[] getLengths() {
-            int size = this.curves.size();
-            float[] lengths = new float[size];
-            float sum = 0.0f;
-            for (int i = 0; i < size; i++) {
-                sum += this.curves.get(i).getLength();
-                lengths[i] = sum;
-            }
+            float[] lengths = this.lengths;
+            if (lengths != null) return lengths;
 
+            synchronized (this) {
+                lengths = this.lengths;
+                if (lengths == null) {
+                    int size = this.curves.size();
+                    lengths = new float[size];
+                    float sum = 0.0f;
+                    for (int i = 0; i < size; i++) {
+                        sum += this.curves.get(i).getLength();
+                        lengths[i] = sum;
+                    }
+                    this.lengths = lengths;
+                }
+            }
             return lengths;
         }
 
+        /**
+         * Параметр {@code t} составной кривой уже является долей ее длины, поэтому преобразование не требуется.
+         *
+         * @param u доля длины кривой от 0 до 1.
+         * @return значение {@code u}.
+         */
+        @Override
+        public float getUtoTmapping(float u) {
+            return u;
+        }
+
+
     }
 
 
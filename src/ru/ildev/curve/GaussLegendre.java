@@ -0,0 +1,99 @@
+/*
+ *
+ */
+package ru.ildev.curve;
+
+/**
+ * Узлы и веса квадратурных формул Гаусса-Лежандра на отрезке [-1, 1]. Формула порядка {@code n} точна для многочленов
+ * степени до {@code 2n - 1}. Таблицы вычисляются один раз при загрузке класса.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+final class GaussLegendre {
+
+    /**
+     * Наибольший поддерживаемый порядок формулы.
+     */
+    static final int MAX_ORDER = 64;
+    /**
+     * Порядок, используемый для длины кривой по умолчанию.
+     */
+    static final int DEFAULT_ORDER = 24;
+
+    /**
+     * Узлы формул, индекс массива - порядок формулы.
+     */
+    private static final float[][] ABSCISSAS = new float[MAX_ORDER + 1][];
+    /**
+     * Веса формул, индекс массива - порядок формулы.
+     */
+    private static final float[][] WEIGHTS = new float[MAX_ORDER + 1][];
+
+    static {
+        for (int n = 1; n <= MAX_ORDER; n++) {
+            float[] abscissas = new float[n];
+            float[] weights = new float[n];
+
+            // Корни многочлена Лежандра уточняются методом Ньютона, начиная с приближения Чебышева.
+            for (int i = 0; i < (n + 1) / 2; i++) {
+                double x = Math.cos(Math.PI * (i + 0.75) / (n + 0.5));
+                double derivative;
+                double delta;
+                do {
+                    double p0 = 1.0;
+                    double p1 = 0.0;
+                    for (int j = 1; j <= n; j++) {
+                        double p2 = p1;
+                        p1 = p0;
+                        p0 = ((2.0 * j - 1.0) * x * p1 - (j - 1.0) * p2) / j;
+                    }
+                    derivative = n * (x * p0 - p1) / (x * x - 1.0);
+                    delta = p0 / derivative;
+                    x -= delta;
+                } while (Math.abs(delta) > 1.0e-15);
+
+                double weight = 2.0 / ((1.0 - x * x) * derivative * derivative);
+                abscissas[i] = (float) -x;
+                abscissas[n - 1 - i] = (float) x;
+                weights[i] = (float) weight;
+                weights[n - 1 - i] = (float) weight;
+            }
+
+            ABSCISSAS[n] = abscissas;
+            WEIGHTS[n] = weights;
+        }
+    }
+
+    private GaussLegendre() {
+    }
+
+    /**
+     * Получает узлы формулы.
+     *
+     * @param order порядок формулы от 1 до {@link #MAX_ORDER}.
+     * @return массив узлов на отрезке [-1, 1]. Массив не должен изменяться.
+     */
+    static float[] abscissas(int order) {
+        checkOrder(order);
+        return ABSCISSAS[order];
+    }
+
+    /**
+     * Получает веса формулы.
+     *
+     * @param order порядок формулы от 1 до {@link #MAX_ORDER}.
+     * @return массив весов. Массив не должен изменяться.
+     */
+    static float[] weights(int order) {
+        checkOrder(order);
+        return WEIGHTS[order];
+    }
+
+    private static void checkOrder(int order) {
+        if (order < 1 || order > MAX_ORDER) {
+            throw new IllegalArgumentException("order < 1 || order > " + MAX_ORDER);
+        }
+    }
+
+}
@@ -87,4 +87,110 @@ public final class Interpolator {
         return y1 + 0.5f * t * (y2 - y0 + t * (2 * y0 - 5 * y1 + 4 * y2 - y3 + t * (3 * (y1 - y2) + y3 - y0)));
     }
 
+    /**
+     * Интерполирует значение между {@code y1} и {@code y2} заданным видом интерполяции.
+     *
+     * @param interpolation вид интерполяции, одна из констант {@link Path}.
+     * @param y0            точка перед отрезком.
+     * @param y1            начало отрезка.
+     * @param y2            конец отрезка.
+     * @param y3            точка после отрезка.
+     * @param t             значение от 0 до 1.
+     * @return интерполированное значение.
+     */
+    static float interpolate(int interpolation, float y0, float y1, float y2, float y3, float t) {
+        switch (interpolation) {
+            default:
+            case Path.LINEAR:
+                return linear(y1, y2, t);
+            case Path.COSINE:
+                return cosine(y1, y2, t);
+            case Path.CUBIC:
+                return cubic(y0, y1, y2, y3, t);
+            case Path.HERMITE:
+                return hermite(y0, y1, y2, y3, t, 0.0f, 0.0f);
+            case Path.SPLINE:
+                return spline(y0, y1, y2, y3, t);
+        }
+    }
+
+    /**
+     * Проверяет, является ли интерполяция на каждом отрезке кубическим многочленом, коэффициенты которого можно
+     * вычислить заранее.
+     *
+     * @param interpolation вид интерполяции, одна из констант {@link Path}.
+     * @return {@code true} для {@link Path#CUBIC}, {@link Path#HERMITE} и {@link Path#SPLINE}.
+     */
+    static boolean isPolynomial(int interpolation) {
+        return interpolation == Path.CUBIC || interpolation == Path.HERMITE || interpolation == Path.SPLINE;
+    }
+
+    /**
+     * Вычисляет коэффициенты многочленов {@code ((a * t + b) * t + c) * t + d} для всех отрезков последовательности
+     * точек. Отрезок с индексом {@code i} начинается в точке {@code i}, соседние точки выбираются так же, как в
+     * {@link Path}: у крайних отрезков недостающие соседи заменяются крайними точками.
+     *
+     * @param interpolation вид интерполяции, для которого {@link #isPolynomial(int)} возвращает {@code true}.
+     * @param points        значения в точках.
+     * @param size          количество точек.
+     * @return массив размером {@code 4 * size}, в котором коэффициенты отрезка {@code i} начинаются с индекса
+     * {@code 4 * i}.
+     */
+    static float[] coefficients(int interpolation, float[] points, int size) {
+        float[] coefficients = new float[4 * size];
+
+        for (int i = 0; i < size; i++) {
+            float y0 = points[i == 0 ? i : i - 1];
+            float y1 = points[i];
+            float y2 = points[i > size - 2 ? i : i + 1];
+            float y3 = points[i > size - 3 ? i : i + 2];
+
+            float a, b, c, d = y1;
+            switch (interpolation) {
+                case Path.CUBIC:
+                    a = y3 - y2 - y0 + y1;
+                    b = y0 - y1 - a;
+                    c = y2 - y0;
+                    break;
+                case Path.HERMITE: {
+                    // Касательные при нулевых натяжении и смещении.
+                    float m0 = 0.5f * (y2 - y0);
+                    float m1 = 0.5f * (y3 - y1);
+                    a = 2.0f * y1 - 2.0f * y2 + m0 + m1;
+                    b = -3.0f * y1 + 3.0f * y2 - 2.0f * m0 - m1;
+                    c = m0;
+                    break;
+                }
+                case Path.SPLINE:
+                    a = 0.5f * (3.0f * (y1 - y2) + y3 - y0);
+                    b = 0.5f * (2.0f * y0 - 5.0f * y1 + 4.0f * y2 - y3);
+                    c = 0.5f * (y2 - y0);
+                    break;
+                default:
+                    throw new IllegalArgumentException("interpolation: " + interpolation);
+            }
+
+            int j = 4 * i;
+            coefficients[j] = a;
+            coefficients[j + 1] = b;
+            coefficients[j + 2] = c;
+            coefficients[j + 3] = d;
+        }
+
+        return coefficients;
+    }
+
+    /**
+     * Вычисляет значение многочлена отрезка по схеме Горнера.
+     *
+     * @param coefficients массив коэффициентов, полученный методом {@link #coefficients(int, float[], int)}.
+     * @param segment      индекс отрезка.
+     * @param t            значение от 0 до 1.
+     * @return значение многочлена.
+     */
+    static float horner(float[] coefficients, int segment, float t) {
+        int i = 4 * segment;
+        return ((coefficients[i] * t + coefficients[i + 1]) * t + coefficients[i + 2]) * t + coefficients[i + 3];
+    }
+
 }
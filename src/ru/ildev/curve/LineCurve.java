@@ -5,6 +5,7 @@ package ru.ildev.curve;
 
 import ru.ildev.geom.Vector2;
 import ru.ildev.geom.Vector3;
+import ru.ildev.math.MoreMath;
 
 /**
  * @author Ilyas Shafigin <ilyas174<@>gmail.com>
@@ -59,7 +60,63 @@ public interface LineCurve extends Curve {
 
         @Override
         public float getPointAt(float t) {
-            return t * this.start + (1 - t) * this.end;
+            return (1 - t) * this.start + t * this.end;
+        }
+
+        /**
+         * Получает длину линии, равную расстоянию между ее концами.
+         *
+         * @return длину линии.
+         */
+        @Override
+        public float getLength() {
+            return MoreMath.abs(this.end - this.start);
+        }
+
+        /**
+         * Длина линии растет линейно по параметру, поэтому таблица длин строится без вычисления точек.
+         *
+         * @param divisions количество отрезков.
+         * @return массив накопленных длин размером {@code divisions + 1}.
+         */
+        @Override
+        protected float[] computeLengths(int divisions) {
+            float[] cache = new float[divisions + 1];
+            float length = this.getLength();
+            for (int p = 1; p <= divisions; p++) {
+                cache[p] = length * p / divisions;
+            }
+
+            return cache;
+        }
+
+        /**
+         * Параметр линии пропорционален длине, поэтому преобразование не требуется.
+         *
+         * @param u доля длины линии от 0 до 1.
+         * @return значение {@code u}.
+         */
+        @Override
+        public float getUtoTmapping(float u) {
+            return u;
+        }
+
+        @Override
+        public float getPointAtDistance(float distance) {
+            float length = this.getLength();
+            return this.getPointAt(length > 0.0f ? MoreMath.clamp(distance / length, 0.0f, 1.0f) : 0.0f);
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] out, int outOffset) {
+            float p0 = this.start;
+            float p1 = this.end;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                float s = 1.0f - t;
+                out[outOffset + i] = s * p0 + t * p1;
+            }
         }
 
     }
@@ -113,18 +170,108 @@ public interface LineCurve extends Curve {
         }
 
         @Override
-        public Vector2 getPointAt(float t) {
-            Vector2 point = new Vector2();
-            point.x = t * this.start.x + (1 - t) * this.end.x;
-            point.y = t * this.start.y + (1 - t) * this.end.y;
-            return point;
+        public Vector2 getPointAt(float t, Vector2 out) {
+            out.x = (1 - t) * this.start.x + t * this.end.x;
+            out.y = (1 - t) * this.start.y + t * this.end.y;
+            return out;
+        }
+
+        @Override
+        public Vector2 getTangentAt(float t, Vector2 out) {
+            out.x = this.end.x - this.start.x;
+            out.y = this.end.y - this.start.y;
+            out.normalize();
+            return out;
+        }
+
+        /**
+         * Линия совпадает со своей ломаной, поэтому достаточно одного отрезка.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return 1.
+         */
+        @Override
+        public int getDivisions(float tolerance) {
+            if (tolerance <= 0.0f) throw new IllegalArgumentException("tolerance <= 0");
+            return 1;
+        }
+
+        /**
+         * Ближайшая точка отрезка находится проекцией точки на прямую.
+         */
+        @Override
+        public float getClosestT(float x, float y) {
+            float dx = this.end.x - this.start.x;
+            float dy = this.end.y - this.start.y;
+            float lengthSquared = dx * dx + dy * dy;
+            if (lengthSquared == 0.0f) return 0.0f;
+            return MoreMath.clamp(((x - this.start.x) * dx + (y - this.start.y) * dy) / lengthSquared, 0.0f, 1.0f);
+        }
+
+        @Override
+        protected Bounds.D2 computeBounds() {
+            return new Bounds.D2(Math.min(this.start.x, this.end.x), Math.min(this.start.y, this.end.y),
+                    Math.max(this.start.x, this.end.x), Math.max(this.start.y, this.end.y));
+        }
+
+        @Override
+        public float getLength() {
+            float dx = this.end.x - this.start.x;
+            float dy = this.end.y - this.start.y;
+            return (float) Math.sqrt(dx * dx + dy * dy);
+        }
+
+        @Override
+        protected float[] computeLengths(int divisions) {
+            float[] cache = new float[divisions + 1];
+            float length = this.getLength();
+            for (int p = 1; p <= divisions; p++) {
+                cache[p] = length * p / divisions;
+            }
+
+            return cache;
+        }
+
+        @Override
+        public float getUtoTmapping(float u) {
+            return u;
+        }
+
+        @Override
+        public Vector2 getPointAtDistance(float distance, Vector2 out) {
+            float length = this.getLength();
+            return this.getPointAt(length > 0.0f ? MoreMath.clamp(distance / length, 0.0f, 1.0f) : 0.0f, out);
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outXY, int outOffset) {
+            float x0 = this.start.x;
+            float x1 = this.end.x;
+            float y0 = this.start.y;
+            float y1 = this.end.y;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                float s = 1.0f - t;
+                int j = outOffset + 2 * i;
+                outXY[j] = s * x0 + t * x1;
+                outXY[j + 1] = s * y0 + t * y1;
+            }
         }
 
         @Override
-        public Vector2 getTangentAt(float t) {
-            Vector2 tangent = this.start.to(this.end);
-            tangent.normalize();
-            return tangent;
+        public void evaluate(float[] ts, int offset, int count, float[] outX, float[] outY, int outOffset) {
+            float x0 = this.start.x;
+            float x1 = this.end.x;
+            float y0 = this.start.y;
+            float y1 = this.end.y;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                float s = 1.0f - t;
+                outX[outOffset + i] = s * x0 + t * x1;
+                outY[outOffset + i] = s * y0 + t * y1;
+            }
         }
 
     }
@@ -178,12 +325,115 @@ public interface LineCurve extends Curve {
         }
 
         @Override
-        public Vector3 getPointAt(float t) {
-            Vector3 point = new Vector3();
-            point.x = t * this.start.x + (1 - t) * this.end.x;
-            point.y = t * this.start.y + (1 - t) * this.end.y;
-            point.z = t * this.start.z + (1 - t) * this.end.z;
-            return point;
+        public Vector3 getPointAt(float t, Vector3 out) {
+            out.x = (1 - t) * this.start.x + t * this.end.x;
+            out.y = (1 - t) * this.start.y + t * this.end.y;
+            out.z = (1 - t) * this.start.z + t * this.end.z;
+            return out;
+        }
+
+        @Override
+        public Vector3 getTangentAt(float t, Vector3 out) {
+            out.x = this.end.x - this.start.x;
+            out.y = this.end.y - this.start.y;
+            out.z = this.end.z - this.start.z;
+            normalize(out);
+            return out;
+        }
+
+        @Override
+        public int getDivisions(float tolerance) {
+            if (tolerance <= 0.0f) throw new IllegalArgumentException("tolerance <= 0");
+            return 1;
+        }
+
+        /**
+         * Ближайшая точка отрезка находится проекцией точки на прямую.
+         */
+        @Override
+        public float getClosestT(float x, float y, float z) {
+            float dx = this.end.x - this.start.x;
+            float dy = this.end.y - this.start.y;
+            float dz = this.end.z - this.start.z;
+            float lengthSquared = dx * dx + dy * dy + dz * dz;
+            if (lengthSquared == 0.0f) return 0.0f;
+            float projection = (x - this.start.x) * dx + (y - this.start.y) * dy + (z - this.start.z) * dz;
+            return MoreMath.clamp(projection / lengthSquared, 0.0f, 1.0f);
+        }
+
+        @Override
+        protected Bounds.D3 computeBounds() {
+            return new Bounds.D3(Math.min(this.start.x, this.end.x), Math.min(this.start.y, this.end.y),
+                    Math.min(this.start.z, this.end.z), Math.max(this.start.x, this.end.x),
+                    Math.max(this.start.y, this.end.y), Math.max(this.start.z, this.end.z));
+        }
+
+        @Override
+        public float getLength() {
+            float dx = this.end.x - this.start.x;
+            float dy = this.end.y - this.start.y;
+            float dz = this.end.z - this.start.z;
+            return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+
+        @Override
+        protected float[] computeLengths(int divisions) {
+            float[] cache = new float[divisions + 1];
+            float length = this.getLength();
+            for (int p = 1; p <= divisions; p++) {
+                cache[p] = length * p / divisions;
+            }
+
+            return cache;
+        }
+
+        @Override
+        public float getUtoTmapping(float u) {
+            return u;
+        }
+
+        @Override
+        public Vector3 getPointAtDistance(float distance, Vector3 out) {
+            float length = this.getLength();
+            return this.getPointAt(length > 0.0f ? MoreMath.clamp(distance / length, 0.0f, 1.0f) : 0.0f, out);
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outXYZ, int outOffset) {
+            float x0 = this.start.x;
+            float x1 = this.end.x;
+            float y0 = this.start.y;
+            float y1 = this.end.y;
+            float z0 = this.start.z;
+            float z1 = this.end.z;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                float s = 1.0f - t;
+                int j = outOffset + 3 * i;
+                outXYZ[j] = s * x0 + t * x1;
+                outXYZ[j + 1] = s * y0 + t * y1;
+                outXYZ[j + 2] = s * z0 + t * z1;
+            }
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outX, float[] outY, float[] outZ,
+                             int outOffset) {
+            float x0 = this.start.x;
+            float x1 = this.end.x;
+            float y0 = this.start.y;
+            float y1 = this.end.y;
+            float z0 = this.start.z;
+            float z1 = this.end.z;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                float s = 1.0f - t;
+                outX[outOffset + i] = s * x0 + t * x1;
+                outY[outOffset + i] = s * y0 + t * y1;
+                outZ[outOffset + i] = s * z0 + t * z1;
+            }
         }
 
     }
@@ -0,0 +1,332 @@
+/*
+ *
+ */
+package ru.ildev.curve;
+
+import ru.ildev.geom.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * Разбиение контура на плоскости на участки, монотонные по оси y, для проверки принадлежности точки области. Каждый
+ * участок пересекается горизонтальной прямой не больше одного раза, поэтому пересечение луча с участком находится
+ * одним решением уравнения: для кубических участков - методом Ньютона с делением пополам, для дуг - по формуле
+ * окружности.
+ * <p>
+ * Участки хранятся в плоском массиве по {@link #STRIDE} чисел: вид участка, наименьшая и наибольшая y-координаты,
+ * наименьшая и наибольшая x-координаты, направление обхода по оси y (+1 или -1) и параметры участка. Для кубического
+ * участка параметры - коэффициенты {@code ax, bx, cx, dx, ay, by, cy, dy} многочленов
+ * {@code ((a * t + b) * t + c) * t + d}, для дуги - центр, радиус и знак косинуса угла на участке.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+final class Monotone {
+
+    /**
+     * Количество чисел на участок.
+     */
+    static final int STRIDE = 14;
+    /**
+     * Вид участка: кубический многочлен.
+     */
+    private static final int CUBIC = 0;
+    /**
+     * Вид участка: дуга окружности.
+     */
+    private static final int ARC = 1;
+    /**
+     * Допустимое отклонение ломаной для кривых без точного разбиения относительно их размера.
+     */
+    private static final float RELATIVE_TOLERANCE = 1.0e-4f;
+
+    /**
+     * Участки.
+     */
+    private float[] data = new float[16 * STRIDE];
+    /**
+     * Количество участков.
+     */
+    private int size;
+    /**
+     * Начало первой и конец последней добавленной кривой.
+     */
+    private final Vector2 first = new Vector2(), last = new Vector2();
+    /**
+     * Добавлена ли хотя бы одна кривая.
+     */
+    private boolean started;
+
+    private Monotone() {
+    }
+
+    /**
+     * Разбивает путь на монотонные участки. Кривые пути соединяются в один контур: если кривая начинается не в
+     * конце предыдущей, а путь заканчивается не в своем начале, разрывы замыкаются отрезками.
+     *
+     * @param path путь.
+     * @return массив участков.
+     */
+    static float[] decompose(CurvePath.D2 path) {
+        Monotone monotone = new Monotone();
+        monotone.addCurve(path);
+        if (monotone.started) monotone.addLine(monotone.last, monotone.first);
+        return Arrays.copyOf(monotone.data, monotone.size * STRIDE);
+    }
+
+    /**
+     * Считает пересечения луча, выпущенного из точки в положительном направлении оси x, с участками. Нижний конец
+     * участка считается принадлежащим ему, а верхний - нет, поэтому общая вершина двух участков учитывается один раз.
+     *
+     * @param pieces массив участков.
+     * @param x      x-координата точки.
+     * @param y      y-координата точки.
+     * @param signed учитывать ли направление участков.
+     * @return число оборотов контура вокруг точки, если {@code signed}, иначе количество пересечений.
+     */
+    static int crossings(float[] pieces, float x, float y, boolean signed) {
+        int result = 0;
+        for (int i = 0; i < pieces.length; i += STRIDE) {
+            if (y < pieces[i + 1] || y >= pieces[i + 2] || x >= pieces[i + 4]) continue;
+
+            if (x < pieces[i + 3] || crossing(pieces, i, y) > x) {
+                result += signed ? (int) pieces[i + 5] : 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Находит x-координату точки участка с заданной y-координатой.
+     */
+    private static double crossing(float[] pieces, int i, double y) {
+        if (pieces[i] == ARC) {
+            double radius = pieces[i + 8];
+            double sin = (y - pieces[i + 7]) / radius;
+            return pieces[i + 6] + radius * pieces[i + 9] * Math.sqrt(Math.max(0.0, 1.0 - sin * sin));
+        }
+
+        double ay = pieces[i + 10], by = pieces[i + 11], cy = pieces[i + 12], dy = pieces[i + 13];
+        boolean increasing = pieces[i + 5] > 0.0f;
+        double low = 0.0, high = 1.0;
+        double t = (y - pieces[i + 1]) / (pieces[i + 2] - pieces[i + 1]);
+        if (!increasing) t = 1.0 - t;
+
+        // Метод Ньютона; шаг, выходящий за отрезок, содержащий корень, заменяется делением пополам.
+        for (int k = 0; k < 32; k++) {
+            double value = ((ay * t + by) * t + cy) * t + dy - y;
+            if (value == 0.0) break;
+            if ((value < 0.0) == increasing) {
+                low = t;
+            } else {
+                high = t;
+            }
+
+            double derivative = (3.0 * ay * t + 2.0 * by) * t + cy;
+            double next = derivative != 0.0 ? t - value / derivative : 0.5 * (low + high);
+            if (!(next > low && next < high)) next = 0.5 * (low + high);
+            if (Math.abs(next - t) < 1.0e-9) {
+                t = next;
+                break;
+            }
+            t = next;
+        }
+
+        return ((pieces[i + 6] * t + pieces[i + 7]) * t + pieces[i + 8]) * t + pieces[i + 9];
+    }
+
+    /**
+     * Добавляет участки кривой.
+     */
+    private void addCurve(Curve.D2 curve) {
+        if (curve instanceof CurvePath.D2) {
+            CurvePath.D2 path = (CurvePath.D2) curve;
+            for (int i = 0; i < path.getCurveCount(); i++) {
+                this.addCurve(path.getCurve(i));
+            }
+            return;
+        }
+        // Кривые из файла раскладываются по своему типу, а не как ломаная.
+        if (curve instanceof CurveFile.Segment) curve = ((CurveFile.Segment) curve).toCurve();
+
+        Vector2 start = curve.getPointAt(0.0f, new Vector2());
+        if (!this.started) {
+            this.first.copy(start);
+            this.started = true;
+        } else {
+            this.addLine(this.last, start);
+        }
+        curve.getPointAt(1.0f, this.last);
+
+        if (curve instanceof LineCurve.D2) {
+            LineCurve.D2 line = (LineCurve.D2) curve;
+            this.addLine(line.getStart(), line.getEnd());
+        } else if (curve instanceof QuadraticBezierCurve.D2) {
+            QuadraticBezierCurve.D2 quadratic = (QuadraticBezierCurve.D2) curve;
+            Vector2 p0 = quadratic.getStart(), p1 = quadratic.getControl(), p2 = quadratic.getEnd();
+            this.addCubic(0.0, p0.x - 2.0 * p1.x + p2.x, 2.0 * (p1.x - p0.x), p0.x,
+                    0.0, p0.y - 2.0 * p1.y + p2.y, 2.0 * (p1.y - p0.y), p0.y);
+        } else if (curve instanceof CubicBezierCurve.D2) {
+            CubicBezierCurve.D2 cubic = (CubicBezierCurve.D2) curve;
+            Vector2 p0 = cubic.getStart(), p1 = cubic.getControl1(), p2 = cubic.getControl2(), p3 = cubic.getEnd();
+            this.addCubic(-p0.x + 3.0 * p1.x - 3.0 * p2.x + p3.x, 3.0 * p0.x - 6.0 * p1.x + 3.0 * p2.x,
+                    3.0 * (p1.x - p0.x), p0.x,
+                    -p0.y + 3.0 * p1.y - 3.0 * p2.y + p3.y, 3.0 * p0.y - 6.0 * p1.y + 3.0 * p2.y,
+                    3.0 * (p1.y - p0.y), p0.y);
+        } else if (curve instanceof ArcCurve2D) {
+            this.addArc((ArcCurve2D) curve);
+        } else {
+            this.addPolyline(curve);
+        }
+    }
+
+    /**
+     * Добавляет отрезок, если его концы не совпадают.
+     */
+    private void addLine(Vector2 p0, Vector2 p1) {
+        if (p0.x == p1.x && p0.y == p1.y) return;
+        this.addMonotoneCubic(0.0, 0.0, p1.x - p0.x, p0.x, 0.0, 0.0, p1.y - p0.y, p0.y);
+    }
+
+    /**
+     * Добавляет кубическую кривую, разделяя ее в точках, где производная по y обращается в ноль.
+     */
+    private void addCubic(double ax, double bx, double cx, double dx, double ay, double by, double cy, double dy) {
+        double[] splits = new double[4];
+        int count = 0;
+        splits[count++] = 0.0;
+
+        double[] roots = new double[2];
+        int rootCount = Roots.quadratic(3.0 * ay, 2.0 * by, cy, roots);
+        for (int i = 0; i < rootCount; i++) {
+            if (roots[i] > 0.0 && roots[i] < 1.0) splits[count++] = roots[i];
+        }
+        splits[count++] = 1.0;
+        Arrays.sort(splits, 1, count - 1);
+
+        for (int i = 0; i < count - 1; i++) {
+            // Участок [t0, t1] приводится к параметру от 0 до 1.
+            double t0 = splits[i], h = splits[i + 1] - t0;
+            if (h <= 0.0) continue;
+            this.addMonotoneCubic(ax * h * h * h, (3.0 * ax * t0 + bx) * h * h,
+                    ((3.0 * ax * t0 + 2.0 * bx) * t0 + cx) * h, ((ax * t0 + bx) * t0 + cx) * t0 + dx,
+                    ay * h * h * h, (3.0 * ay * t0 + by) * h * h,
+                    ((3.0 * ay * t0 + 2.0 * by) * t0 + cy) * h, ((ay * t0 + by) * t0 + cy) * t0 + dy);
+        }
+    }
+
+    private void addMonotoneCubic(double ax, double bx, double cx, double dx,
+                                  double ay, double by, double cy, double dy) {
+        double y0 = dy, y1 = ((ay + by) + cy) + dy;
+        if (y0 == y1) return;
+
+        float[] range = new float[2];
+        Roots.range(ax, bx, cx, dx, range, 0);
+
+        int i = this.allocate();
+        float[] data = this.data;
+        data[i] = CUBIC;
+        data[i + 1] = (float) Math.min(y0, y1);
+        data[i + 2] = (float) Math.max(y0, y1);
+        data[i + 3] = range[0];
+        data[i + 4] = range[1];
+        data[i + 5] = y1 > y0 ? 1.0f : -1.0f;
+        data[i + 6] = (float) ax;
+        data[i + 7] = (float) bx;
+        data[i + 8] = (float) cx;
+        data[i + 9] = (float) dx;
+        data[i + 10] = (float) ay;
+        data[i + 11] = (float) by;
+        data[i + 12] = (float) cy;
+        data[i + 13] = (float) dy;
+    }
+
+    /**
+     * Добавляет дугу, разделяя ее в самой верхней и самой нижней точках окружности.
+     */
+    private void addArc(ArcCurve2D arc) {
+        double radius = arc.getRadius();
+        if (radius == 0.0 || arc.getStartAngle() == arc.getEndAngle()) return;
+
+        // Направление обхода совпадает с ростом t, см. ArcCurve2D.getPointAt.
+        double from = arc.isClockwise() ? arc.getStartAngle() : arc.getEndAngle();
+        double to = arc.isClockwise() ? arc.getEndAngle() : arc.getStartAngle();
+        Vector2 center = arc.getCenter();
+
+        double low = Math.min(from, to), high = Math.max(from, to);
+        long first = (long) Math.ceil((low - 0.5 * Math.PI) / Math.PI);
+        long last = (long) Math.floor((high - 0.5 * Math.PI) / Math.PI);
+
+        double previous = from;
+        for (long k = first; k <= last; k++) {
+            long index = from < to ? k : first + last - k;
+            double angle = 0.5 * Math.PI + index * Math.PI;
+            if (angle == from || angle == to) continue;
+            this.addArcPiece(center.x, center.y, radius, previous, angle);
+            previous = angle;
+        }
+        this.addArcPiece(center.x, center.y, radius, previous, to);
+    }
+
+    private void addArcPiece(double x, double y, double radius, double from, double to) {
+        double y0 = y + radius * Math.sin(from), y1 = y + radius * Math.sin(to);
+        if (y0 == y1) return;
+
+        double x0 = x + radius * Math.cos(from), x1 = x + radius * Math.cos(to);
+        double minX = Math.min(x0, x1), maxX = Math.max(x0, x1);
+        // Участок короче половины окружности и может содержать одну точку, где x достигает экстремума.
+        long k = (long) Math.ceil(Math.min(from, to) / Math.PI);
+        if (k * Math.PI < Math.max(from, to)) {
+            double extreme = x + radius * ((k & 1) == 0 ? 1.0 : -1.0);
+            minX = Math.min(minX, extreme);
+            maxX = Math.max(maxX, extreme);
+        }
+
+        int i = this.allocate();
+        float[] data = this.data;
+        data[i] = ARC;
+        data[i + 1] = (float) Math.min(y0, y1);
+        data[i + 2] = (float) Math.max(y0, y1);
+        data[i + 3] = (float) minX;
+        data[i + 4] = (float) maxX;
+        data[i + 5] = y1 > y0 ? 1.0f : -1.0f;
+        data[i + 6] = (float) x;
+        data[i + 7] = (float) y;
+        data[i + 8] = (float) radius;
+        data[i + 9] = Math.cos(0.5 * (from + to)) >= 0.0 ? 1.0f : -1.0f;
+    }
+
+    /**
+     * Добавляет ломаную, вписанную в кривую, для которой точное разбиение неизвестно.
+     */
+    private void addPolyline(Curve.D2 curve) {
+        Bounds.D2 bounds = curve.getBounds();
+        if (bounds == null) return;
+        float extent = Math.max(bounds.getWidth(), bounds.getHeight());
+        if (extent == 0.0f) return;
+
+        int divisions = curve.getDivisions(RELATIVE_TOLERANCE * extent);
+        float[] points = new float[2 * (divisions + 1)];
+        curve.getPoints(divisions, points, 0);
+        for (int i = 0; i < divisions; i++) {
+            float x0 = points[2 * i], y0 = points[2 * i + 1];
+            float x1 = points[2 * i + 2], y1 = points[2 * i + 3];
+            this.addMonotoneCubic(0.0, 0.0, x1 - x0, x0, 0.0, 0.0, y1 - y0, y0);
+        }
+    }
+
+    /**
+     * Выделяет место под участок.
+     *
+     * @return индекс первого числа участка.
+     */
+    private int allocate() {
+        int index = this.size * STRIDE;
+        if (index + STRIDE > this.data.length) {
+            this.data = Arrays.copyOf(this.data, 2 * this.data.length);
+        }
+        this.size++;
+        return index;
+    }
+
+}
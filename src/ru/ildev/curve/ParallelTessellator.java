@@ -0,0 +1,243 @@
+/*
+ *
+ */
+package ru.ildev.curve;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Параллельное разбиение кривых на плоскости на ломаные. Работа делится между потоками {@link ForkJoinPool}, при этом
+ * место каждой кривой в выходном массиве вычисляется заранее, так что потоки пишут в непересекающиеся части массива и
+ * результат не зависит от порядка их выполнения.
+ * <p>
+ * Кривые во время разбиения не должны изменяться.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+public final class ParallelTessellator {
+
+    /**
+     * Количество точек, начиная с которого задача делится на части.
+     */
+    private static final int THRESHOLD = 4096;
+
+    /**
+     * Пул потоков.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Стандартный конструктор. Используется общий пул {@link ForkJoinPool#commonPool()}.
+     */
+    public ParallelTessellator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool пул потоков.
+     */
+    public ParallelTessellator(ForkJoinPool pool) {
+        if (pool == null) throw new NullPointerException("pool == null");
+        this.pool = pool;
+    }
+
+    /**
+     * Разбивает каждую кривую на одинаковое количество отрезков. Точки кривой с индексом {@code i} записываются
+     * попарно начиная с индекса {@code 2 * i * (divisions + 1)}.
+     *
+     * @param curves    список кривых.
+     * @param divisions количество отрезков на каждую кривую.
+     * @return массив координат.
+     */
+    public float[] tessellate(List<? extends Curve.D2> curves, int divisions) {
+        if (curves == null) throw new NullPointerException("curves == null");
+        if (divisions <= 0) throw new IllegalArgumentException("divisions <= 0");
+
+        int size = curves.size();
+        int[] counts = new int[size];
+        int[] offsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            counts[i] = divisions;
+            offsets[i + 1] = offsets[i] + divisions + 1;
+        }
+
+        float[] out = new float[2 * offsets[size]];
+        this.pool.invoke(new CurvesTask(curves, counts, offsets, out, 0, size));
+        return out;
+    }
+
+    /**
+     * Разбивает каждую кривую на количество отрезков, подобранное по допустимому отклонению.
+     *
+     * @param curves    список кривых.
+     * @param tolerance допустимое отклонение ломаной от кривой.
+     * @param offsets   массив размером {@code curves.size() + 1}, в который записываются индексы первых точек
+     *                  каждой кривой; последний элемент равен общему количеству точек.
+     * @return массив координат, записанных попарно.
+     * @see Curve.D2#getDivisions(float)
+     */
+    public float[] tessellate(List<? extends Curve.D2> curves, float tolerance, int[] offsets) {
+        if (curves == null) throw new NullPointerException("curves == null");
+        if (offsets == null) throw new NullPointerException("offsets == null");
+        if (tolerance <= 0.0f) throw new IllegalArgumentException("tolerance <= 0");
+
+        int size = curves.size();
+        if (offsets.length < size + 1) throw new IllegalArgumentException("offsets.length < curves.size() + 1");
+
+        int[] counts = new int[size];
+        this.pool.invoke(new DivisionsTask(curves, tolerance, counts, 0, size));
+
+        offsets[0] = 0;
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] = offsets[i] + counts[i] + 1;
+        }
+
+        float[] out = new float[2 * offsets[size]];
+        this.pool.invoke(new CurvesTask(curves, counts, offsets, out, 0, size));
+        return out;
+    }
+
+    /**
+     * Разбивает каждую кривую пути на одинаковое количество отрезков. Общие точки соседних кривых не повторяются,
+     * поэтому результат содержит {@code path.getCurveCount() * divisions + 1} точек.
+     *
+     * @param path      путь.
+     * @param divisions количество отрезков на каждую кривую пути.
+     * @return массив координат, записанных попарно.
+     */
+    public float[] tessellate(CurvePath.D2 path, int divisions) {
+        if (path == null) throw new NullPointerException("path == null");
+        if (divisions <= 0) throw new IllegalArgumentException("divisions <= 0");
+
+        int size = path.getCurveCount();
+        if (size == 0) return new float[0];
+
+        float[] out = new float[2 * (size * divisions + 1)];
+        this.pool.invoke(new PathTask(path, divisions, out, 0, size));
+        return out;
+    }
+
+    /**
+     * Задача подсчета количества отрезков для части списка кривых.
+     */
+    private static final class DivisionsTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends Curve.D2> curves;
+        private final float tolerance;
+        private final int[] counts;
+        private final int from, to;
+
+        DivisionsTask(List<? extends Curve.D2> curves, float tolerance, int[] counts, int from, int to) {
+            this.curves = curves;
+            this.tolerance = tolerance;
+            this.counts = counts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= 256) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.counts[i] = this.curves.get(i).getDivisions(this.tolerance);
+                }
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new DivisionsTask(this.curves, this.tolerance, this.counts, this.from, middle),
+                    new DivisionsTask(this.curves, this.tolerance, this.counts, middle, this.to));
+        }
+
+    }
+
+    /**
+     * Задача разбиения части списка кривых.
+     */
+    private static final class CurvesTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends Curve.D2> curves;
+        private final int[] counts;
+        private final int[] offsets;
+        private final float[] out;
+        private final int from, to;
+
+        CurvesTask(List<? extends Curve.D2> curves, int[] counts, int[] offsets, float[] out, int from, int to) {
+            this.curves = curves;
+            this.counts = counts;
+            this.offsets = offsets;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1 || this.offsets[this.to] - this.offsets[this.from] <= THRESHOLD) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.curves.get(i).getPoints(this.counts[i], this.out, 2 * this.offsets[i]);
+                }
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new CurvesTask(this.curves, this.counts, this.offsets, this.out, this.from, middle),
+                    new CurvesTask(this.curves, this.counts, this.offsets, this.out, middle, this.to));
+        }
+
+    }
+
+    /**
+     * Задача разбиения части кривых одного пути.
+     */
+    private static final class PathTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CurvePath.D2 path;
+        private final int divisions;
+        private final float[] out;
+        private final int from, to;
+
+        PathTask(CurvePath.D2 path, int divisions, float[] out, int from, int to) {
+            this.path = path;
+            this.divisions = divisions;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1 || (this.to - this.from) * this.divisions <= THRESHOLD) {
+                // Каждая кривая, кроме последней, пишет точки без конечной: ее место занимает начало следующей
+                // кривой, которую может обрабатывать другой поток.
+                int last = this.path.getCurveCount() - 1;
+                float[] buffer = new float[2 * (this.divisions + 1)];
+                for (int i = this.from; i < this.to; i++) {
+                    int offset = 2 * i * this.divisions;
+                    if (i == last) {
+                        this.path.getCurve(i).getPoints(this.divisions, this.out, offset);
+                    } else {
+                        this.path.getCurve(i).getPoints(this.divisions, buffer, 0);
+                        System.arraycopy(buffer, 0, this.out, offset, 2 * this.divisions);
+                    }
+                }
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new PathTask(this.path, this.divisions, this.out, this.from, middle),
+                    new PathTask(this.path, this.divisions, this.out, middle, this.to));
+        }
+
+    }
+
+}
@@ -7,6 +7,7 @@ import ru.ildev.geom.Vector2;
 import ru.ildev.geom.Vector3;
 import ru.ildev.math.MoreMath;
 
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -53,11 +54,21 @@ public interface Path extends Curve {
     class D1 extends Curve.D1 implements Path {
 
         /**
-         * Список точек.
+         * Массив точек. Используются первые {@link #size} элементов, остальные - запас для добавления.
          */
-        private List<Float> points = new ArrayList<>();
+        private float[] points;
+        /**
+         * Количество точек.
+         */
+        private int size;
         /**  */
         private int interpolation = Path.LINEAR;
+        /**
+         * Коэффициенты многочленов отрезков для {@link #CUBIC}, {@link #HERMITE} и {@link #SPLINE}. Вычисляются при
+         * первом обращении и сбрасываются при изменении точек или вида интерполяции. Публикуются через
+         * {@code volatile}, см. {@link Curve}.
+         */
+        private volatile float[] coefficients;
 
         /**
          * Стандартный конструктор.
@@ -65,17 +76,37 @@ public interface Path extends Curve {
          * @param points список точек.
          */
         public D1(List<Float> points) {
+            this.setPoints(points);
+        }
+
+        /**
+         * @param points массив точек. Массив копируется.
+         */
+        public D1(float[] points) {
+            this.setPoints(points);
+        }
+
+        /**
+         * @param points буфер точек. Читаются элементы от текущей позиции до предела, позиция буфера не изменяется.
+         */
+        public D1(FloatBuffer points) {
             if (points == null) throw new NullPointerException("points == null");
-            this.points = points;
+            this.size = points.remaining();
+            this.points = new float[this.size];
+            points.duplicate().get(this.points);
         }
 
         /**
-         * Получает список точек.
+         * Получает список точек. Список является копией, его изменение не влияет на кривую.
          *
          * @return список точек.
          */
         public List<Float> getPoints() {
-            return this.points;
+            List<Float> list = new ArrayList<>(this.size);
+            for (int i = 0; i < this.size; i++) {
+                list.add(this.points[i]);
+            }
+            return list;
         }
 
         /**
@@ -83,7 +114,37 @@ public interface Path extends Curve {
          */
         public void setPoints(List<Float> points) {
             if (points == null) throw new NullPointerException("points == null");
-            this.points = points;
+            int size = points.size();
+            float[] array = new float[size];
+            for (int i = 0; i < size; i++) {
+                Float point = points.get(i);
+                if (point == null) throw new NullPointerException("points(" + i + ") == null");
+                array[i] = point;
+            }
+            this.points = array;
+            this.size = size;
+            this.coefficients = null;
+            this.length = null;
+        }
+
+        /**
+         * @param points массив точек. Массив копируется.
+         */
+        public void setPoints(float[] points) {
+            if (points == null) throw new NullPointerException("points == null");
+            this.points = points.clone();
+            this.size = points.length;
+            this.coefficients = null;
+            this.length = null;
+        }
+
+        /**
+         * Копирует точки в новый массив.
+         *
+         * @return массив точек.
+         */
+        public float[] toArray() {
+            return Arrays.copyOf(this.points, this.size);
         }
 
         @Override
@@ -94,13 +155,60 @@ public interface Path extends Curve {
         @Override
         public void setInterpolation(int interpolation) {
             this.interpolation = interpolation;
+            this.coefficients = null;
+            this.length = null;
+        }
+
+        private float[] getCoefficients() {
+            float[] coefficients = this.coefficients;
+            if (coefficients == null) {
+                synchronized (this) {
+                    coefficients = this.coefficients;
+                    if (coefficients == null) {
+                        coefficients = Interpolator.coefficients(this.interpolation, this.points, this.size);
+                        this.coefficients = coefficients;
+                    }
+                }
+            }
+            return coefficients;
         }
 
         /**
          * @param x
          */
         public void addPoint(float x) {
-            this.points.add(x);
+            if (this.size == this.points.length) {
+                this.points = Arrays.copyOf(this.points, this.size + (this.size >> 1) + 1);
+            }
+            this.points[this.size++] = x;
+            this.coefficients = null;
+            this.length = null;
+        }
+
+        /**
+         * Добавляет точки из массива.
+         *
+         * @param points массив точек.
+         */
+        public void addPoints(float[] points) {
+            if (points == null) throw new NullPointerException("points == null");
+            int size = this.size + points.length;
+            if (size > this.points.length) {
+                this.points = Arrays.copyOf(this.points, Math.max(size, this.size + (this.size >> 1) + 1));
+            }
+            System.arraycopy(points, 0, this.points, this.size, points.length);
+            this.size = size;
+            this.coefficients = null;
+            this.length = null;
+        }
+
+        /**
+         * Получает количество точек.
+         *
+         * @return количество точек.
+         */
+        public int getPointCount() {
+            return this.size;
         }
 
         /**
@@ -108,40 +216,78 @@ public interface Path extends Curve {
          * @return
          */
         public float getPoint(int index) {
-            return this.points.get(index);
+            if (index < 0 || index >= this.size) throw new IndexOutOfBoundsException("index: " + index);
+            return this.points[index];
+        }
+
+        /**
+         * @param index
+         * @param x
+         */
+        public void setPoint(int index, float x) {
+            if (index < 0 || index >= this.size) throw new IndexOutOfBoundsException("index: " + index);
+            this.points[index] = x;
+            this.coefficients = null;
+            this.length = null;
         }
 
         @Override
         public float getPointAt(float t) {
+            if (this.size == 0) throw new IndexOutOfBoundsException("size == 0");
             t = MoreMath.clamp(t, 0.0f, 1.0f);
 
-            int size = this.points.size();
+            float[] points = this.points;
+            int size = this.size;
             float point = (size - 1) * t;
             int intPoint = (int) point;
             float weight = point - intPoint;
 
+            if (Interpolator.isPolynomial(this.interpolation)) {
+                return Interpolator.horner(this.getCoefficients(), intPoint, weight);
+            }
+
             int i1 = intPoint == 0 ? intPoint : intPoint - 1;
             int i2 = intPoint;
             int i3 = intPoint > size - 2 ? intPoint : intPoint + 1;
             int i4 = intPoint > size - 3 ? intPoint : intPoint + 2;
 
-            float p1 = this.points.get(i1);
-            float p2 = this.points.get(i2);
-            float p3 = this.points.get(i3);
-            float p4 = this.points.get(i4);
-
-            switch (this.interpolation) {
-                default:
-                case LINEAR:
-                    return Interpolator.linear(p2, p3, weight);
-                case COSINE:
-                    return Interpolator.cosine(p2, p3, weight);
-                case CUBIC:
-                    return Interpolator.cubic(p1, p2, p3, p4, weight);
-                case HERMITE:
-                    return Interpolator.hermite(p1, p2, p3, p4, 0, 0, weight);
-                case SPLINE:
-                    return Interpolator.spline(p1, p2, p3, p4, weight);
+            return Interpolator.interpolate(this.interpolation, points[i1], points[i2], points[i3], points[i4], weight);
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] out, int outOffset) {
+            if (this.size == 0 && count > 0) throw new IndexOutOfBoundsException("size == 0");
+
+            float[] points = this.points;
+            int interpolation = this.interpolation;
+            int size = this.size;
+
+            if (Interpolator.isPolynomial(interpolation)) {
+                float[] coefficients = this.getCoefficients();
+                for (int i = 0; i < count; i++) {
+                    float t = MoreMath.clamp(ts[offset + i], 0.0f, 1.0f);
+                    float point = (size - 1) * t;
+                    int intPoint = (int) point;
+                    float weight = point - intPoint;
+
+                    out[outOffset + i] = Interpolator.horner(coefficients, intPoint, weight);
+                }
+                return;
+            }
+
+            for (int i = 0; i < count; i++) {
+                float t = MoreMath.clamp(ts[offset + i], 0.0f, 1.0f);
+                float point = (size - 1) * t;
+                int intPoint = (int) point;
+                float weight = point - intPoint;
+
+                int i1 = intPoint == 0 ? intPoint : intPoint - 1;
+                int i2 = intPoint;
+                int i3 = intPoint > size - 2 ? intPoint : intPoint + 1;
+                int i4 = intPoint > size - 3 ? intPoint : intPoint + 2;
+
+                out[outOffset + i] = Interpolator.interpolate(interpolation,
+                        points[i1], points[i2], points[i3], points[i4], weight);
             }
         }
 
@@ -155,11 +301,22 @@ public interface Path extends Curve {
     class D2 extends Curve.D2 implements Path {
 
         /**
-         * Список точек.
+         * Координаты точек, каждая ось в своем массиве. Используются первые {@link #size} элементов, остальные -
+         * запас для добавления.
+         */
+        private float[] xs, ys;
+        /**
+         * Количество точек.
          */
-        private List<Vector2> points;
+        private int size;
         /**  */
         private int interpolation;
+        /**
+         * Коэффициенты многочленов отрезков для {@link #CUBIC}, {@link #HERMITE} и {@link #SPLINE}. Вычисляются при
+         * первом обращении и сбрасываются при изменении точек или вида интерполяции. Публикуются через
+         * {@code volatile}, см. {@link Curve}.
+         */
+        private volatile float[][] coefficients;
 
         /**
          * @param points массив точек.
@@ -180,11 +337,7 @@ public interface Path extends Curve {
          * @param interpolation
          */
         public D2(Vector2[] points, int interpolation) {
-            if (points == null) throw new NullPointerException("points == null");
-            for (int i = 0; i < points.length; i++) {
-                if (points[i] == null) throw new NullPointerException("points[" + i + "] == null");
-            }
-            this.points = new ArrayList<>(Arrays.asList(points));
+            this.setPoints(points);
             this.interpolation = interpolation;
         }
 
@@ -193,22 +346,39 @@ public interface Path extends Curve {
          * @param interpolation
          */
         public D2(List<Vector2> points, int interpolation) {
-            if (points == null) throw new NullPointerException("points == null");
-            int size = points.size();
-            for (int i = 0; i < size; i++) {
-                if (points.get(i) == null) throw new NullPointerException("points(" + i + ") == null");
-            }
-            this.points = new ArrayList<>(points);
+            this.setPoints(points);
             this.interpolation = interpolation;
         }
 
         /**
-         * Получает массив точек.
+         * @param xs x-координаты точек. Массив копируется.
+         * @param ys y-координаты точек. Массив копируется.
+         */
+        public D2(float[] xs, float[] ys) {
+            this(xs, ys, LINEAR);
+        }
+
+        /**
+         * @param xs            x-координаты точек. Массив копируется.
+         * @param ys            y-координаты точек. Массив копируется.
+         * @param interpolation
+         */
+        public D2(float[] xs, float[] ys, int interpolation) {
+            this.setPoints(xs, ys);
+            this.interpolation = interpolation;
+        }
+
+        /**
+         * Получает список точек. Список и точки являются копиями, их изменение не влияет на кривую.
          *
-         * @return массив точек.
+         * @return список точек.
          */
         public List<Vector2> getPoints() {
-            return this.points;
+            List<Vector2> list = new ArrayList<>(this.size);
+            for (int i = 0; i < this.size; i++) {
+                list.add(new Vector2(this.xs[i], this.ys[i]));
+            }
+            return list;
         }
 
         /**
@@ -216,10 +386,17 @@ public interface Path extends Curve {
          */
         public void setPoints(Vector2[] points) {
             if (points == null) throw new NullPointerException("points == null");
+            this.allocate(points.length);
             for (int i = 0; i < points.length; i++) {
-                if (points[i] == null) throw new NullPointerException("points[" + i + "] == null");
+                Vector2 point = points[i];
+                if (point == null) throw new NullPointerException("points[" + i + "] == null");
+                this.xs[i] = point.x;
+                this.ys[i] = point.y;
             }
-            this.points = new ArrayList<>(Arrays.asList(points));
+            this.size = points.length;
+            this.coefficients = null;
+            this.length = null;
+            this.bounds = null;
         }
 
         /**
@@ -228,10 +405,38 @@ public interface Path extends Curve {
         public void setPoints(List<Vector2> points) {
             if (points == null) throw new NullPointerException("points == null");
             int size = points.size();
+            this.allocate(size);
             for (int i = 0; i < size; i++) {
-                if (points.get(i) == null) throw new NullPointerException("points(" + i + ") == null");
+                Vector2 point = points.get(i);
+                if (point == null) throw new NullPointerException("points(" + i + ") == null");
+                this.xs[i] = point.x;
+                this.ys[i] = point.y;
             }
-            this.points = new ArrayList<>(points);
+            this.size = size;
+            this.coefficients = null;
+            this.length = null;
+            this.bounds = null;
+        }
+
+        /**
+         * @param xs x-координаты точек. Массив копируется.
+         * @param ys y-координаты точек. Массив копируется.
+         */
+        public void setPoints(float[] xs, float[] ys) {
+            if (xs == null) throw new NullPointerException("xs == null");
+            if (ys == null) throw new NullPointerException("ys == null");
+            if (ys.length != xs.length) throw new IllegalArgumentException("ys.length != xs.length");
+            this.xs = xs.clone();
+            this.ys = ys.clone();
+            this.size = xs.length;
+            this.coefficients = null;
+            this.length = null;
+            this.bounds = null;
+        }
+
+        private void allocate(int capacity) {
+            this.xs = new float[capacity];
+            this.ys = new float[capacity];
         }
 
         @Override
@@ -242,6 +447,68 @@ public interface Path extends Curve {
         @Override
         public void setInterpolation(int interpolation) {
             this.interpolation = interpolation;
+            this.coefficients = null;
+            this.length = null;
+            this.bounds = null;
+        }
+
+        private float[][] getCoefficients() {
+            float[][] coefficients = this.coefficients;
+            if (coefficients == null) {
+                synchronized (this) {
+                    coefficients = this.coefficients;
+                    if (coefficients == null) {
+                        coefficients = new float[][]{
+                                Interpolator.coefficients(this.interpolation, this.xs, this.size),
+                                Interpolator.coefficients(this.interpolation, this.ys, this.size)
+                        };
+                        this.coefficients = coefficients;
+                    }
+                }
+            }
+            return coefficients;
+        }
+
+        /**
+         * Точный ограничивающий прямоугольник. Линейная и косинусоидная интерполяции не выходят за пределы соседних
+         * точек, поэтому для них достаточно самих точек; для многочленов отрезков учитываются корни производной.
+         *
+         * @return ограничивающий прямоугольник; {@code null}, если точек нет.
+         */
+        @Override
+        protected Bounds.D2 computeBounds() {
+            int size = this.size;
+            if (size == 0) return null;
+
+            float[][] points = {this.xs, this.ys};
+            float[][] coefficients = Interpolator.isPolynomial(this.interpolation) ? this.getCoefficients() : null;
+            float[] min = new float[2];
+            float[] max = new float[2];
+            float[] range = new float[2];
+
+            for (int k = 0; k < 2; k++) {
+                float[] axis = points[k];
+                float low = axis[0], high = axis[0];
+                for (int i = 1; i < size; i++) {
+                    low = Math.min(low, axis[i]);
+                    high = Math.max(high, axis[i]);
+                }
+
+                if (coefficients != null) {
+                    float[] c = coefficients[k];
+                    for (int i = 0; i < size - 1; i++) {
+                        int j = 4 * i;
+                        Roots.range(c[j], c[j + 1], c[j + 2], c[j + 3], range, 0);
+                        low = Math.min(low, range[0]);
+                        high = Math.max(high, range[1]);
+                    }
+                }
+
+                min[k] = low;
+                max[k] = high;
+            }
+
+            return new Bounds.D2(min[0], min[1], max[0], max[1]);
         }
 
         /**
@@ -249,7 +516,17 @@ public interface Path extends Curve {
          * @param y
          */
         public void addPoint(float x, float y) {
-            this.points.add(new Vector2(x, y));
+            if (this.size == this.xs.length) {
+                int capacity = this.size + (this.size >> 1) + 1;
+                this.xs = Arrays.copyOf(this.xs, capacity);
+                this.ys = Arrays.copyOf(this.ys, capacity);
+            }
+            this.xs[this.size] = x;
+            this.ys[this.size] = y;
+            this.size++;
+            this.coefficients = null;
+            this.length = null;
+            this.bounds = null;
         }
 
         /**
@@ -257,7 +534,16 @@ public interface Path extends Curve {
          */
         public void addPoint(Vector2 point) {
             if (point == null) return;
-            this.points.add(point);
+            this.addPoint(point.x, point.y);
+        }
+
+        /**
+         * Получает количество точек.
+         *
+         * @return количество точек.
+         */
+        public int getPointCount() {
+            return this.size;
         }
 
         /**
@@ -265,58 +551,142 @@ public interface Path extends Curve {
          * @return
          */
         public Vector2 getPoint(int index) {
-            return this.points.get(index);
+            return this.getPoint(index, new Vector2());
+        }
+
+        /**
+         * @param index
+         * @param out   вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector2 getPoint(int index, Vector2 out) {
+            if (index < 0 || index >= this.size) throw new IndexOutOfBoundsException("index: " + index);
+            out.x = this.xs[index];
+            out.y = this.ys[index];
+            return out;
+        }
+
+        /**
+         * @param index
+         * @param x
+         * @param y
+         */
+        public void setPoint(int index, float x, float y) {
+            if (index < 0 || index >= this.size) throw new IndexOutOfBoundsException("index: " + index);
+            this.xs[index] = x;
+            this.ys[index] = y;
+            this.coefficients = null;
+            this.length = null;
+            this.bounds = null;
         }
 
         @Override
-        public Vector2 getPointAt(float t) {
+        public Vector2 getPointAt(float t, Vector2 out) {
+            if (this.size == 0) throw new IndexOutOfBoundsException("size == 0");
             t = MoreMath.clamp(t, 0.0f, 1.0f);
 
-            int size = this.points.size();
+            float[] xs = this.xs, ys = this.ys;
+            int interpolation = this.interpolation;
+            int size = this.size;
             float point = (size - 1) * t;
             int intPoint = (int) point;
             float weight = point - intPoint;
 
+            if (Interpolator.isPolynomial(interpolation)) {
+                float[][] coefficients = this.getCoefficients();
+                out.x = Interpolator.horner(coefficients[0], intPoint, weight);
+                out.y = Interpolator.horner(coefficients[1], intPoint, weight);
+                return out;
+            }
+
             int i1 = intPoint == 0 ? intPoint : intPoint - 1;
             int i2 = intPoint;
             int i3 = intPoint > size - 2 ? intPoint : intPoint + 1;
             int i4 = intPoint > size - 3 ? intPoint : intPoint + 2;
 
-            Vector2 p1 = this.points.get(i1);
-            Vector2 p2 = this.points.get(i2);
-            Vector2 p3 = this.points.get(i3);
-            Vector2 p4 = this.points.get(i4);
+            out.x = Interpolator.interpolate(interpolation, xs[i1], xs[i2], xs[i3], xs[i4], weight);
+            out.y = Interpolator.interpolate(interpolation, ys[i1], ys[i2], ys[i3], ys[i4], weight);
+            return out;
+        }
 
-            Vector2 p = new Vector2();
-            switch (this.interpolation) {
-                default:
-                case LINEAR: {
-                    p.x = Interpolator.linear(p2.x, p3.x, weight);
-                    p.y = Interpolator.linear(p2.y, p3.y, weight);
-                    break;
-                }
-                case COSINE: {
-                    p.x = Interpolator.cosine(p2.x, p3.x, weight);
-                    p.y = Interpolator.cosine(p2.y, p3.y, weight);
-                    break;
-                }
-                case CUBIC: {
-                    p.x = Interpolator.cubic(p1.x, p2.x, p3.x, p4.x, weight);
-                    p.y = Interpolator.cubic(p1.y, p2.y, p3.y, p4.y, weight);
-                    break;
-                }
-                case HERMITE: {
-                    p.x = Interpolator.hermite(p1.x, p2.x, p3.x, p4.x, 0, 0, weight);
-                    p.y = Interpolator.hermite(p1.y, p2.y, p3.y, p4.y, 0, 0, weight);
-                    break;
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outXY, int outOffset) {
+            if (this.size == 0 && count > 0) throw new IndexOutOfBoundsException("size == 0");
+
+            float[] xs = this.xs, ys = this.ys;
+            int interpolation = this.interpolation;
+            int size = this.size;
+
+            if (Interpolator.isPolynomial(interpolation)) {
+                float[][] coefficients = this.getCoefficients();
+                float[] cx = coefficients[0], cy = coefficients[1];
+                for (int i = 0; i < count; i++) {
+                    float t = MoreMath.clamp(ts[offset + i], 0.0f, 1.0f);
+                    float point = (size - 1) * t;
+                    int intPoint = (int) point;
+                    float weight = point - intPoint;
+
+                    int j = outOffset + 2 * i;
+                    outXY[j] = Interpolator.horner(cx, intPoint, weight);
+                    outXY[j + 1] = Interpolator.horner(cy, intPoint, weight);
                 }
-                case SPLINE: {
-                    p.x = Interpolator.spline(p1.x, p2.x, p3.x, p4.x, weight);
-                    p.y = Interpolator.spline(p1.y, p2.y, p3.y, p4.y, weight);
-                    break;
+                return;
+            }
+
+            for (int i = 0; i < count; i++) {
+                float t = MoreMath.clamp(ts[offset + i], 0.0f, 1.0f);
+                float point = (size - 1) * t;
+                int intPoint = (int) point;
+                float weight = point - intPoint;
+
+                int i1 = intPoint == 0 ? intPoint : intPoint - 1;
+                int i2 = intPoint;
+                int i3 = intPoint > size - 2 ? intPoint : intPoint + 1;
+                int i4 = intPoint > size - 3 ? intPoint : intPoint + 2;
+
+                int j = outOffset + 2 * i;
+                outXY[j] = Interpolator.interpolate(interpolation, xs[i1], xs[i2], xs[i3], xs[i4], weight);
+                outXY[j + 1] = Interpolator.interpolate(interpolation, ys[i1], ys[i2], ys[i3], ys[i4], weight);
+            }
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outX, float[] outY, int outOffset) {
+            if (this.size == 0 && count > 0) throw new IndexOutOfBoundsException("size == 0");
+
+            float[] xs = this.xs, ys = this.ys;
+            int interpolation = this.interpolation;
+            int size = this.size;
+
+            if (Interpolator.isPolynomial(interpolation)) {
+                float[][] coefficients = this.getCoefficients();
+                float[] cx = coefficients[0], cy = coefficients[1];
+                for (int i = 0; i < count; i++) {
+                    float t = MoreMath.clamp(ts[offset + i], 0.0f, 1.0f);
+                    float point = (size - 1) * t;
+                    int intPoint = (int) point;
+                    float weight = point - intPoint;
+
+                    outX[outOffset + i] = Interpolator.horner(cx, intPoint, weight);
+                    outY[outOffset + i] = Interpolator.horner(cy, intPoint, weight);
                 }
+                return;
+            }
+
+            for (int i = 0; i < count; i++) {
+                float t = MoreMath.clamp(ts[offset + i], 0.0f, 1.0f);
+                float point = (size - 1) * t;
+                int intPoint = (int) point;
+                float weight = point - intPoint;
+
+                int i1 = intPoint == 0 ? intPoint : intPoint - 1;
+                int i2 = intPoint;
+                int i3 = intPoint > size - 2 ? intPoint : intPoint + 1;
+                int i4 = intPoint > size - 3 ? intPoint : intPoint + 2;
+
+                outX[outOffset + i] = Interpolator.interpolate(interpolation, xs[i1], xs[i2], xs[i3], xs[i4], weight);
+                outY[outOffset + i] = Interpolator.interpolate(interpolation, ys[i1], ys[i2], ys[i3], ys[i4], weight);
             }
-            return p;
         }
     /*
         @Override
@@ -357,42 +727,86 @@ public interface Path extends Curve {
     class D3 extends Curve.D3 implements Path {
 
         /**
-         * Список точек.
+         * Координаты точек, каждая ось в своем массиве. Используются первые {@link #size} элементов, остальные -
+         * запас для добавления.
+         */
+        private float[] xs, ys, zs;
+        /**
+         * Количество точек.
          */
-        private List<Vector3> points;
+        private int size;
         /**  */
-        private int interpolation = Path.LINEAR;
+        private int interpolation;
+        /**
+         * Коэффициенты многочленов отрезков для {@link #CUBIC}, {@link #HERMITE} и {@link #SPLINE}. Вычисляются при
+         * первом обращении и сбрасываются при изменении точек или вида интерполяции. Публикуются через
+         * {@code volatile}, см. {@link Curve}.
+         */
+        private volatile float[][] coefficients;
 
         /**
          * @param points массив точек.
          */
         public D3(Vector3[] points) {
-            if (points == null) throw new NullPointerException("points == null");
-            for (int i = 0; i < points.length; i++) {
-                if (points[i] == null) throw new NullPointerException("points[" + i + "] == null");
-            }
-            this.points = new ArrayList<>(Arrays.asList(points));
+            this(points, LINEAR);
         }
 
         /**
          * @param points массив точек.
          */
         public D3(List<Vector3> points) {
-            if (points == null) throw new NullPointerException("points == null");
-            int size = points.size();
-            for (int i = 0; i < size; i++) {
-                if (points.get(i) == null) throw new NullPointerException("points(" + i + ") == null");
-            }
-            this.points = new ArrayList<>(points);
+            this(points, LINEAR);
+        }
+
+        /**
+         * @param points        массив точек.
+         * @param interpolation
+         */
+        public D3(Vector3[] points, int interpolation) {
+            this.setPoints(points);
+            this.interpolation = interpolation;
         }
 
         /**
-         * Получает массив точек.
+         * @param points        массив точек.
+         * @param interpolation
+         */
+        public D3(List<Vector3> points, int interpolation) {
+            this.setPoints(points);
+            this.interpolation = interpolation;
+        }
+
+        /**
+         * @param xs x-координаты точек. Массив копируется.
+         * @param ys y-координаты точек. Массив копируется.
+         * @param zs z-координаты точек. Массив копируется.
+         */
+        public D3(float[] xs, float[] ys, float[] zs) {
+            this(xs, ys, zs, LINEAR);
+        }
+
+        /**
+         * @param xs            x-координаты точек. Массив копируется.
+         * @param ys            y-координаты точек. Массив копируется.
+         * @param zs            z-координаты точек. Массив копируется.
+         * @param interpolation
+         */
+        public D3(float[] xs, float[] ys, float[] zs, int interpolation) {
+            this.setPoints(xs, ys, zs);
+            this.interpolation = interpolation;
+        }
+
+        /**
+         * Получает список точек. Список и точки являются копиями, их изменение не влияет на кривую.
          *
-         * @return массив точек.
+         * @return список точек.
          */
         public List<Vector3> getPoints() {
-            return this.points;
+            List<Vector3> list = new ArrayList<>(this.size);
+            for (int i = 0; i < this.size; i++) {
+                list.add(new Vector3(this.xs[i], this.ys[i], this.zs[i]));
+            }
+            return list;
         }
 
         /**
@@ -400,10 +814,18 @@ public interface Path extends Curve {
          */
         public void setPoints(Vector3[] points) {
             if (points == null) throw new NullPointerException("points == null");
+            this.allocate(points.length);
             for (int i = 0; i < points.length; i++) {
-                if (points[i] == null) throw new NullPointerException("points[" + i + "] == null");
+                Vector3 point = points[i];
+                if (point == null) throw new NullPointerException("points[" + i + "] == null");
+                this.xs[i] = point.x;
+                this.ys[i] = point.y;
+                this.zs[i] = point.z;
             }
-            this.points = new ArrayList<>(Arrays.asList(points));
+            this.size = points.length;
+            this.coefficients = null;
+            this.length = null;
+            this.bounds = null;
         }
 
         /**
@@ -412,10 +834,44 @@ public interface Path extends Curve {
         public void setPoints(List<Vector3> points) {
             if (points == null) throw new NullPointerException("points == null");
             int size = points.size();
+            this.allocate(size);
             for (int i = 0; i < size; i++) {
-                if (points.get(i) == null) throw new NullPointerException("points(" + i + ") == null");
+                Vector3 point = points.get(i);
+                if (point == null) throw new NullPointerException("points(" + i + ") == null");
+                this.xs[i] = point.x;
+                this.ys[i] = point.y;
+                this.zs[i] = point.z;
             }
-            this.points = new ArrayList<>(points);
+            this.size = size;
+            this.coefficients = null;
+            this.length = null;
+            this.bounds = null;
+        }
+
+        /**
+         * @param xs x-координаты точек. Массив копируется.
+         * @param ys y-координаты точек. Массив копируется.
+         * @param zs z-координаты точек. Массив копируется.
+         */
+        public void setPoints(float[] xs, float[] ys, float[] zs) {
+            if (xs == null) throw new NullPointerException("xs == null");
+            if (ys == null) throw new NullPointerException("ys == null");
+            if (zs == null) throw new NullPointerException("zs == null");
+            if (ys.length != xs.length) throw new IllegalArgumentException("ys.length != xs.length");
+            if (zs.length != xs.length) throw new IllegalArgumentException("zs.length != xs.length");
+            this.xs = xs.clone();
+            this.ys = ys.clone();
+            this.zs = zs.clone();
+            this.size = xs.length;
+            this.coefficients = null;
+            this.length = null;
+            this.bounds = null;
+        }
+
+        private void allocate(int capacity) {
+            this.xs = new float[capacity];
+            this.ys = new float[capacity];
+            this.zs = new float[capacity];
         }
 
         @Override
@@ -426,6 +882,69 @@ public interface Path extends Curve {
         @Override
         public void setInterpolation(int interpolation) {
             this.interpolation = interpolation;
+            this.coefficients = null;
+            this.length = null;
+            this.bounds = null;
+        }
+
+        private float[][] getCoefficients() {
+            float[][] coefficients = this.coefficients;
+            if (coefficients == null) {
+                synchronized (this) {
+                    coefficients = this.coefficients;
+                    if (coefficients == null) {
+                        coefficients = new float[][]{
+                                Interpolator.coefficients(this.interpolation, this.xs, this.size),
+                                Interpolator.coefficients(this.interpolation, this.ys, this.size),
+                                Interpolator.coefficients(this.interpolation, this.zs, this.size)
+                        };
+                        this.coefficients = coefficients;
+                    }
+                }
+            }
+            return coefficients;
+        }
+
+        /**
+         * Точный ограничивающий параллелепипед. Линейная и косинусоидная интерполяции не выходят за пределы соседних
+         * точек, поэтому для них достаточно самих точек; для многочленов отрезков учитываются корни производной.
+         *
+         * @return ограничивающий параллелепипед; {@code null}, если точек нет.
+         */
+        @Override
+        protected Bounds.D3 computeBounds() {
+            int size = this.size;
+            if (size == 0) return null;
+
+            float[][] points = {this.xs, this.ys, this.zs};
+            float[][] coefficients = Interpolator.isPolynomial(this.interpolation) ? this.getCoefficients() : null;
+            float[] min = new float[3];
+            float[] max = new float[3];
+            float[] range = new float[2];
+
+            for (int k = 0; k < 3; k++) {
+                float[] axis = points[k];
+                float low = axis[0], high = axis[0];
+                for (int i = 1; i < size; i++) {
+                    low = Math.min(low, axis[i]);
+                    high = Math.max(high, axis[i]);
+                }
+
+                if (coefficients != null) {
+                    float[] c = coefficients[k];
+                    for (int i = 0; i < size - 1; i++) {
+                        int j = 4 * i;
+                        Roots.range(c[j], c[j + 1], c[j + 2], c[j + 3], range, 0);
+                        low = Math.min(low, range[0]);
+                        high = Math.max(high, range[1]);
+                    }
+                }
+
+                min[k] = low;
+                max[k] = high;
+            }
+
+            return new Bounds.D3(min[0], min[1], min[2], max[0], max[1], max[2]);
         }
 
         /**
@@ -434,7 +953,19 @@ public interface Path extends Curve {
          * @param z
          */
         public void addPoint(float x, float y, float z) {
-            this.points.add(new Vector3(x, y, z));
+            if (this.size == this.xs.length) {
+                int capacity = this.size + (this.size >> 1) + 1;
+                this.xs = Arrays.copyOf(this.xs, capacity);
+                this.ys = Arrays.copyOf(this.ys, capacity);
+                this.zs = Arrays.copyOf(this.zs, capacity);
+            }
+            this.xs[this.size] = x;
+            this.ys[this.size] = y;
+            this.zs[this.size] = z;
+            this.size++;
+            this.coefficients = null;
+            this.length = null;
+            this.bounds = null;
         }
 
         /**
@@ -442,7 +973,16 @@ public interface Path extends Curve {
          */
         public void addPoint(Vector3 point) {
             if (point == null) return;
-            this.points.add(point);
+            this.addPoint(point.x, point.y, point.z);
+        }
+
+        /**
+         * Получает количество точек.
+         *
+         * @return количество точек.
+         */
+        public int getPointCount() {
+            return this.size;
         }
 
         /**
@@ -450,62 +990,152 @@ public interface Path extends Curve {
          * @return
          */
         public Vector3 getPoint(int index) {
-            return this.points.get(index);
+            return this.getPoint(index, new Vector3());
+        }
+
+        /**
+         * @param index
+         * @param out   вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector3 getPoint(int index, Vector3 out) {
+            if (index < 0 || index >= this.size) throw new IndexOutOfBoundsException("index: " + index);
+            out.x = this.xs[index];
+            out.y = this.ys[index];
+            out.z = this.zs[index];
+            return out;
+        }
+
+        /**
+         * @param index
+         * @param x
+         * @param y
+         * @param z
+         */
+        public void setPoint(int index, float x, float y, float z) {
+            if (index < 0 || index >= this.size) throw new IndexOutOfBoundsException("index: " + index);
+            this.xs[index] = x;
+            this.ys[index] = y;
+            this.zs[index] = z;
+            this.coefficients = null;
+            this.length = null;
+            this.bounds = null;
         }
 
         @Override
-        public Vector3 getPointAt(float t) {
+        public Vector3 getPointAt(float t, Vector3 out) {
+            if (this.size == 0) throw new IndexOutOfBoundsException("size == 0");
             t = MoreMath.clamp(t, 0.0f, 1.0f);
 
-            int size = this.points.size();
+            float[] xs = this.xs, ys = this.ys, zs = this.zs;
+            int interpolation = this.interpolation;
+            int size = this.size;
             float point = (size - 1) * t;
             int intPoint = (int) point;
             float weight = point - intPoint;
 
+            if (Interpolator.isPolynomial(interpolation)) {
+                float[][] coefficients = this.getCoefficients();
+                out.x = Interpolator.horner(coefficients[0], intPoint, weight);
+                out.y = Interpolator.horner(coefficients[1], intPoint, weight);
+                out.z = Interpolator.horner(coefficients[2], intPoint, weight);
+                return out;
+            }
+
             int i1 = intPoint == 0 ? intPoint : intPoint - 1;
             int i2 = intPoint;
             int i3 = intPoint > size - 2 ? intPoint : intPoint + 1;
             int i4 = intPoint > size - 3 ? intPoint : intPoint + 2;
 
-            Vector3 p1 = this.points.get(i1);
-            Vector3 p2 = this.points.get(i2);
-            Vector3 p3 = this.points.get(i3);
-            Vector3 p4 = this.points.get(i4);
-
-            Vector3 p = new Vector3();
-            switch (this.interpolation) {
-                default:
-                case LINEAR: {
-                    p.x = Interpolator.linear(p2.x, p3.x, weight);
-                    p.y = Interpolator.linear(p2.y, p3.y, weight);
-                    p.z = Interpolator.linear(p2.z, p3.z, weight);
-                    break;
-                }
-                case COSINE: {
-                    p.x = Interpolator.cosine(p2.x, p3.x, weight);
-                    p.y = Interpolator.cosine(p2.y, p3.y, weight);
-                    p.z = Interpolator.cosine(p2.z, p3.z, weight);
-                    break;
-                }
-                case CUBIC: {
-                    p.x = Interpolator.cubic(p1.x, p2.x, p3.x, p4.x, weight);
-                    p.y = Interpolator.cubic(p1.y, p2.y, p3.y, p4.y, weight);
-                    break;
-                }
-                case HERMITE: {
-                    p.x = Interpolator.hermite(p1.x, p2.x, p3.x, p4.x, 0, 0, weight);
-                    p.y = Interpolator.hermite(p1.y, p2.y, p3.y, p4.y, 0, 0, weight);
-                    p.z = Interpolator.hermite(p1.z, p2.z, p3.z, p4.z, 0, 0, weight);
-                    break;
+            out.x = Interpolator.interpolate(interpolation, xs[i1], xs[i2], xs[i3], xs[i4], weight);
+            out.y = Interpolator.interpolate(interpolation, ys[i1], ys[i2], ys[i3], ys[i4], weight);
+            out.z = Interpolator.interpolate(interpolation, zs[i1], zs[i2], zs[i3], zs[i4], weight);
+            return out;
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outXYZ, int outOffset) {
+            if (this.size == 0 && count > 0) throw new IndexOutOfBoundsException("size == 0");
+
+            float[] xs = this.xs, ys = this.ys, zs = this.zs;
+            int interpolation = this.interpolation;
+            int size = this.size;
+
+            if (Interpolator.isPolynomial(interpolation)) {
+                float[][] coefficients = this.getCoefficients();
+                float[] cx = coefficients[0], cy = coefficients[1], cz = coefficients[2];
+                for (int i = 0; i < count; i++) {
+                    float t = MoreMath.clamp(ts[offset + i], 0.0f, 1.0f);
+                    float point = (size - 1) * t;
+                    int intPoint = (int) point;
+                    float weight = point - intPoint;
+
+                    int j = outOffset + 3 * i;
+                    outXYZ[j] = Interpolator.horner(cx, intPoint, weight);
+                    outXYZ[j + 1] = Interpolator.horner(cy, intPoint, weight);
+                    outXYZ[j + 2] = Interpolator.horner(cz, intPoint, weight);
                 }
-                case SPLINE: {
-                    p.x = Interpolator.spline(p1.x, p2.x, p3.x, p4.x, weight);
-                    p.y = Interpolator.spline(p1.y, p2.y, p3.y, p4.y, weight);
-                    p.z = Interpolator.spline(p1.z, p2.z, p3.z, p4.z, weight);
-                    break;
+                return;
+            }
+
+            for (int i = 0; i < count; i++) {
+                float t = MoreMath.clamp(ts[offset + i], 0.0f, 1.0f);
+                float point = (size - 1) * t;
+                int intPoint = (int) point;
+                float weight = point - intPoint;
+
+                int i1 = intPoint == 0 ? intPoint : intPoint - 1;
+                int i2 = intPoint;
+                int i3 = intPoint > size - 2 ? intPoint : intPoint + 1;
+                int i4 = intPoint > size - 3 ? intPoint : intPoint + 2;
+
+                int j = outOffset + 3 * i;
+                outXYZ[j] = Interpolator.interpolate(interpolation, xs[i1], xs[i2], xs[i3], xs[i4], weight);
+                outXYZ[j + 1] = Interpolator.interpolate(interpolation, ys[i1], ys[i2], ys[i3], ys[i4], weight);
+                outXYZ[j + 2] = Interpolator.interpolate(interpolation, zs[i1], zs[i2], zs[i3], zs[i4], weight);
+            }
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outX, float[] outY, float[] outZ,
+                             int outOffset) {
+            if (this.size == 0 && count > 0) throw new IndexOutOfBoundsException("size == 0");
+
+            float[] xs = this.xs, ys = this.ys, zs = this.zs;
+            int interpolation = this.interpolation;
+            int size = this.size;
+
+            if (Interpolator.isPolynomial(interpolation)) {
+                float[][] coefficients = this.getCoefficients();
+                float[] cx = coefficients[0], cy = coefficients[1], cz = coefficients[2];
+                for (int i = 0; i < count; i++) {
+                    float t = MoreMath.clamp(ts[offset + i], 0.0f, 1.0f);
+                    float point = (size - 1) * t;
+                    int intPoint = (int) point;
+                    float weight = point - intPoint;
+
+                    outX[outOffset + i] = Interpolator.horner(cx, intPoint, weight);
+                    outY[outOffset + i] = Interpolator.horner(cy, intPoint, weight);
+                    outZ[outOffset + i] = Interpolator.horner(cz, intPoint, weight);
                 }
+                return;
+            }
+
+            for (int i = 0; i < count; i++) {
+                float t = MoreMath.clamp(ts[offset + i], 0.0f, 1.0f);
+                float point = (size - 1) * t;
+                int intPoint = (int) point;
+                float weight = point - intPoint;
+
+                int i1 = intPoint == 0 ? intPoint : intPoint - 1;
+                int i2 = intPoint;
+                int i3 = intPoint > size - 2 ? intPoint : intPoint + 1;
+                int i4 = intPoint > size - 3 ? intPoint : intPoint + 2;
+
+                outX[outOffset + i] = Interpolator.interpolate(interpolation, xs[i1], xs[i2], xs[i3], xs[i4], weight);
+                outY[outOffset + i] = Interpolator.interpolate(interpolation, ys[i1], ys[i2], ys[i3], ys[i4], weight);
+                outZ[outOffset + i] = Interpolator.interpolate(interpolation, zs[i1], zs[i2], zs[i3], zs[i4], weight);
             }
-            return p;
         }
     /*
         @Override
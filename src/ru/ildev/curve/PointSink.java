@@ -0,0 +1,53 @@
+/*
+ *
+ */
+package ru.ildev.curve;
+
+/**
+ * Получатель точек при потоковом разбиении кривой на ломаную, см. {@link Curve.D2#tessellate(int, PointSink.D2)}.
+ * Точки передаются по одной в виде координат, поэтому разбиение не создает массивов точек и работает в постоянной
+ * памяти независимо от их количества. Получатель может прекратить разбиение, вернув {@code false}.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+public interface PointSink {
+
+    /**
+     * Получатель точек на плоскости.
+     *
+     * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+     */
+    interface D2 extends PointSink {
+
+        /**
+         * Принимает точку.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @return {@code true}, чтобы продолжить разбиение; {@code false}, чтобы прекратить его.
+         */
+        boolean accept(float x, float y);
+
+    }
+
+    /**
+     * Получатель точек в пространстве.
+     *
+     * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+     */
+    interface D3 extends PointSink {
+
+        /**
+         * Принимает точку.
+         *
+         * @param x x-координата точки.
+         * @param y y-координата точки.
+         * @param z z-координата точки.
+         * @return {@code true}, чтобы продолжить разбиение; {@code false}, чтобы прекратить его.
+         */
+        boolean accept(float x, float y, float z);
+
+    }
+
+}
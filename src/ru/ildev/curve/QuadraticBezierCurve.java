@@ -2,6 +2,7 @@ package ru.ildev.curve;
 
 import ru.ildev.geom.Vector2;
 import ru.ildev.geom.Vector3;
+import ru.ildev.math.MoreMath;
 
 /**
  * Класс квадратичной кривой Безье. Она строится по трем точкам. Первая и третья точки - это начало и конец кривой.
@@ -29,6 +30,11 @@ public interface QuadraticBezierCurve extends Curve {
          * Точка конца кривой.
          */
         private float end;
+        /**
+         * Коэффициенты степенного базиса {@code P(t) = (a * t + b) * t + start}.
+         * Вычисляются в конструкторе, поэтому точки, возвращаемые методами доступа, не должны изменяться.
+         */
+        private final float a, b;
 
         /**
          * Стандартный конструктор.
@@ -41,6 +47,9 @@ public interface QuadraticBezierCurve extends Curve {
             this.start = start;
             this.control = control;
             this.end = end;
+
+            this.a = start - 2.0f * control + end;
+            this.b = 2.0f * (control - start);
         }
 
         /**
@@ -72,11 +81,109 @@ public interface QuadraticBezierCurve extends Curve {
 
         @Override
         public float getPointAt(float t) {
-            return this.b2(t, this.start, this.control, this.end);
+            return (this.a * t + this.b) * t + this.start;
+        }
+
+        /**
+         * Получает производную кривой.
+         *
+         * @param t значение от 0 до 1.
+         * @return значение производной.
+         */
+        public float getDerivativeAt(float t) {
+            return 2.0f * this.a * t + this.b;
+        }
+
+        /**
+         * Получает вторую производную кривой.
+         *
+         * @param t значение от 0 до 1.
+         * @return значение второй производной.
+         */
+        public float getSecondDerivativeAt(float t) {
+            return 2.0f * this.a;
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] out, int outOffset) {
+            float a = this.a, b = this.b, c = this.start;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                out[outOffset + i] = (a * t + b) * t + c;
+            }
+        }
+
+        /**
+         * Разбивает кривую методом прямых разностей: после подготовки начальных разностей каждая следующая точка
+         * получается за два сложения на координату. Разности накапливаются в {@code double}, а последняя точка
+         * берется точно равной концу кривой, чтобы ошибка накопления не смещала ее.
+         *
+         * @param divisions количество отрезков, на которые делится кривая.
+         * @param out       массив для записи точек.
+         * @param outOffset индекс в {@code out}, с которого записываются точки.
+         * @return количество записанных точек, равное {@code divisions + 1}.
+         */
+        @Override
+        public int getPoints(int divisions, float[] out, int outOffset) {
+            if (divisions <= 0) return 0;
+
+            double h = 1.0 / divisions;
+            double h2 = h * h;
+
+            double a = this.a;
+            double b = this.b;
+            double f = this.start;
+            double df = a * h2 + b * h;
+            double d2f = 2.0 * a * h2;
+
+            for (int d = 0; d < divisions; d++) {
+                out[outOffset + d] = (float) f;
+
+                f += df;
+                df += d2f;
+            }
+
+            out[outOffset + divisions] = this.end;
+            return divisions + 1;
         }
 
-        private float b2(float t, float p0, float p1, float p2) {
-            return p0 * (1 - t) * (1 - t) + 2 * p1 * (1 - t) * t + p2 * t * t;
+        /**
+         * Получает длину кривой. Производная квадратичной кривой линейна, поэтому длина вычисляется точно по
+         * формуле.
+         *
+         * @return длину кривой.
+         */
+        @Override
+        public float getLength() {
+            return this.getLength(0.0f, 1.0f);
+        }
+
+        /**
+         * Получает длину части кривой между двумя значениями параметра.
+         *
+         * @param t0 начальное значение от 0 до 1.
+         * @param t1 конечное значение от {@code t0} до 1.
+         * @return длину части кривой.
+         */
+        public float getLength(float t0, float t1) {
+            // P'(t) = 2 * (a * t + b).
+            double a = this.a;
+            double b = 0.5 * this.b;
+            return 2.0f * ArcLength.linearSpeedIntegral(a * a, a * b, b * b, t0, t1);
+        }
+
+        @Override
+        protected float[] computeLengths(int divisions) {
+            float[] cache = new float[divisions + 1];
+            float length = 0.0f;
+
+            for (int p = 1; p <= divisions; p++) {
+                length += this.getLength((float) (p - 1) / divisions, (float) p / divisions);
+                cache[p] = length;
+            }
+
+            return cache;
         }
 
     }
@@ -98,6 +205,11 @@ public interface QuadraticBezierCurve extends Curve {
          * Точка конца кривой.
          */
         private Vector2 end = new Vector2();
+        /**
+         * Коэффициенты степенного базиса {@code P(t) = (a * t + b) * t + start}.
+         * Вычисляются в конструкторе, поэтому точки, возвращаемые методами доступа, не должны изменяться.
+         */
+        private final float ax, bx, ay, by;
 
         /**
          * Стандартный конструктор.
@@ -114,6 +226,11 @@ public interface QuadraticBezierCurve extends Curve {
             this.start.copy(start);
             this.control.copy(control);
             this.end.copy(end);
+
+            this.ax = start.x - 2.0f * control.x + end.x;
+            this.bx = 2.0f * (control.x - start.x);
+            this.ay = start.y - 2.0f * control.y + end.y;
+            this.by = 2.0f * (control.y - start.y);
         }
 
         /**
@@ -144,28 +261,190 @@ public interface QuadraticBezierCurve extends Curve {
         }
 
         @Override
-        public Vector2 getPointAt(float t) {
-            float tx = this.b2(t, this.start.x, this.control.x, this.end.x);
-            float ty = this.b2(t, this.start.y, this.control.y, this.end.y);
-            return new Vector2(tx, ty);
+        public Vector2 getPointAt(float t, Vector2 out) {
+            out.x = (this.ax * t + this.bx) * t + this.start.x;
+            out.y = (this.ay * t + this.by) * t + this.start.y;
+            return out;
+        }
+
+        @Override
+        public Vector2 getTangentAt(float t, Vector2 out) {
+            this.getDerivativeAt(t, out);
+            out.normalize();
+            return out;
+        }
+
+        /**
+         * Получает производную кривой.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector2 getDerivativeAt(float t, Vector2 out) {
+            out.x = 2.0f * this.ax * t + this.bx;
+            out.y = 2.0f * this.ay * t + this.by;
+            return out;
+        }
+
+        /**
+         * Получает вторую производную кривой.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector2 getSecondDerivativeAt(float t, Vector2 out) {
+            out.x = 2.0f * this.ax;
+            out.y = 2.0f * this.ay;
+            return out;
+        }
+
+        /**
+         * Уточняет ближайшую точку методом Ньютона для уравнения {@code (P(t) - Q) * P'(t) = 0} по производным в
+         * степенном базисе. Если вторая производная квадрата расстояния не положительна, используется метод золотого
+         * сечения.
+         */
+        @Override
+        protected float refineClosestT(float x, float y, float t, float min, float max) {
+            for (int i = 0; i < CLOSEST_ITERATIONS; i++) {
+                float px = (this.ax * t + this.bx) * t + this.start.x - x;
+                float py = (this.ay * t + this.by) * t + this.start.y - y;
+                float dx = 2.0f * this.ax * t + this.bx;
+                float dy = 2.0f * this.ay * t + this.by;
+
+                float numerator = px * dx + py * dy;
+                float denominator = dx * dx + dy * dy + 2.0f * (px * this.ax + py * this.ay);
+                if (denominator <= 0.0f) return super.refineClosestT(x, y, t, min, max);
+
+                float next = MoreMath.clamp(t - numerator / denominator, min, max);
+                if (Math.abs(next - t) < 1.0e-7f) return next;
+                t = next;
+            }
+            return t;
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outXY, int outOffset) {
+            float ax = this.ax, bx = this.bx, cx = this.start.x;
+            float ay = this.ay, by = this.by, cy = this.start.y;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                int j = outOffset + 2 * i;
+                outXY[j] = (ax * t + bx) * t + cx;
+                outXY[j + 1] = (ay * t + by) * t + cy;
+            }
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outX, float[] outY, int outOffset) {
+            float ax = this.ax, bx = this.bx, cx = this.start.x;
+            float ay = this.ay, by = this.by, cy = this.start.y;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                outX[outOffset + i] = (ax * t + bx) * t + cx;
+                outY[outOffset + i] = (ay * t + by) * t + cy;
+            }
+        }
+
+        /**
+         * Количество отрезков вычисляется по формуле Ванга: вторая производная квадратичной кривой постоянна и
+         * равна {@code 2 * a = 2 * (P0 - 2 * P1 + P2)}.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return количество отрезков, не меньше 1.
+         */
+        @Override
+        public int getDivisions(float tolerance) {
+            float max = (float) Math.sqrt(this.ax * this.ax + this.ay * this.ay);
+            return divisions(2.0f * max, tolerance);
+        }
+
+        /**
+         * Точный ограничивающий прямоугольник: по каждой оси берутся концы кривой и точки, в которых производная
+         * обращается в ноль.
+         *
+         * @return ограничивающий прямоугольник.
+         */
+        @Override
+        protected Bounds.D2 computeBounds() {
+            float[] range = new float[4];
+            Roots.range(0.0, this.ax, this.bx, this.start.x, range, 0);
+            Roots.range(0.0, this.ay, this.by, this.start.y, range, 2);
+            return new Bounds.D2(range[0], range[2], range[1], range[3]);
         }
 
         @Override
-        public Vector2 getTangentAt(float t) {
-            float tx = this.tangent(t, this.start.x, this.control.x, this.end.x);
-            float ty = this.tangent(t, this.start.y, this.control.y, this.end.y);
+        public int getPoints(int divisions, float[] outXY, int outOffset) {
+            if (divisions <= 0) return 0;
+
+            double h = 1.0 / divisions;
+            double h2 = h * h;
+
+            double aX = this.ax;
+            double bX = this.bx;
+            double fX = this.start.x;
+            double dfX = aX * h2 + bX * h;
+            double d2fX = 2.0 * aX * h2;
+
+            double aY = this.ay;
+            double bY = this.by;
+            double fY = this.start.y;
+            double dfY = aY * h2 + bY * h;
+            double d2fY = 2.0 * aY * h2;
+
+            for (int d = 0; d < divisions; d++) {
+                int j = outOffset + 2 * d;
+                outXY[j] = (float) fX;
+                outXY[j + 1] = (float) fY;
+
+                fX += dfX;
+                dfX += d2fX;
+                fY += dfY;
+                dfY += d2fY;
+            }
+
+            int last = outOffset + 2 * divisions;
+            outXY[last] = this.end.x;
+            outXY[last + 1] = this.end.y;
+            return divisions + 1;
+        }
 
-            Vector2 tangent = new Vector2(tx, ty);
-            tangent.normalize();
-            return tangent;
+        @Override
+        public float getLength() {
+            return this.getLength(0.0f, 1.0f);
         }
 
-        private float b2(float t, float p0, float p1, float p2) {
-            return p0 * (1 - t) * (1 - t) + 2 * p1 * (1 - t) * t + p2 * t * t;
+        /**
+         * Получает длину части кривой между двумя значениями параметра.
+         *
+         * @param t0 начальное значение от 0 до 1.
+         * @param t1 конечное значение от {@code t0} до 1.
+         * @return длину части кривой.
+         */
+        public float getLength(float t0, float t1) {
+            // P'(t) = 2 * (a * t + b).
+            double aX = this.ax;
+            double bX = 0.5 * this.bx;
+            double aY = this.ay;
+            double bY = 0.5 * this.by;
+            return 2.0f * ArcLength.linearSpeedIntegral(aX * aX + aY * aY, aX * bX + aY * bY, bX * bX + bY * bY,
+                    t0, t1);
         }
 
-        private float tangent(float t, float p0, float p1, float p2) {
-            return 2 * (1 - t) * (p1 - p0) + 2 * t * (p2 - p1);
+        @Override
+        protected float[] computeLengths(int divisions) {
+            float[] cache = new float[divisions + 1];
+            float length = 0.0f;
+
+            for (int p = 1; p <= divisions; p++) {
+                length += this.getLength((float) (p - 1) / divisions, (float) p / divisions);
+                cache[p] = length;
+            }
+
+            return cache;
         }
 
     }
@@ -187,6 +466,11 @@ public interface QuadraticBezierCurve extends Curve {
          * Точка конца кривой.
          */
         private Vector3 end = new Vector3();
+        /**
+         * Коэффициенты степенного базиса {@code P(t) = (a * t + b) * t + start}.
+         * Вычисляются в конструкторе, поэтому точки, возвращаемые методами доступа, не должны изменяться.
+         */
+        private final float ax, bx, ay, by, az, bz;
 
         /**
          * Стандартный конструктор.
@@ -203,6 +487,13 @@ public interface QuadraticBezierCurve extends Curve {
             this.start.copy(start);
             this.control.copy(control);
             this.end.copy(end);
+
+            this.ax = start.x - 2.0f * control.x + end.x;
+            this.bx = 2.0f * (control.x - start.x);
+            this.ay = start.y - 2.0f * control.y + end.y;
+            this.by = 2.0f * (control.y - start.y);
+            this.az = start.z - 2.0f * control.z + end.z;
+            this.bz = 2.0f * (control.z - start.z);
         }
 
         /**
@@ -233,15 +524,213 @@ public interface QuadraticBezierCurve extends Curve {
         }
 
         @Override
-        public Vector3 getPointAt(float t) {
-            float tx = this.b2(t, this.start.x, this.control.x, this.end.x);
-            float ty = this.b2(t, this.start.y, this.control.y, this.end.y);
-            float tz = this.b2(t, this.start.z, this.control.z, this.end.z);
-            return new Vector3(tx, ty, tz);
+        public Vector3 getPointAt(float t, Vector3 out) {
+            out.x = (this.ax * t + this.bx) * t + this.start.x;
+            out.y = (this.ay * t + this.by) * t + this.start.y;
+            out.z = (this.az * t + this.bz) * t + this.start.z;
+            return out;
+        }
+
+        @Override
+        public Vector3 getTangentAt(float t, Vector3 out) {
+            this.getDerivativeAt(t, out);
+            normalize(out);
+            return out;
+        }
+
+        /**
+         * Получает производную кривой.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector3 getDerivativeAt(float t, Vector3 out) {
+            out.x = 2.0f * this.ax * t + this.bx;
+            out.y = 2.0f * this.ay * t + this.by;
+            out.z = 2.0f * this.az * t + this.bz;
+            return out;
         }
 
-        private float b2(float t, float p0, float p1, float p2) {
-            return p0 * (1 - t) * (1 - t) + 2 * p1 * (1 - t) * t + p2 * t * t;
+        /**
+         * Получает вторую производную кривой.
+         *
+         * @param t   значение от 0 до 1.
+         * @param out вектор для записи результата.
+         * @return вектор {@code out}.
+         */
+        public Vector3 getSecondDerivativeAt(float t, Vector3 out) {
+            out.x = 2.0f * this.ax;
+            out.y = 2.0f * this.ay;
+            out.z = 2.0f * this.az;
+            return out;
+        }
+
+        /**
+         * Уточняет ближайшую точку методом Ньютона для уравнения {@code (P(t) - Q) * P'(t) = 0} по производным в
+         * степенном базисе. Если вторая производная квадрата расстояния не положительна, используется метод золотого
+         * сечения.
+         */
+        @Override
+        protected float refineClosestT(float x, float y, float z, float t, float min, float max) {
+            for (int i = 0; i < CLOSEST_ITERATIONS; i++) {
+                float px = (this.ax * t + this.bx) * t + this.start.x - x;
+                float py = (this.ay * t + this.by) * t + this.start.y - y;
+                float pz = (this.az * t + this.bz) * t + this.start.z - z;
+                float dx = 2.0f * this.ax * t + this.bx;
+                float dy = 2.0f * this.ay * t + this.by;
+                float dz = 2.0f * this.az * t + this.bz;
+
+                float numerator = px * dx + py * dy + pz * dz;
+                float denominator = dx * dx + dy * dy + dz * dz + 2.0f * (px * this.ax + py * this.ay + pz * this.az);
+                if (denominator <= 0.0f) return super.refineClosestT(x, y, z, t, min, max);
+
+                float next = MoreMath.clamp(t - numerator / denominator, min, max);
+                if (Math.abs(next - t) < 1.0e-7f) return next;
+                t = next;
+            }
+            return t;
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outXYZ, int outOffset) {
+            float ax = this.ax, bx = this.bx, cx = this.start.x;
+            float ay = this.ay, by = this.by, cy = this.start.y;
+            float az = this.az, bz = this.bz, cz = this.start.z;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                int j = outOffset + 3 * i;
+                outXYZ[j] = (ax * t + bx) * t + cx;
+                outXYZ[j + 1] = (ay * t + by) * t + cy;
+                outXYZ[j + 2] = (az * t + bz) * t + cz;
+            }
+        }
+
+        @Override
+        public void evaluate(float[] ts, int offset, int count, float[] outX, float[] outY, float[] outZ,
+                             int outOffset) {
+            float ax = this.ax, bx = this.bx, cx = this.start.x;
+            float ay = this.ay, by = this.by, cy = this.start.y;
+            float az = this.az, bz = this.bz, cz = this.start.z;
+
+            for (int i = 0; i < count; i++) {
+                float t = ts[offset + i];
+                outX[outOffset + i] = (ax * t + bx) * t + cx;
+                outY[outOffset + i] = (ay * t + by) * t + cy;
+                outZ[outOffset + i] = (az * t + bz) * t + cz;
+            }
+        }
+
+        /**
+         * Количество отрезков вычисляется по формуле Ванга: вторая производная квадратичной кривой постоянна и
+         * равна {@code 2 * a = 2 * (P0 - 2 * P1 + P2)}.
+         *
+         * @param tolerance допустимое отклонение ломаной от кривой.
+         * @return количество отрезков, не меньше 1.
+         */
+        @Override
+        public int getDivisions(float tolerance) {
+            float max = (float) Math.sqrt(this.ax * this.ax + this.ay * this.ay + this.az * this.az);
+            return divisions(2.0f * max, tolerance);
+        }
+
+        /**
+         * Точный ограничивающий параллелепипед: по каждой оси берутся концы кривой и точки, в которых производная
+         * обращается в ноль.
+         *
+         * @return ограничивающий параллелепипед.
+         */
+        @Override
+        protected Bounds.D3 computeBounds() {
+            float[] range = new float[6];
+            Roots.range(0.0, this.ax, this.bx, this.start.x, range, 0);
+            Roots.range(0.0, this.ay, this.by, this.start.y, range, 2);
+            Roots.range(0.0, this.az, this.bz, this.start.z, range, 4);
+            return new Bounds.D3(range[0], range[2], range[4], range[1], range[3], range[5]);
+        }
+
+        @Override
+        public int getPoints(int divisions, float[] outXYZ, int outOffset) {
+            if (divisions <= 0) return 0;
+
+            double h = 1.0 / divisions;
+            double h2 = h * h;
+
+            double aX = this.ax;
+            double bX = this.bx;
+            double fX = this.start.x;
+            double dfX = aX * h2 + bX * h;
+            double d2fX = 2.0 * aX * h2;
+
+            double aY = this.ay;
+            double bY = this.by;
+            double fY = this.start.y;
+            double dfY = aY * h2 + bY * h;
+            double d2fY = 2.0 * aY * h2;
+
+            double aZ = this.az;
+            double bZ = this.bz;
+            double fZ = this.start.z;
+            double dfZ = aZ * h2 + bZ * h;
+            double d2fZ = 2.0 * aZ * h2;
+
+            for (int d = 0; d < divisions; d++) {
+                int j = outOffset + 3 * d;
+                outXYZ[j] = (float) fX;
+                outXYZ[j + 1] = (float) fY;
+                outXYZ[j + 2] = (float) fZ;
+
+                fX += dfX;
+                dfX += d2fX;
+                fY += dfY;
+                dfY += d2fY;
+                fZ += dfZ;
+                dfZ += d2fZ;
+            }
+
+            int last = outOffset + 3 * divisions;
+            outXYZ[last] = this.end.x;
+            outXYZ[last + 1] = this.end.y;
+            outXYZ[last + 2] = this.end.z;
+            return divisions + 1;
+        }
+
+        @Override
+        public float getLength() {
+            return this.getLength(0.0f, 1.0f);
+        }
+
+        /**
+         * Получает длину части кривой между двумя значениями параметра.
+         *
+         * @param t0 начальное значение от 0 до 1.
+         * @param t1 конечное значение от {@code t0} до 1.
+         * @return длину части кривой.
+         */
+        public float getLength(float t0, float t1) {
+            // P'(t) = 2 * (a * t + b).
+            double aX = this.ax;
+            double bX = 0.5 * this.bx;
+            double aY = this.ay;
+            double bY = 0.5 * this.by;
+            double aZ = this.az;
+            double bZ = 0.5 * this.bz;
+            return 2.0f * ArcLength.linearSpeedIntegral(aX * aX + aY * aY + aZ * aZ, aX * bX + aY * bY + aZ * bZ,
+                    bX * bX + bY * bY + bZ * bZ, t0, t1);
+        }
+
+        @Override
+        protected float[] computeLengths(int divisions) {
+            float[] cache = new float[divisions + 1];
+            float length = 0.0f;
+
+            for (int p = 1; p <= divisions; p++) {
+                length += this.getLength((float) (p - 1) / divisions, (float) p / divisions);
+                cache[p] = length;
+            }
+
+            return cache;
         }
 
     }
@@ -0,0 +1,137 @@
+/*
+ *
+ */
+package ru.ildev.curve;
+
+/**
+ * Вспомогательные методы для нахождения корней многочленов невысокой степени.
+ *
+ * @author Ilyas Shafigin <ilyas174<@>gmail.com>
+ * @version 0.0.0
+ */
+final class Roots {
+
+    private Roots() {
+    }
+
+    /**
+     * Находит действительные корни уравнения {@code a * t * t + b * t + c = 0}. При {@code a = 0} уравнение решается
+     * как линейное. Используется формула, в которой не вычитаются близкие числа, поэтому малый коэффициент
+     * {@code a} не приводит к потере точности меньшего корня.
+     *
+     * @param a     коэффициент при {@code t * t}.
+     * @param b     коэффициент при {@code t}.
+     * @param c     свободный член.
+     * @param roots массив размером не меньше 2 для записи корней.
+     * @return количество найденных корней от 0 до 2.
+     */
+    static int quadratic(double a, double b, double c, double[] roots) {
+        if (a == 0.0) {
+            if (b == 0.0) return 0;
+            roots[0] = -c / b;
+            return 1;
+        }
+
+        double discriminant = b * b - 4.0 * a * c;
+        if (discriminant < 0.0) return 0;
+
+        double q = -0.5 * (b + (b < 0.0 ? -Math.sqrt(discriminant) : Math.sqrt(discriminant)));
+        if (q == 0.0) {
+            roots[0] = 0.0;
+            return 1;
+        }
+
+        roots[0] = q / a;
+        roots[1] = c / q;
+        return 2;
+    }
+
+    /**
+     * Находит действительные корни уравнения {@code ((a * t + b) * t + c) * t + d = 0}. Если коэффициент {@code a}
+     * пренебрежимо мал по сравнению с остальными, уравнение решается как квадратное. Корни находятся по формуле
+     * Кардано или, при трех действительных корнях, тригонометрической формулой, после чего уточняются методом Ньютона.
+     *
+     * @param a     коэффициент при {@code t * t * t}.
+     * @param b     коэффициент при {@code t * t}.
+     * @param c     коэффициент при {@code t}.
+     * @param d     свободный член.
+     * @param roots массив размером не меньше 3 для записи корней.
+     * @return количество найденных корней от 0 до 3.
+     */
+    static int cubic(double a, double b, double c, double d, double[] roots) {
+        if (Math.abs(a) <= 1.0e-9 * (Math.abs(b) + Math.abs(c) + Math.abs(d))) return quadratic(b, c, d, roots);
+
+        // Подстановка t = x - shift приводит уравнение к виду x^3 + p * x + q = 0.
+        double b1 = b / a, c1 = c / a, d1 = d / a;
+        double shift = b1 / 3.0;
+        double p = c1 - b1 * shift;
+        double q = shift * (2.0 * shift * shift - c1) + d1;
+
+        int count;
+        double discriminant = 0.25 * q * q + p * p * p / 27.0;
+        if (discriminant > 0.0) {
+            double root = Math.sqrt(discriminant);
+            roots[0] = Math.cbrt(-0.5 * q + root) + Math.cbrt(-0.5 * q - root) - shift;
+            count = 1;
+        } else if (p == 0.0) {
+            roots[0] = -shift;
+            count = 1;
+        } else {
+            double m = 2.0 * Math.sqrt(-p / 3.0);
+            double angle = Math.acos(Math.max(-1.0, Math.min(1.0, 3.0 * q / (p * m)))) / 3.0;
+            for (int k = 0; k < 3; k++) {
+                roots[k] = m * Math.cos(angle - 2.0 * Math.PI * k / 3.0) - shift;
+            }
+            count = 3;
+        }
+
+        // Шаг Ньютона принимается, только если он уменьшает невязку.
+        for (int i = 0; i < count; i++) {
+            double t = roots[i];
+            double value = ((a * t + b) * t + c) * t + d;
+            for (int k = 0; k < 4 && value != 0.0; k++) {
+                double derivative = (3.0 * a * t + 2.0 * b) * t + c;
+                if (derivative == 0.0) break;
+                double next = t - value / derivative;
+                double nextValue = ((a * next + b) * next + c) * next + d;
+                if (Math.abs(nextValue) >= Math.abs(value)) break;
+                t = next;
+                value = nextValue;
+            }
+            roots[i] = t;
+        }
+        return count;
+    }
+
+    /**
+     * Находит наименьшее и наибольшее значения многочлена {@code ((a * t + b) * t + c) * t + d} на отрезке [0, 1].
+     * Значения берутся на концах отрезка и в корнях производной, лежащих внутри него.
+     *
+     * @param a      коэффициент при {@code t * t * t}.
+     * @param b      коэффициент при {@code t * t}.
+     * @param c      коэффициент при {@code t}.
+     * @param d      свободный член.
+     * @param out    массив для записи результата: наименьшее значение и следом наибольшее.
+     * @param offset индекс в {@code out}, с которого записывается результат.
+     */
+    static void range(double a, double b, double c, double d, float[] out, int offset) {
+        double end = ((a + b) + c) + d;
+        double min = Math.min(d, end);
+        double max = Math.max(d, end);
+
+        double[] roots = new double[2];
+        int count = quadratic(3.0 * a, 2.0 * b, c, roots);
+        for (int i = 0; i < count; i++) {
+            double t = roots[i];
+            if (t > 0.0 && t < 1.0) {
+                double value = ((a * t + b) * t + c) * t + d;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+
+        out[offset] = (float) min;
+        out[offset + 1] = (float) max;
+    }
+
+}